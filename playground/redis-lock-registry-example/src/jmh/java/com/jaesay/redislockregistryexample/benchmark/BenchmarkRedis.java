@@ -0,0 +1,64 @@
+package com.jaesay.redislockregistryexample.benchmark;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.ServerSocket;
+import java.util.Properties;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import redis.embedded.RedisServer;
+
+/**
+ * 벤치마크용 내장 Redis (Trial 마다 빈 포트에 띄우고 close 로 내린다)
+ * 같은 머신의 Redis 라 왕복 시간이 실제 네트워크보다 짧다.
+ */
+final class BenchmarkRedis implements AutoCloseable {
+
+    private final RedisServer server;
+    private final LettuceConnectionFactory connectionFactory;
+
+    BenchmarkRedis() throws IOException {
+        int port = freePort();
+        server = new RedisServer(port);
+        server.start();
+        connectionFactory = new LettuceConnectionFactory(new RedisStandaloneConfiguration("localhost", port));
+        connectionFactory.afterPropertiesSet();
+        connectionFactory.start();
+    }
+
+    LettuceConnectionFactory connectionFactory() {
+        return connectionFactory;
+    }
+
+    StringRedisTemplate redisTemplate() {
+        return new StringRedisTemplate(connectionFactory);
+    }
+
+    ReactiveStringRedisTemplate reactiveRedisTemplate() {
+        return new ReactiveStringRedisTemplate(connectionFactory);
+    }
+
+    /**
+     * 서버가 지금까지 처리한 명령 수 (INFO stats 의 total_commands_processed, 스크립트 안에서 실행한 명령도 센다)
+     */
+    long commandsProcessed() {
+        Properties stats = redisTemplate().execute(connection -> connection.serverCommands().info("stats"), true);
+        return Long.parseLong(stats.getProperty("total_commands_processed").trim());
+    }
+
+    @Override
+    public void close() throws IOException {
+        connectionFactory.destroy();
+        server.stop();
+    }
+
+    private static int freePort() {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
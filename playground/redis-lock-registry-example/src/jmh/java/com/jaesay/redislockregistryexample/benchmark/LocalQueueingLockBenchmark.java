@@ -0,0 +1,139 @@
+package com.jaesay.redislockregistryexample.benchmark;
+
+import com.jaesay.redislockregistryexample.lock.LeaseLockRegistry;
+import com.jaesay.redislockregistryexample.lock.LocalQueueingLockRegistry;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Function;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.integration.redis.util.RedisLockRegistry;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+
+/**
+ * 같은 노드 16 스레드가 소수의 키를 두고 경쟁할 때 처리량과 Redis 명령 수 비교 (내장 Redis)
+ * LEASE_DIRECT: 모든 스레드가 바로 LeaseLockRegistry 락 시도 (폴링 포함)
+ * LEASE_LOCAL_QUEUE: LocalQueueingLockRegistry 로 로컬에서 먼저 줄을 서고 맨 앞만 LeaseLockRegistry 락 시도 (@DistributedLock 경로)
+ * REDIS_LOCK_REGISTRY: RedisLockRegistry 락 (키마다 내부 로컬 락을 먼저 잡는다, OrderService V1 경로)
+ * 반복마다 락 1회당 Redis 명령 수(서버의 total_commands_processed 증가분)를 출력한다.
+ * REDIS_LOCK_REGISTRY 가 LEASE_LOCAL_QUEUE 와 비슷하고 LEASE_DIRECT 보다 적으면,
+ * RedisLockRegistry 앞에는 로컬 줄서기가 필요 없고 로컬 락이 없는 LeaseLockRegistry 에만 필요하다는 뜻이다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(16)
+@Fork(1)
+public class LocalQueueingLockBenchmark {
+
+    private static final String REGISTRY_KEY = "benchmark";
+    private static final Duration LEASE = Duration.ofSeconds(30);
+
+    @Param({"LEASE_DIRECT", "LEASE_LOCAL_QUEUE", "REDIS_LOCK_REGISTRY"})
+    public String mode;
+
+    @Param({"1", "4"})
+    public int keys;
+
+    /**
+     * SPIN_LOCK 재시도 간격 (밀리초)
+     */
+    @Param({"1"})
+    public long pollMillis;
+
+    /**
+     * 락을 잡고 하는 작업 시간 (마이크로초)
+     */
+    @Param({"100"})
+    public long workMicros;
+
+    private BenchmarkRedis redis;
+    private ThreadPoolTaskScheduler taskScheduler;
+    private LeaseLockRegistry leaseLockRegistry;
+    private RedisLockRegistry redisLockRegistry;
+    private Function<String, Lock> locks;
+    private String[] keyNames;
+    private final LongAdder acquisitions = new LongAdder();
+    private long commandsAtStart;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        redis = new BenchmarkRedis();
+        taskScheduler = new ThreadPoolTaskScheduler();
+        taskScheduler.setPoolSize(1);
+        taskScheduler.initialize();
+        leaseLockRegistry = new LeaseLockRegistry(redis.redisTemplate(), redis.reactiveRedisTemplate(), REGISTRY_KEY,
+            RedisLockRegistry.RedisLockType.SPIN_LOCK, taskScheduler, 10000L, pollMillis, 50);
+        redisLockRegistry = new RedisLockRegistry(redis.connectionFactory(), REGISTRY_KEY, LEASE.toMillis());
+        redisLockRegistry.setIdleBetweenTries(Duration.ofMillis(pollMillis));
+
+        LocalQueueingLockRegistry localQueueing = new LocalQueueingLockRegistry();
+        locks = switch (mode) {
+            case "LEASE_DIRECT" -> key -> leaseLockRegistry.obtain(key, LEASE);
+            case "LEASE_LOCAL_QUEUE" -> key -> localQueueing.obtain(key, leaseLockRegistry.obtain(key, LEASE));
+            case "REDIS_LOCK_REGISTRY" -> redisLockRegistry::obtain;
+            default -> throw new IllegalArgumentException(mode);
+        };
+
+        keyNames = new String[keys];
+        for (int i = 0; i < keys; i++) {
+            keyNames[i] = "order:user" + i + ":product1";
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        redisLockRegistry.destroy();
+        leaseLockRegistry.destroy();
+        taskScheduler.shutdown();
+        redis.close();
+    }
+
+    @Setup(Level.Iteration)
+    public void startCounting() {
+        acquisitions.reset();
+        commandsAtStart = redis.commandsProcessed();
+    }
+
+    @TearDown(Level.Iteration)
+    public void printCommandsPerLock() {
+        long commands = redis.commandsProcessed() - commandsAtStart;
+        System.out.printf("%n[%s keys=%d] Redis 명령 %d 회 / 락 %d 회 = %.2f%n",
+            mode, keys, commands, acquisitions.sum(), (double) commands / Math.max(1L, acquisitions.sum()));
+    }
+
+    @Benchmark
+    public boolean lockAndWork() throws InterruptedException {
+        Lock lock = locks.apply(keyNames[ThreadLocalRandom.current().nextInt(keys)]);
+
+        boolean acquired = lock.tryLock(5, TimeUnit.SECONDS);
+        if (acquired) {
+            try {
+                LockSupport.parkNanos(TimeUnit.MICROSECONDS.toNanos(workMicros));
+            } finally {
+                lock.unlock();
+            }
+            acquisitions.increment();
+        }
+        return acquired;
+    }
+}
@@ -0,0 +1,67 @@
+package com.jaesay.redislockregistryexample.benchmark;
+
+import com.jaesay.redislockregistryexample.aspect.LockKeyGenerator;
+import com.jaesay.redislockregistryexample.service.OrderServiceV2;
+import java.lang.reflect.Method;
+import java.lang.reflect.Parameter;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.expression.EvaluationContext;
+import org.springframework.expression.ExpressionParser;
+import org.springframework.expression.spel.standard.SpelExpressionParser;
+import org.springframework.expression.spel.support.StandardEvaluationContext;
+
+/**
+ * 락 키 1회 생성 비용 비교
+ * - legacyParsePerCall: 호출마다 파싱 + 파라미터 리플렉션 (기존 DistributedLockAspect 방식)
+ * - cachedGenerator: LockKeyGenerator (리터럴 + 파라미터 표현식은 SpEL 없이, 그 외는 캐시된 컴파일 SpEL)
+ * keyExpression 첫 번째 값은 바로 이어 붙이는 경로를, 두 번째 값은 메서드 호출이 있어 SpEL 경로를 탄다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LockKeyGenerationBenchmark {
+
+    @Param({"'order:' + #userId + ':' + #productId", "'order:' + #userId.trim() + ':' + #productId"})
+    public String keyExpression;
+
+    private final ExpressionParser legacyParser = new SpelExpressionParser();
+    private LockKeyGenerator lockKeyGenerator;
+    private Method method;
+    private Object[] args;
+
+    @Setup
+    public void setUp() throws NoSuchMethodException {
+        lockKeyGenerator = new LockKeyGenerator();
+        method = OrderServiceV2.class.getMethod("processOrder", String.class, String.class, int.class);
+        args = new Object[]{"user-1", "product-42", 1};
+    }
+
+    @Benchmark
+    public String legacyParsePerCall() {
+        EvaluationContext context = new StandardEvaluationContext();
+        Parameter[] parameters = method.getParameters();
+        for (int i = 0; i < parameters.length; i++) {
+            context.setVariable(parameters[i].getName(), args[i]);
+        }
+        return legacyParser.parseExpression(keyExpression).getValue(context, String.class);
+    }
+
+    @Benchmark
+    public String cachedGenerator() {
+        return lockKeyGenerator.generate(method, keyExpression, args);
+    }
+}
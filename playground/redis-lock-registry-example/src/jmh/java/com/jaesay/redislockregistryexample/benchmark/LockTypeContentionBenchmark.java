@@ -0,0 +1,145 @@
+package com.jaesay.redislockregistryexample.benchmark;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.LockSupport;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.integration.redis.util.RedisLockRegistry;
+
+/**
+ * SPIN_LOCK / PUB_SUB_LOCK 락 획득 지연(p50/p99)과 Redis 명령 수 비교 (내장 Redis + 실제 RedisLockRegistry)
+ * <p>
+ * 같은 노드의 스레드는 RedisLockRegistry 내부 로컬 락에서 먼저 줄을 서므로 모드 차이는 노드 사이 경쟁에서 난다.
+ * 그래서 nodes 개의 RedisLockRegistry(노드마다 다른 clientId)를 만들고 스레드를 노드에 나눠 붙인다.
+ * 스레드 수(N)는 @Threads 또는 실행 옵션 -t, 키 수(M)는 keys 파라미터로 바꾼다.
+ * SampleTime 결과의 p0.50 / p0.99 가 락 획득 + 작업 시간 분포이고,
+ * 반복마다 락 1회당 Redis 명령 수(서버의 total_commands_processed 증가분)를 출력한다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 3)
+@Measurement(iterations = 5, time = 3)
+@Threads(16)
+@Fork(1)
+public class LockTypeContentionBenchmark {
+
+    private static final String REGISTRY_KEY = "benchmark";
+
+    @Param({"SPIN_LOCK", "PUB_SUB_LOCK"})
+    public String lockType;
+
+    @Param({"1", "8"})
+    public int keys;
+
+    /**
+     * 같은 Redis 를 쓰는 노드(RedisLockRegistry) 수
+     */
+    @Param({"4"})
+    public int nodes;
+
+    /**
+     * SPIN_LOCK 재시도 간격 (밀리초, RedisLockRegistry 기본값 100ms)
+     */
+    @Param({"100"})
+    public long pollMillis;
+
+    /**
+     * 락을 잡고 하는 작업 시간 (마이크로초)
+     */
+    @Param({"500"})
+    public long workMicros;
+
+    private BenchmarkRedis redis;
+    private RedisLockRegistry[] registries;
+    private String[] keyNames;
+    private final AtomicInteger joinedThreads = new AtomicInteger();
+    private final LongAdder acquisitions = new LongAdder();
+    private long commandsAtStart;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        redis = new BenchmarkRedis();
+        registries = new RedisLockRegistry[nodes];
+        for (int i = 0; i < nodes; i++) {
+            RedisLockRegistry registry = new RedisLockRegistry(redis.connectionFactory(), REGISTRY_KEY);
+            registry.setRedisLockType(RedisLockRegistry.RedisLockType.valueOf(lockType));
+            registry.setIdleBetweenTries(Duration.ofMillis(pollMillis));
+            registries[i] = registry;
+        }
+
+        keyNames = new String[keys];
+        for (int i = 0; i < keys; i++) {
+            keyNames[i] = "order:user" + i + ":product1";
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        for (RedisLockRegistry registry : registries) {
+            registry.destroy();
+        }
+        redis.close();
+    }
+
+    @Setup(Level.Iteration)
+    public void startCounting() {
+        acquisitions.reset();
+        commandsAtStart = redis.commandsProcessed();
+    }
+
+    @TearDown(Level.Iteration)
+    public void printCommandsPerLock() {
+        long commands = redis.commandsProcessed() - commandsAtStart;
+        System.out.printf("%n[%s keys=%d nodes=%d] Redis 명령 %d 회 / 락 %d 회 = %.2f%n",
+            lockType, keys, nodes, commands, acquisitions.sum(), (double) commands / Math.max(1L, acquisitions.sum()));
+    }
+
+    @Benchmark
+    public boolean acquire(Node node) throws InterruptedException {
+        Lock lock = node.registry.obtain(keyNames[ThreadLocalRandom.current().nextInt(keys)]);
+
+        boolean acquired = lock.tryLock(10, TimeUnit.SECONDS);
+        if (acquired) {
+            try {
+                LockSupport.parkNanos(TimeUnit.MICROSECONDS.toNanos(workMicros));
+            } finally {
+                lock.unlock();
+            }
+            acquisitions.increment();
+        }
+        return acquired;
+    }
+
+    /**
+     * 벤치마크 스레드가 붙은 노드 (스레드를 노드에 차례로 나눠 붙인다)
+     */
+    @State(Scope.Thread)
+    public static class Node {
+
+        private RedisLockRegistry registry;
+
+        @Setup(Level.Trial)
+        public void join(LockTypeContentionBenchmark benchmark) {
+            registry = benchmark.registries[benchmark.joinedThreads.getAndIncrement() % benchmark.nodes];
+        }
+    }
+}
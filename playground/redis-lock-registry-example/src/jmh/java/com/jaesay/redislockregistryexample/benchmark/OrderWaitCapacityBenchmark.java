@@ -0,0 +1,252 @@
+package com.jaesay.redislockregistryexample.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jaesay.redislockregistryexample.annotation.DistributedLock;
+import com.jaesay.redislockregistryexample.aspect.DistributedLockAspect;
+import com.jaesay.redislockregistryexample.aspect.LockKeyGenerator;
+import com.jaesay.redislockregistryexample.config.RedisLockProperties;
+import com.jaesay.redislockregistryexample.lock.LeaseLockRegistry;
+import com.jaesay.redislockregistryexample.lock.LocalQueueingLockRegistry;
+import com.jaesay.redislockregistryexample.lock.SingleFlightGroup;
+import com.jaesay.redislockregistryexample.metrics.LockMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.integration.redis.util.RedisLockRegistry;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import reactor.core.publisher.Mono;
+
+/**
+ * 부하 테스트: 한 상품에 주문이 몰릴 때 한 노드가 동시에 대기시킬 수 있는 주문 수
+ * <p>
+ * 요청 스레드 풀(Tomcat max-threads 대역, 대기 큐 없음)에 orders 건을 한꺼번에 넣는다.
+ * 주문은 실제 @DistributedLock 프록시(DistributedLockAspect + LeaseLockRegistry)를 거치고, Redis 는 내장 Redis 를 띄워 쓴다.
+ * - BLOCKING: 동기 메서드. 요청 스레드가 로컬 줄서기 + tryLock(waitTime) 과 작업 동안 붙잡힌다
+ * - ASYNC: Mono 를 반환하는 메서드. 요청 스레드는 lockAsync 를 구독하고 바로 반환, 재시도와 작업은 Redis 응답/타이머 스레드에서 진행
+ * 결과의 peakWaiting 이 동시에 락을 기다린 주문 수, rejected 가 스레드가 없어 받지 못한 주문 수다.
+ * 같은 머신의 Redis 라 왕복 시간이 실제 네트워크보다 짧다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(1)
+public class OrderWaitCapacityBenchmark {
+
+    /**
+     * 락 획득 대기 시간 (밀리초, @DistributedLock(waitTime))
+     */
+    static final long WAIT_MILLIS = 1000L;
+
+    private static final String USER_ID = "user1";
+    private static final String PRODUCT_ID = "product1";
+
+    @Param({"BLOCKING", "ASYNC"})
+    public String handler;
+
+    /**
+     * 한 상품에 동시에 들어오는 주문 수
+     */
+    @Param({"1000"})
+    public int orders;
+
+    /**
+     * 요청 스레드 수 (Tomcat max-threads 기본값 200)
+     */
+    @Param({"200"})
+    public int requestThreads;
+
+    /**
+     * 락을 잡고 하는 작업 시간 (밀리초)
+     */
+    @Param({"5"})
+    public long workMillis;
+
+    /**
+     * 락 획득 재시도 간격 (밀리초, leaseRetryInterval)
+     */
+    @Param({"50"})
+    public long retryMillis;
+
+    private BenchmarkRedis redis;
+    private ThreadPoolTaskScheduler taskScheduler;
+    private LeaseLockRegistry leaseLockRegistry;
+    private OrderHandler orderHandler;
+    private ThreadPoolExecutor requestPool;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        redis = new BenchmarkRedis();
+        StringRedisTemplate redisTemplate = redis.redisTemplate();
+
+        taskScheduler = new ThreadPoolTaskScheduler();
+        taskScheduler.setPoolSize(1);
+        taskScheduler.initialize();
+
+        RedisLockProperties properties = new RedisLockProperties();
+        leaseLockRegistry = new LeaseLockRegistry(redisTemplate, redis.reactiveRedisTemplate(),
+            "benchmark:lease", RedisLockRegistry.RedisLockType.SPIN_LOCK, taskScheduler,
+            properties.getLeaseWatchdogTimeout(), retryMillis,
+            properties.getFairMaxQueueDepth());
+        DistributedLockAspect aspect = new DistributedLockAspect(
+            new LocalQueueingLockRegistry(),
+            leaseLockRegistry,
+            new LockKeyGenerator(),
+            new SingleFlightGroup(redisTemplate, new ObjectMapper(), "benchmark:result:"),
+            new LockMetrics(new SimpleMeterRegistry(), properties));
+
+        OrderHandler target = new OrderHandler();
+        target.workMillis = workMillis;
+        AspectJProxyFactory proxyFactory = new AspectJProxyFactory(target);
+        proxyFactory.setProxyTargetClass(true);
+        proxyFactory.addAspect(aspect);
+        orderHandler = proxyFactory.getProxy();
+
+        requestPool = new ThreadPoolExecutor(requestThreads, requestThreads, 0L, TimeUnit.MILLISECONDS,
+            new SynchronousQueue<>(), new ThreadPoolExecutor.AbortPolicy());
+        requestPool.prestartAllCoreThreads();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        requestPool.shutdownNow();
+        leaseLockRegistry.destroy();
+        taskScheduler.shutdown();
+        redis.close();
+    }
+
+    @Benchmark
+    public void burst(WaitCounters counters) throws InterruptedException {
+        Burst burst = new Burst(orders);
+        for (int i = 0; i < orders; i++) {
+            try {
+                requestPool.execute("BLOCKING".equals(handler) ? () -> blockingOrder(burst) : () -> asyncOrder(burst));
+            } catch (RejectedExecutionException e) {
+                burst.rejected.incrementAndGet();
+                burst.done.countDown();
+            }
+        }
+        burst.done.await();
+
+        counters.peakWaiting = Math.max(counters.peakWaiting, burst.peakWaiting.get());
+        counters.rejected += burst.rejected.get();
+        counters.timedOut += burst.timedOut.get();
+        counters.completed += burst.completed.get();
+    }
+
+    private void blockingOrder(Burst burst) {
+        burst.startWaiting();
+        try {
+            orderHandler.blockingOrder(USER_ID, PRODUCT_ID, burst);
+            burst.completed.incrementAndGet();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (RuntimeException e) {
+            // waitTime 안에 락을 못 잡음
+            burst.stopWaiting();
+            burst.timedOut.incrementAndGet();
+        } finally {
+            burst.done.countDown();
+        }
+    }
+
+    /**
+     * 구독만 하고 바로 반환 (요청 스레드를 잡지 않는다)
+     */
+    private void asyncOrder(Burst burst) {
+        burst.startWaiting();
+        orderHandler.asyncOrder(USER_ID, PRODUCT_ID, burst)
+            .doFinally(signal -> burst.done.countDown())
+            .subscribe(
+                unused -> {
+                },
+                error -> {
+                    burst.stopWaiting();
+                    burst.timedOut.incrementAndGet();
+                },
+                burst.completed::incrementAndGet);
+    }
+
+    /**
+     * @DistributedLock 프록시 대상: 락을 잡으면 대기를 끝내고 workMillis 동안 작업한다
+     */
+    public static class OrderHandler {
+
+        private long workMillis;
+
+        @DistributedLock(key = "'order:' + #userId + ':' + #productId", waitTime = WAIT_MILLIS)
+        public void blockingOrder(String userId, String productId, Burst burst) throws InterruptedException {
+            burst.stopWaiting();
+            Thread.sleep(workMillis);
+        }
+
+        @DistributedLock(key = "'order:' + #userId + ':' + #productId", waitTime = WAIT_MILLIS)
+        public Mono<Void> asyncOrder(String userId, String productId, Burst burst) {
+            burst.stopWaiting();
+            return Mono.delay(Duration.ofMillis(workMillis)).then();
+        }
+    }
+
+    static final class Burst {
+
+        private final CountDownLatch done;
+        private final AtomicInteger waiting = new AtomicInteger();
+        private final AtomicInteger peakWaiting = new AtomicInteger();
+        private final AtomicInteger rejected = new AtomicInteger();
+        private final AtomicInteger timedOut = new AtomicInteger();
+        private final AtomicInteger completed = new AtomicInteger();
+
+        private Burst(int orders) {
+            this.done = new CountDownLatch(orders);
+        }
+
+        private void startWaiting() {
+            peakWaiting.accumulateAndGet(waiting.incrementAndGet(), Math::max);
+        }
+
+        private void stopWaiting() {
+            waiting.decrementAndGet();
+        }
+    }
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class WaitCounters {
+
+        public long peakWaiting;
+        public long rejected;
+        public long timedOut;
+        public long completed;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            peakWaiting = 0;
+            rejected = 0;
+            timedOut = 0;
+            completed = 0;
+        }
+    }
+}
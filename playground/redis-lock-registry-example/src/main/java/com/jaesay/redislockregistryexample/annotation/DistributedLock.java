@@ -12,6 +12,8 @@ public @interface DistributedLock {
     /**
      * 락 키를 생성하는 SpEL 표현식
      * 예: "'order:' + #userId + ':' + #productId"
+     * 값이 Collection 이면 모든 키를 한 번에 잡는다
+     * 예: "#productIds.![ 'order:' + #userId + ':' + #this ]"
      */
     String key();
     
@@ -23,10 +25,42 @@ public @interface DistributedLock {
     
     /**
      * 락 리스 시간 (밀리초)
-     * 기본값: 30초 (RedisLockRegistry 설정보다 짧게)
+     * 기본값: 30초
+     * 설명: 작업이 길어도 이 시간까지는 watchdog 이 락을 연장하고, 지나면 연장을 멈춰 자동 해제된다
      */
     long leaseTime() default 30000L;
     
+    /**
+     * 공정 모드 여부
+     * 기본값: false
+     * 설명: 켜면 Redis 대기열에 도착 순서대로 줄을 서고 맨 앞 요청부터 락을 얻는다 (로컬 줄서기는 거치지 않음)
+     *       key 가 여러 키(Collection)이면 켤 수 없다 (IllegalStateException)
+     */
+    boolean fair() default false;
+    
+    /**
+     * 공정 모드 대기열 최대 길이
+     * 기본값: 0 (redis.lock.fair-max-queue-depth 사용)
+     * 설명: 대기열이 가득 차면 waitTime 동안 기다리지 않고 바로 실패
+     */
+    int maxQueueDepth() default 0;
+    
+    /**
+     * 중복 호출 합치기(single-flight) 여부
+     * 기본값: false
+     * 설명: 같은 락 키와 같은 인자로 실행 중인 호출이 있으면 다시 실행하지 않고 그 결과를 함께 받는다 (동기 메서드에 적용)
+     *       인자가 하나라도 다르면(예: 수량) 따로 실행하고, 실행이 끝난 뒤 들어온 호출도 새로 실행한다
+     */
+    boolean singleFlight() default false;
+    
+    /**
+     * single-flight 결과를 Redis 에 남겨 두는 시간 (밀리초)
+     * 기본값: 0 (남기지 않음, 실행 중인 호출끼리만 합친다)
+     * 설명: 0 보다 크면 이 시간 동안 다른 노드에서 같은 락 키와 같은 인자로 들어온 호출도 새로 실행하지 않고 남은 결과를 받는다
+     *       이 시간 안의 같은 인자 호출은 모두 중복으로 보고 버리므로, 조회나 멱등 키를 받는 메서드처럼 중복이 확실할 때만 켠다
+     */
+    long resultTtl() default 0L;
+    
     /**
      * 락 획득 실패 시 예외 메시지
      */
@@ -1,52 +1,163 @@
 package com.jaesay.redislockregistryexample.aspect;
 
 import com.jaesay.redislockregistryexample.annotation.DistributedLock;
+import com.jaesay.redislockregistryexample.lock.LeaseLockRegistry;
+import com.jaesay.redislockregistryexample.lock.LocalQueueingLockRegistry;
+import com.jaesay.redislockregistryexample.lock.LockQueueFullException;
+import com.jaesay.redislockregistryexample.lock.SingleFlightGroup;
+import com.jaesay.redislockregistryexample.metrics.LockMetrics;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.aspectj.lang.ProceedingJoinPoint;
 import org.aspectj.lang.annotation.Around;
 import org.aspectj.lang.annotation.Aspect;
 import org.aspectj.lang.reflect.MethodSignature;
-import org.springframework.expression.EvaluationContext;
-import org.springframework.expression.ExpressionParser;
-import org.springframework.expression.spel.standard.SpelExpressionParser;
-import org.springframework.expression.spel.support.StandardEvaluationContext;
-import org.springframework.integration.redis.util.RedisLockRegistry;
 import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
 
 import java.lang.reflect.Method;
-import java.lang.reflect.Parameter;
+import java.lang.reflect.Type;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletionStage;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.locks.Lock;
 
+/**
+ * @DistributedLock 메서드를 락 안에서 실행
+ * <p>
+ * 반환 타입이 Mono / CompletionStage(CompletableFuture) 이면 비동기 모드로 동작한다.
+ * - 락을 기다리는 동안 호출 스레드를 잡지 않고 바로 Mono / CompletableFuture 를 반환
+ * - 락을 잡은 뒤 메서드를 실행하고, 반환된 비동기 결과가 끝나면 락을 해제
+ * 메서드 본문은 Redis 응답 스레드에서 실행되므로 블로킹 작업 없이 비동기 결과만 만들어 반환해야 한다.
+ * <p>
+ * 동기 메서드 안에서 같은 키의 @DistributedLock 메서드를 다시 부르면 재진입한다 (Redis 왕복 없이 보유 횟수만 증가).
+ * <p>
+ * singleFlight 이면 같은 키, 같은 인자로 실행 중인 중복 호출을 한 번의 실행으로 합친다 (동기 메서드).
+ * <p>
+ * key 표현식 값이 Collection 이면 모든 키를 Redis 왕복 한 번으로 함께 잡는다.
+ * 동기 메서드에서만 쓸 수 있고 fair 와 함께 쓰면 IllegalStateException (공정 대기자가 있는 키는 그 대기자들이 끝난 뒤에 잡는다).
+ */
 @Aspect
 @Component
 @RequiredArgsConstructor
 @Slf4j
 public class DistributedLockAspect {
     
-    private final RedisLockRegistry redisLockRegistry;
-    private final ExpressionParser parser = new SpelExpressionParser();
+    private final LocalQueueingLockRegistry localQueueingLockRegistry;
+    private final LeaseLockRegistry leaseLockRegistry;
+    private final LockKeyGenerator lockKeyGenerator;
+    private final SingleFlightGroup singleFlightGroup;
+    private final LockMetrics lockMetrics;
     
     @Around("@annotation(distributedLock)")
     public Object around(ProceedingJoinPoint joinPoint, DistributedLock distributedLock) throws Throwable {
-        String lockKey = generateLockKey(joinPoint, distributedLock.key());
-        Lock lock = redisLockRegistry.obtain(lockKey);
+        Object key = resolveLockKey(joinPoint, distributedLock.key());
+        Class<?> returnType = ((MethodSignature) joinPoint.getSignature()).getReturnType();
+        boolean async = Mono.class.isAssignableFrom(returnType) || CompletionStage.class.isAssignableFrom(returnType);
         
+        Duration leaseTime = Duration.ofMillis(distributedLock.leaseTime());
+        String lockKey;
+        Lock lock;
+        if (key instanceof Collection<?> keys) {
+            if (async) {
+                throw new IllegalStateException("여러 키 락은 동기 메서드에서만 지원합니다: " + joinPoint.getSignature());
+            }
+            if (distributedLock.fair()) {
+                throw new IllegalStateException("여러 키 락은 공정 모드를 지원하지 않습니다: " + joinPoint.getSignature());
+            }
+            List<String> lockKeys = keys.stream().map(String::valueOf).distinct().sorted().toList();
+            lockKey = String.join(",", lockKeys);
+            lock = leaseLockRegistry.obtainMulti(lockKeys, leaseTime);
+        } else {
+            lockKey = String.valueOf(key);
+            if (async) {
+                Mono<Object> result = aroundAsync(joinPoint, distributedLock, lockKey);
+                return Mono.class.isAssignableFrom(returnType) ? result : result.toFuture();
+            }
+            // 공정 모드는 Redis 대기열에서 바로 줄을 서고, 아니면 leaseTime 동안만 유지되는 락을 로컬 줄서기 뒤에 둔다
+            lock = distributedLock.fair()
+                    ? leaseLockRegistry.obtainFair(lockKey, leaseTime, distributedLock.maxQueueDepth())
+                    : localQueueingLockRegistry.obtain(lockKey, leaseLockRegistry.obtain(lockKey, leaseTime));
+        }
+        
+        if (distributedLock.singleFlight()) {
+            return aroundSingleFlight(joinPoint, distributedLock, lockKey, lock);
+        }
+        return aroundSync(distributedLock, lockKey, lock, joinPoint::proceed);
+    }
+    
+    /**
+     * 같은 노드의 중복 호출(같은 락 키 + 같은 인자)은 실행 중인 호출에 합류한다
+     * resultTtl 을 주면 다른 노드가 남긴 결과가 있을 때 락 없이 반환한다
+     */
+    private Object aroundSingleFlight(ProceedingJoinPoint joinPoint, DistributedLock distributedLock,
+                                      String lockKey, Lock lock) throws Throwable {
+        Optional<String> flightKey = singleFlightGroup.flightKey(lockKey, joinPoint.getArgs());
+        if (flightKey.isEmpty()) {
+            return aroundSync(distributedLock, lockKey, lock, joinPoint::proceed);
+        }
+        
+        String key = flightKey.get();
+        Duration maxWait = Duration.ofMillis(distributedLock.waitTime() + distributedLock.leaseTime());
+        if (distributedLock.resultTtl() <= 0) {
+            return singleFlightGroup.execute(key, maxWait, () -> aroundSync(distributedLock, lockKey, lock, joinPoint::proceed));
+        }
+        
+        Type resultType = ((MethodSignature) joinPoint.getSignature()).getMethod().getGenericReturnType();
+        Duration resultTtl = Duration.ofMillis(distributedLock.resultTtl());
+        return singleFlightGroup.execute(key, maxWait, () -> {
+            Optional<Object> shared = singleFlightGroup.findResult(key, resultType);
+            if (shared.isPresent()) {
+                log.info("공유된 결과 사용: {}", key);
+                return shared.get();
+            }
+            
+            return aroundSync(distributedLock, lockKey, lock, () -> {
+                // 락을 기다리는 동안 다른 노드가 끝냈을 수 있다
+                Optional<Object> sharedWhileWaiting = singleFlightGroup.findResult(key, resultType);
+                if (sharedWhileWaiting.isPresent()) {
+                    log.info("공유된 결과 사용: {}", key);
+                    return sharedWhileWaiting.get();
+                }
+                
+                Object result = joinPoint.proceed();
+                singleFlightGroup.saveResult(key, result, resultTtl);
+                return result;
+            });
+        });
+    }
+    
+    private Object aroundSync(DistributedLock distributedLock, String lockKey, Lock lock,
+                              SingleFlightGroup.Call body) throws Throwable {
         boolean acquired = false;
+        // 이전 호출에서 남은 왕복 수는 버린다
+        leaseLockRegistry.takeRoundTrips();
+        long waitStart = System.nanoTime();
+        long holdStart = 0L;
         try {
             // 락 획득 시도
             acquired = lock.tryLock(distributedLock.waitTime(), TimeUnit.MILLISECONDS);
+            long waitNanos = System.nanoTime() - waitStart;
             if (!acquired) {
+                lockMetrics.recordFailure(lockKey, waitNanos, "timeout");
                 log.warn("분산 락 획득 실패: {}", lockKey);
                 throw new RuntimeException(distributedLock.failureMessage() + " - 락 키: " + lockKey);
             }
             
+            lockMetrics.recordAcquired(lockKey, waitNanos, leaseLockRegistry.takeRoundTrips());
+            holdStart = System.nanoTime();
             log.info("분산 락 획득 완료: {}", lockKey);
             
             // 원본 메서드 실행
-            return joinPoint.proceed();
+            return body.call();
             
+        } catch (LockQueueFullException e) {
+            lockMetrics.recordFailure(lockKey, System.nanoTime() - waitStart, "rejected");
+            log.warn("분산 락 대기열이 가득 차 즉시 거절: {}", lockKey);
+            throw new LockQueueFullException(distributedLock.failureMessage() + " - 락 키: " + lockKey, e);
         } catch (InterruptedException e) {
             Thread.currentThread().interrupt();
             log.error("락 획득 중 인터럽트 발생: {}", lockKey, e);
@@ -54,23 +165,66 @@ public class DistributedLockAspect {
         } finally {
             if (acquired) {
                 lock.unlock();
+                lockMetrics.recordHold(lockKey, System.nanoTime() - holdStart);
                 log.info("분산 락 해제 완료: {}", lockKey);
             }
         }
     }
     
-    private String generateLockKey(ProceedingJoinPoint joinPoint, String keyExpression) {
-        MethodSignature signature = (MethodSignature) joinPoint.getSignature();
-        Method method = signature.getMethod();
-        Object[] args = joinPoint.getArgs();
-        Parameter[] parameters = method.getParameters();
+    private Mono<Object> aroundAsync(ProceedingJoinPoint joinPoint, DistributedLock distributedLock, String lockKey) {
+        Duration leaseTime = Duration.ofMillis(distributedLock.leaseTime());
+        Duration waitTime = Duration.ofMillis(distributedLock.waitTime());
+        Mono<LeaseLockRegistry.AsyncLock> acquire = Mono.defer(() -> {
+            long waitStart = System.nanoTime();
+            return (distributedLock.fair()
+                    ? leaseLockRegistry.lockFairAsync(lockKey, leaseTime, waitTime, distributedLock.maxQueueDepth())
+                    : leaseLockRegistry.lockAsync(lockKey, leaseTime, waitTime))
+                    .doOnNext(lock -> lockMetrics.recordAcquired(lockKey, System.nanoTime() - waitStart, lock.roundTrips()))
+                    .onErrorMap(LockQueueFullException.class, e -> {
+                        lockMetrics.recordFailure(lockKey, System.nanoTime() - waitStart, "rejected");
+                        log.warn("분산 락 대기열이 가득 차 즉시 거절: {}", lockKey);
+                        return new LockQueueFullException(distributedLock.failureMessage() + " - 락 키: " + lockKey, e);
+                    })
+                    .switchIfEmpty(Mono.error(() -> {
+                        lockMetrics.recordFailure(lockKey, System.nanoTime() - waitStart, "timeout");
+                        log.warn("분산 락 획득 실패: {}", lockKey);
+                        return new RuntimeException(distributedLock.failureMessage() + " - 락 키: " + lockKey);
+                    }));
+        });
         
-        // SpEL 컨텍스트 설정
-        EvaluationContext context = new StandardEvaluationContext();
-        for (int i = 0; i < parameters.length; i++) {
-            context.setVariable(parameters[i].getName(), args[i]);
+        return Mono.usingWhen(
+                acquire,
+                lock -> {
+                    log.info("분산 락 획득 완료: {}", lockKey);
+                    long holdStart = System.nanoTime();
+                    return proceedAsync(joinPoint)
+                            .doFinally(signal -> lockMetrics.recordHold(lockKey, System.nanoTime() - holdStart));
+                },
+                lock -> lock.unlockAsync().doOnSuccess(unused -> log.info("분산 락 해제 완료: {}", lockKey)));
+    }
+    
+    private Mono<Object> proceedAsync(ProceedingJoinPoint joinPoint) {
+        Object result;
+        try {
+            result = joinPoint.proceed();
+        } catch (Throwable e) {
+            return Mono.error(e);
         }
         
-        return parser.parseExpression(keyExpression).getValue(context, String.class);
+        if (result == null) {
+            return Mono.empty();
+        }
+        if (result instanceof Mono<?> mono) {
+            return mono.cast(Object.class);
+        }
+        return Mono.fromCompletionStage((CompletionStage<?>) result);
+    }
+    
+    /**
+     * 락 키 하나(String) 또는 여러 키(Collection)
+     */
+    private Object resolveLockKey(ProceedingJoinPoint joinPoint, String keyExpression) {
+        Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+        return lockKeyGenerator.evaluate(method, keyExpression, joinPoint.getArgs());
     }
 }
\ No newline at end of file
@@ -0,0 +1,220 @@
+package com.jaesay.redislockregistryexample.aspect;
+
+import org.springframework.core.convert.ConversionService;
+import org.springframework.core.convert.support.DefaultConversionService;
+import org.springframework.expression.EvaluationContext;
+import org.springframework.expression.Expression;
+import org.springframework.expression.spel.SpelCompilerMode;
+import org.springframework.expression.spel.SpelParserConfiguration;
+import org.springframework.expression.spel.standard.SpelExpressionParser;
+import org.springframework.expression.spel.support.StandardEvaluationContext;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Parameter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+/**
+ * @DistributedLock 의 key 표현식으로 락 키를 만든다
+ * <p>
+ * 메서드마다 처음 한 번만 표현식을 분석해 캐시한다.
+ * - "'order:' + #userId + ':' + #productId" 처럼 문자열 리터럴과 파라미터만 + 로 이은 형태는 SpEL 없이 바로 이어 붙인다
+ * - 그 외 표현식은 한 번 파싱한 SpEL 을 재사용하고, 반복 실행되면 바이트코드로 컴파일(SpelCompilerMode.MIXED)된다
+ * 파라미터 이름도 처음 한 번만 리플렉션으로 읽는다.
+ * <p>
+ * evaluate 는 표현식 값을 그대로 반환한다 (예: "#productIds.![ 'order:' + #userId + ':' + #this ]" 이면 키 목록).
+ */
+@Component
+public class LockKeyGenerator {
+
+    private static final Pattern LITERAL = Pattern.compile("'([^']*)'");
+    private static final Pattern VARIABLE = Pattern.compile("#([A-Za-z_$][A-Za-z0-9_$]*)");
+    /**
+     * SpEL(StandardTypeConverter)이 + 연산에서 값을 문자열로 바꿀 때 쓰는 것과 같은 변환기 (예: List 는 "1,2")
+     */
+    private static final ConversionService CONVERSION = DefaultConversionService.getSharedInstance();
+
+    private final SpelExpressionParser parser = new SpelExpressionParser(
+            new SpelParserConfiguration(SpelCompilerMode.MIXED, LockKeyGenerator.class.getClassLoader()));
+    private final Map<Method, KeyTemplate> templates = new ConcurrentHashMap<>();
+
+    public String generate(Method method, String keyExpression, Object[] args) {
+        return template(method, keyExpression).generate(args);
+    }
+
+    /**
+     * 표현식 값을 변환 없이 반환 (문자열 하나 또는 여러 키의 Collection)
+     */
+    public Object evaluate(Method method, String keyExpression, Object[] args) {
+        return template(method, keyExpression).evaluate(args);
+    }
+
+    private KeyTemplate template(Method method, String keyExpression) {
+        return templates.computeIfAbsent(method, m -> compile(m, keyExpression));
+    }
+
+    private KeyTemplate compile(Method method, String keyExpression) {
+        Parameter[] parameters = method.getParameters();
+        String[] parameterNames = new String[parameters.length];
+        for (int i = 0; i < parameters.length; i++) {
+            parameterNames[i] = parameters[i].getName();
+        }
+
+        KeyTemplate concatenation = ConcatenationTemplate.parse(keyExpression, parameterNames);
+        if (concatenation != null) {
+            return concatenation;
+        }
+        return new SpelTemplate(parser.parseExpression(keyExpression), parameterNames);
+    }
+
+    interface KeyTemplate {
+
+        String generate(Object[] args);
+
+        Object evaluate(Object[] args);
+    }
+
+    /**
+     * 리터럴과 파라미터를 이어 붙이는 템플릿 (SpEL 의 문자열 + 연산과 같은 결과)
+     */
+    static final class ConcatenationTemplate implements KeyTemplate {
+
+        private final String[] literals;
+        private final int[] argumentIndexes;
+
+        private ConcatenationTemplate(String[] literals, int[] argumentIndexes) {
+            this.literals = literals;
+            this.argumentIndexes = argumentIndexes;
+        }
+
+        /**
+         * 리터럴/파라미터만 + 로 이은 표현식이면 템플릿을, 아니면 null 을 반환
+         */
+        static ConcatenationTemplate parse(String expression, String[] parameterNames) {
+            List<String> tokens = splitOnPlus(expression);
+            if (tokens == null) {
+                return null;
+            }
+
+            String[] literals = new String[tokens.size()];
+            int[] argumentIndexes = new int[tokens.size()];
+            for (int i = 0; i < tokens.size(); i++) {
+                String token = tokens.get(i);
+                var literal = LITERAL.matcher(token);
+                var variable = VARIABLE.matcher(token);
+                if (literal.matches()) {
+                    literals[i] = literal.group(1);
+                    argumentIndexes[i] = -1;
+                } else if (variable.matches() && indexOf(parameterNames, variable.group(1)) >= 0) {
+                    argumentIndexes[i] = indexOf(parameterNames, variable.group(1));
+                } else {
+                    return null;
+                }
+            }
+
+            // "#a + #b" 로 시작하면 SpEL 은 숫자 덧셈을 할 수 있으므로 SpEL 에 맡긴다
+            if (tokens.size() > 1 && argumentIndexes[0] >= 0 && argumentIndexes[1] >= 0) {
+                return null;
+            }
+            return new ConcatenationTemplate(literals, argumentIndexes);
+        }
+
+        @Override
+        public Object evaluate(Object[] args) {
+            // "#productIds" 처럼 파라미터 하나뿐이면 값(예: 키 목록)을 그대로 넘긴다
+            if (literals.length == 1 && argumentIndexes[0] >= 0) {
+                return args[argumentIndexes[0]];
+            }
+            return generate(args);
+        }
+
+        @Override
+        public String generate(Object[] args) {
+            // "#userId" 하나뿐이면 SpEL 처럼 null 은 null 로 둔다
+            if (literals.length == 1 && argumentIndexes[0] >= 0) {
+                return asString(args[argumentIndexes[0]]);
+            }
+            StringBuilder key = new StringBuilder(64);
+            for (int i = 0; i < literals.length; i++) {
+                if (argumentIndexes[i] < 0) {
+                    key.append(literals[i]);
+                } else {
+                    Object arg = args[argumentIndexes[i]];
+                    key.append(arg == null ? "null" : asString(arg));
+                }
+            }
+            return key.toString();
+        }
+
+        private static String asString(Object value) {
+            return value == null || value instanceof String ? (String) value : CONVERSION.convert(value, String.class);
+        }
+
+        private static List<String> splitOnPlus(String expression) {
+            List<String> tokens = new ArrayList<>();
+            StringBuilder token = new StringBuilder();
+            boolean quoted = false;
+            for (char c : expression.toCharArray()) {
+                if (c == '\'') {
+                    quoted = !quoted;
+                }
+                if (c == '+' && !quoted) {
+                    tokens.add(token.toString().trim());
+                    token.setLength(0);
+                } else {
+                    token.append(c);
+                }
+            }
+            if (quoted) {
+                return null;
+            }
+            tokens.add(token.toString().trim());
+            return tokens;
+        }
+
+        private static int indexOf(String[] names, String name) {
+            for (int i = 0; i < names.length; i++) {
+                if (names[i].equals(name)) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+    }
+
+    /**
+     * 파싱해 둔 SpEL 표현식 템플릿
+     */
+    static final class SpelTemplate implements KeyTemplate {
+
+        private final Expression expression;
+        private final String[] parameterNames;
+
+        private SpelTemplate(Expression expression, String[] parameterNames) {
+            this.expression = expression;
+            this.parameterNames = parameterNames;
+        }
+
+        @Override
+        public String generate(Object[] args) {
+            return expression.getValue(context(args), String.class);
+        }
+
+        @Override
+        public Object evaluate(Object[] args) {
+            return expression.getValue(context(args));
+        }
+
+        private EvaluationContext context(Object[] args) {
+            EvaluationContext context = new StandardEvaluationContext();
+            for (int i = 0; i < parameterNames.length; i++) {
+                context.setVariable(parameterNames[i], args[i]);
+            }
+            return context;
+        }
+    }
+}
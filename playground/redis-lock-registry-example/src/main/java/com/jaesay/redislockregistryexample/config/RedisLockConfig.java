@@ -1,10 +1,17 @@
 package com.jaesay.redislockregistryexample.config;
 
+import com.jaesay.redislockregistryexample.lock.LeaseLockRegistry;
+import com.jaesay.redislockregistryexample.lock.LocalQueueingLockRegistry;
+import com.jaesay.redislockregistryexample.lock.SingleFlightGroup;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.data.redis.core.StringRedisTemplate;
 import org.springframework.integration.redis.util.RedisLockRegistry;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
 
 @Configuration
 @RequiredArgsConstructor
@@ -23,6 +30,59 @@ public class RedisLockConfig {
         // 내부 캐시 용량 설정 (메모리 누수 방지)
         registry.setCacheCapacity(redisLockProperties.getCacheCapacity());
         
+        // 락 획득 방식: SPIN_LOCK(주기적 재시도) / PUB_SUB_LOCK(해제 알림을 받으면 재시도)
+        registry.setRedisLockType(RedisLockRegistry.RedisLockType.valueOf(redisLockProperties.getRedisLockType().name()));
+        
+        // Watchdog: 락을 잡고 있는 동안 만료 시간을 주기적으로 연장 (긴 작업 중 락이 풀리지 않도록)
+        if (redisLockProperties.isEnableWatchdog()) {
+            registry.setRenewalTaskScheduler(lockRenewalTaskScheduler());
+        }
+        
         return registry;
     }
+    
+    /**
+     * @DistributedLock 용 락: 락마다 leaseTime 을 지키고, 노드의 모든 락을 watchdog 하나가 묶어서 연장
+     * redisLockRegistry 와 같은 키/해제 알림 채널을 써서 OrderService V1 과 같은 주문 키로 서로 배제된다
+     */
+    @Bean
+    public LeaseLockRegistry leaseLockRegistry(StringRedisTemplate stringRedisTemplate,
+                                               ReactiveStringRedisTemplate reactiveStringRedisTemplate) {
+        return new LeaseLockRegistry(
+                stringRedisTemplate,
+                reactiveStringRedisTemplate,
+                redisLockProperties.getRegistryKey(),
+                RedisLockRegistry.RedisLockType.valueOf(redisLockProperties.getRedisLockType().name()),
+                // watchdog 을 끄면 연장 없이 leaseTime 으로 잡는다
+                redisLockProperties.isEnableWatchdog() ? lockRenewalTaskScheduler() : null,
+                redisLockProperties.getLeaseWatchdogTimeout(),
+                redisLockProperties.getLeaseRetryInterval(),
+                redisLockProperties.getFairMaxQueueDepth()
+        );
+    }
+    
+    /**
+     * @DistributedLock(singleFlight = true) 결과 공유: 같은 노드는 메모리, 다른 노드는 Redis 결과 키 (resultTtl 을 준 경우)
+     */
+    @Bean
+    public SingleFlightGroup singleFlightGroup(StringRedisTemplate stringRedisTemplate, ObjectMapper objectMapper) {
+        return new SingleFlightGroup(stringRedisTemplate, objectMapper, redisLockProperties.getRegistryKey() + "result:");
+    }
+    
+    @Bean
+    public ThreadPoolTaskScheduler lockRenewalTaskScheduler() {
+        ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+        scheduler.setPoolSize(1);
+        scheduler.setThreadNamePrefix("lock-renewal-");
+        return scheduler;
+    }
+    
+    /**
+     * @DistributedLock 락의 같은 노드 경쟁은 로컬에서 줄을 세워 Redis 왕복을 줄인다
+     * (RedisLockRegistry 는 키마다 로컬 락을 이미 가지고 있어 OrderService V1 은 거치지 않는다)
+     */
+    @Bean
+    public LocalQueueingLockRegistry localQueueingLockRegistry() {
+        return new LocalQueueingLockRegistry();
+    }
 }
\ No newline at end of file
@@ -31,13 +31,43 @@ public class RedisLockProperties {
     /**
      * Watchdog 활성화 여부
      * 기본값: false
+     * 설명: 켜면 락 보유 중 expireAfter 가 지나기 전에 만료 시간을 자동 연장 (긴 작업용)
+     *       @DistributedLock 락은 꺼져 있으면 연장 없이 처음부터 leaseTime 으로 잡는다
      */
     private boolean enableWatchdog = false;
     
+    /**
+     * @DistributedLock 락의 Redis 만료 시간 (밀리초)
+     * 기본값: 10초
+     * 설명: watchdog 이 이 시간의 1/3 마다 연장하므로, 노드가 죽으면 이 시간 안에 락이 풀린다
+     *       (최대 보유 시간은 @DistributedLock.leaseTime, enableWatchdog 이 꺼져 있으면 쓰지 않음)
+     */
+    private long leaseWatchdogTimeout = 10000L;
+    
+    /**
+     * @DistributedLock 락 획득 재시도 간격 (밀리초)
+     * 기본값: 50ms
+     */
+    private long leaseRetryInterval = 50L;
+    
+    /**
+     * 공정 모드(@DistributedLock(fair = true)) 대기열 최대 길이 기본값
+     * 기본값: 50
+     * 설명: 대기열이 가득 차면 waitTime 동안 재시도하지 않고 바로 실패
+     */
+    private int fairMaxQueueDepth = 50;
+    
+    /**
+     * 핫 키 리포트가 기억하는 키 수
+     * 기본값: 1000
+     * 설명: 락 대기 시간이 큰 키를 이 개수만큼만 추적 (GET /api/locks/hot-keys)
+     */
+    private int hotKeyCapacity = 1000;
+    
     /**
      * Redis 락 타입
      * SPIN_LOCK: 폴링 방식 (기본값)
-     * PUB_SUB_LOCK: 이벤트 기반
+     * PUB_SUB_LOCK: 이벤트 기반 (해제 알림을 받은 대기자만 재시도)
      */
     private RedisLockType redisLockType = RedisLockType.SPIN_LOCK;
     
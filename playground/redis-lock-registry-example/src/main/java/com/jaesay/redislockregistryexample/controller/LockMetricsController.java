@@ -0,0 +1,24 @@
+package com.jaesay.redislockregistryexample.controller;
+
+import com.jaesay.redislockregistryexample.metrics.HotKeyTracker;
+import com.jaesay.redislockregistryexample.metrics.LockMetrics;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/locks")
+@RequiredArgsConstructor
+public class LockMetricsController {
+    
+    private final LockMetrics lockMetrics;
+    
+    /**
+     * 락 대기 시간 합이 큰 키 상위 N 개 (어떤 상품에서 주문이 줄을 서는지 확인)
+     */
+    @GetMapping("/hot-keys")
+    public List<HotKeyTracker.HotKeyReport> hotKeys(@RequestParam(defaultValue = "10") int limit) {
+        return lockMetrics.hotKeys(limit);
+    }
+}
@@ -2,9 +2,13 @@ package com.jaesay.redislockregistryexample.controller;
 
 import com.jaesay.redislockregistryexample.service.OrderService;
 import com.jaesay.redislockregistryexample.service.OrderServiceV2;
+import com.jaesay.redislockregistryexample.service.OrderServiceV3;
 import lombok.RequiredArgsConstructor;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
 @RestController
 @RequestMapping("/api/orders")
 @RequiredArgsConstructor
@@ -12,6 +16,7 @@ public class OrderController {
     
     private final OrderService orderService;
     private final OrderServiceV2 orderServiceV2;
+    private final OrderServiceV3 orderServiceV3;
     
     @PostMapping("/process")
     public String processOrder(
@@ -47,6 +52,14 @@ public class OrderController {
         return orderServiceV2.processOrder(userId, productId, quantity);
     }
     
+    @PostMapping("/v2/cart")
+    public String processCartOrderV2(
+            @RequestParam String userId,
+            @RequestParam List<String> productIds) {
+        
+        return orderServiceV2.processCartOrder(userId, productIds);
+    }
+    
     @GetMapping("/v2/test-concurrent")
     public String testConcurrentOrdersV2(@RequestParam String userId, @RequestParam String productId) {
         // 동시성 테스트를 위한 여러 스레드 실행 (V2)
@@ -64,4 +77,16 @@ public class OrderController {
         
         return "V2 동시성 테스트 시작 - 로그를 확인하세요";
     }
+    
+    // ============= V3 API (Async) =============
+    
+    @PostMapping("/v3/process")
+    public CompletableFuture<String> processOrderV3(
+            @RequestParam String userId,
+            @RequestParam String productId,
+            @RequestParam(defaultValue = "1") int quantity) {
+        
+        // 락 대기 중에는 요청 스레드를 반환하고, 결과가 나오면 응답 (Servlet 비동기 처리)
+        return orderServiceV3.processOrder(userId, productId, quantity);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,898 @@
+package com.jaesay.redislockregistryexample.lock;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.integration.redis.util.RedisLockRegistry;
+import org.springframework.scheduling.TaskScheduler;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+
+/**
+ * 락마다 최대 보유 시간(leaseTime)을 지키는 Redis 락 레지스트리
+ * <p>
+ * 락은 SET key token NX PX 로 잡고, 해제는 토큰이 같을 때만 지우는 스크립트로 한다.
+ * Redis 의 만료 시간은 짧게(watchdogTimeout) 두고, 노드에 하나뿐인 watchdog 루프가 watchdogTimeout / 3 마다
+ * 이 노드가 가진 모든 락을 스크립트 한 번으로 묶어 PEXPIRE 한다.
+ * <p>
+ * - 작업이 길어도 leaseTime 까지는 락이 유지된다 (전역 expireAfter 를 크게 잡을 필요 없음)
+ * - leaseTime 이 지나면 더 이상 연장하지 않아 그 시점에 만료된다
+ * - 노드가 죽으면 연장이 멈춰 watchdogTimeout 안에 락이 풀린다
+ * - watchdog 스케줄러를 주지 않으면(enableWatchdog = false) 연장 없이 처음부터 leaseTime 으로 잡는다
+ * <p>
+ * 락 키와 해제 알림 채널은 RedisLockRegistry 와 같다 (registryKey:key, registryKey-channel).
+ * 그래서 같은 키를 RedisLockRegistry(OrderService V1)로 잡은 쪽과 서로 배제되고, 해제하면 양쪽 대기자가 모두 알림을 받는다.
+ * PUB_SUB_LOCK 이면 대기자가 retryInterval 마다 폴링하지 않고 해제 알림을 받을 때 다시 시도한다
+ * (만료로 풀린 락은 알림이 없으므로 알림 없이도 waiterTimeout / 2 마다 한 번은 시도한다).
+ * <p>
+ * lockAsync 는 같은 락을 스레드를 잡지 않고 기다린다 (Redis 비동기 명령 + 타이머로 재시도).
+ * 락을 받기 전에 구독을 취소하면 보낸 시도의 응답을 기다렸다가 잡힌 락을 해제하고 대기열에서 뺀다.
+ * <p>
+ * 공정 모드(obtainFair / lockFairAsync)는 대기자가 Redis 대기열(ZSET, 점수 = 번호표)에 줄을 서고
+ * 맨 앞 대기자만 락을 시도해 도착 순서대로 락을 얻는다. 대기열이 maxQueueDepth 만큼 차 있으면
+ * waitTime 동안 기다리지 않고 바로 LockQueueFullException 으로 거절한다.
+ * 재시도를 멈춘 대기자는 waiterTimeout 이 지나면 다른 대기자의 시도에서 대기열에서 빠진다.
+ * <p>
+ * obtainMulti 는 여러 키를 스크립트 한 번으로 모두 잡거나 하나도 잡지 않는다 (키는 정렬 순서로 처리).
+ * 일부만 잡은 채 기다리는 일이 없어 키 순서가 다른 호출끼리도 교착 상태가 생기지 않는다.
+ * 여러 키 락은 대기열에 서지 않는 대신, 공정 모드 대기자가 살아 있는 키가 하나라도 있으면 잡지 않고 기다려 새치기하지 않는다.
+ * <p>
+ * 동기 락은 RedisLockRegistry 처럼 재진입할 수 있다. 락을 잡은 스레드와 보유 횟수를 기억해 두고,
+ * 같은 스레드가 같은 키를 다시 잡으면 Redis 에 가지 않고 횟수만 늘린다. 횟수가 0 이 될 때 Redis 에서 해제한다.
+ * lockAsync 로 잡은 락은 스레드 소유가 아니라 재진입 대상이 아니다.
+ * 여러 키 락은 키 전부를 이미 가진 경우에만 재진입하고, 일부만 가진 경우는 교착 대신 바로 IllegalStateException.
+ */
+@Slf4j
+public class LeaseLockRegistry implements DisposableBean {
+
+    /**
+     * 토큰이 같으면 지우고 해제 알림 채널(ARGV[2])에 키를 알린다
+     */
+    private static final RedisScript<Long> UNLOCK_SCRIPT = new DefaultRedisScript<>("""
+        if redis.call('get', KEYS[1]) == ARGV[1] then
+            redis.call('del', KEYS[1])
+            redis.call('publish', ARGV[2], KEYS[1])
+            return 1
+        end
+        return 0
+        """, Long.class);
+
+    /**
+     * KEYS[i] 의 값이 ARGV[2i-1](토큰)과 같으면 ARGV[2i] 밀리초로 만료 연장, 결과는 키별 1/0
+     */
+    @SuppressWarnings("rawtypes")
+    private static final RedisScript<List> RENEW_SCRIPT = new DefaultRedisScript<>("""
+        local renewed = {}
+        for i, key in ipairs(KEYS) do
+            if redis.call('get', key) == ARGV[i * 2 - 1] then
+                redis.call('pexpire', key, ARGV[i * 2])
+                renewed[i] = 1
+            else
+                renewed[i] = 0
+            end
+        end
+        return renewed
+        """, List.class);
+
+    /**
+     * 공정 락 시도: 죽은 대기자 정리 -> (처음이면) 번호표 발급 -> 맨 앞이면 SET NX
+     * KEYS: 락, 대기열(ZSET 번호표), 대기자 생존(ZSET 만료 시각), 번호표 카운터
+     * ARGV: 토큰, 락 만료(ms), 대기자 만료(ms), 대기열 최대 길이
+     * 결과: 0 = 획득, n > 0 = 대기 순번, -1 = 대기열 가득 참
+     */
+    private static final RedisScript<Long> FAIR_LOCK_SCRIPT = new DefaultRedisScript<>("""
+        local time = redis.call('time')
+        local now = tonumber(time[1]) * 1000 + math.floor(tonumber(time[2]) / 1000)
+        local dead = redis.call('zrangebyscore', KEYS[3], '-inf', now)
+        for _, waiter in ipairs(dead) do
+            redis.call('zrem', KEYS[2], waiter)
+        end
+        redis.call('zremrangebyscore', KEYS[3], '-inf', now)
+
+        if not redis.call('zscore', KEYS[2], ARGV[1]) then
+            if redis.call('zcard', KEYS[2]) >= tonumber(ARGV[4]) then
+                return -1
+            end
+            redis.call('zadd', KEYS[2], redis.call('incr', KEYS[4]), ARGV[1])
+        end
+        redis.call('zadd', KEYS[3], now + tonumber(ARGV[3]), ARGV[1])
+        -- 대기열 키는 대기자가 모두 사라지면 함께 만료
+        for i = 2, 4 do
+            redis.call('pexpire', KEYS[i], tonumber(ARGV[3]) * 2)
+        end
+
+        local head = redis.call('zrange', KEYS[2], 0, 0)[1]
+        if head == ARGV[1] and redis.call('set', KEYS[1], ARGV[1], 'NX', 'PX', ARGV[2]) then
+            redis.call('zrem', KEYS[2], ARGV[1])
+            redis.call('zrem', KEYS[3], ARGV[1])
+            return 0
+        end
+
+        return redis.call('zrank', KEYS[2], ARGV[1]) + 1
+        """, Long.class);
+
+    private static final RedisScript<Long> LEAVE_QUEUE_SCRIPT = new DefaultRedisScript<>("""
+        redis.call('zrem', KEYS[2], ARGV[1])
+        return redis.call('zrem', KEYS[1], ARGV[1])
+        """, Long.class);
+
+    /**
+     * 락 키 n 개가 모두 비어 있거나 같은 토큰이고 공정 모드 대기자가 없으면 모두 ARGV[2] 밀리초로 잡는다
+     * KEYS: 락 n 개, 각 락의 대기자 생존(ZSET 만료 시각) n 개
+     * ARGV: 토큰, 락 만료(ms), n
+     * 결과: 1 = 획득, 0 = 하나라도 다른 소유자가 있거나 살아 있는 공정 대기자가 있음
+     */
+    private static final RedisScript<Long> MULTI_LOCK_SCRIPT = new DefaultRedisScript<>("""
+        local n = tonumber(ARGV[3])
+        local time = redis.call('time')
+        local now = tonumber(time[1]) * 1000 + math.floor(tonumber(time[2]) / 1000)
+        for i = 1, n do
+            local owner = redis.call('get', KEYS[i])
+            if owner and owner ~= ARGV[1] then
+                return 0
+            end
+            -- 공정 대기열에서 기다리는 요청보다 먼저 잡지 않는다
+            if redis.call('zcount', KEYS[n + i], '(' .. now, '+inf') > 0 then
+                return 0
+            end
+        end
+        for i = 1, n do
+            redis.call('set', KEYS[i], ARGV[1], 'PX', ARGV[2])
+        end
+        return 1
+        """, Long.class);
+
+    /**
+     * KEYS 중 값이 토큰과 같은 키만 지우고(지운 키는 ARGV[2] 채널에 알림) 지운 개수를 반환
+     */
+    private static final RedisScript<Long> MULTI_UNLOCK_SCRIPT = new DefaultRedisScript<>("""
+        local deleted = 0
+        for _, key in ipairs(KEYS) do
+            if redis.call('get', key) == ARGV[1] then
+                deleted = deleted + redis.call('del', key)
+                redis.call('publish', ARGV[2], key)
+            end
+        end
+        return deleted
+        """, Long.class);
+
+    private static final long QUEUE_REJECTED = -1L;
+    private static final int RENEW_BATCH_SIZE = 500;
+
+    private final StringRedisTemplate redisTemplate;
+    private final ReactiveStringRedisTemplate reactiveRedisTemplate;
+    private final String registryKey;
+    private final String unlockChannel;
+    private final long watchdogTimeoutMillis;
+    private final long retryIntervalMillis;
+    private final long waiterTimeoutMillis;
+    private final int defaultMaxQueueDepth;
+    private final Map<String, LeaseLock> heldLocks = new ConcurrentHashMap<>();
+    /**
+     * 해제 알림을 기다리는 키별 신호 (PUB_SUB_LOCK 에서만 사용)
+     */
+    private final Map<String, UnlockSignal> unlockSignals = new ConcurrentHashMap<>();
+    /**
+     * 현재 스레드가 락 획득에 보낸 Redis 명령 수 (지표용)
+     */
+    private final ThreadLocal<long[]> threadRoundTrips = ThreadLocal.withInitial(() -> new long[1]);
+    /**
+     * watchdog 을 끄면 null (락을 처음부터 leaseTime 으로 잡고 연장하지 않는다)
+     */
+    private final ScheduledFuture<?> watchdog;
+    /**
+     * SPIN_LOCK 이면 null (retryInterval 마다 폴링)
+     */
+    private final RedisMessageListenerContainer unlockListener;
+
+    /**
+     * @param registryKey       RedisLockRegistry 와 같은 registryKey (락 키는 registryKey:key)
+     * @param redisLockType     PUB_SUB_LOCK 이면 해제 알림을 받을 때 다시 시도
+     * @param renewalScheduler  watchdog 을 돌릴 스케줄러 (null 이면 연장하지 않음)
+     */
+    public LeaseLockRegistry(StringRedisTemplate redisTemplate, ReactiveStringRedisTemplate reactiveRedisTemplate,
+                             String registryKey, RedisLockRegistry.RedisLockType redisLockType,
+                             TaskScheduler renewalScheduler,
+                             long watchdogTimeoutMillis, long retryIntervalMillis, int defaultMaxQueueDepth) {
+        this.redisTemplate = redisTemplate;
+        this.reactiveRedisTemplate = reactiveRedisTemplate;
+        this.registryKey = registryKey;
+        this.unlockChannel = registryKey + "-channel";
+        this.watchdogTimeoutMillis = watchdogTimeoutMillis;
+        this.retryIntervalMillis = retryIntervalMillis;
+        // 대기자는 retryInterval 마다 생존 시각을 갱신하므로, 그 20배 동안 소식이 없으면 죽은 것으로 본다
+        this.waiterTimeoutMillis = retryIntervalMillis * 20;
+        this.defaultMaxQueueDepth = defaultMaxQueueDepth;
+        this.watchdog = renewalScheduler == null ? null : renewalScheduler.scheduleAtFixedRate(
+                this::renewHeldLocks, Duration.ofMillis(Math.max(1L, watchdogTimeoutMillis / 3)));
+        this.unlockListener = redisLockType == RedisLockRegistry.RedisLockType.PUB_SUB_LOCK
+                ? startUnlockListener(redisTemplate.getRequiredConnectionFactory())
+                : null;
+    }
+
+    private RedisMessageListenerContainer startUnlockListener(RedisConnectionFactory connectionFactory) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        // 메시지 본문은 해제된 락 키 (RedisLockRegistry 의 해제 스크립트와 같은 형식)
+        container.addMessageListener((message, pattern) -> onUnlocked(new String(message.getBody(), StandardCharsets.UTF_8)),
+                new ChannelTopic(unlockChannel));
+        container.afterPropertiesSet();
+        container.start();
+        return container;
+    }
+
+    /**
+     * RedisLockRegistry 가 만드는 것과 같은 락 키
+     */
+    private String lockKey(String key) {
+        return registryKey + ":" + key;
+    }
+
+    /**
+     * @param leaseTime 락을 잡고 있을 수 있는 최대 시간 (지나면 연장을 멈춰 자동 해제)
+     */
+    public Lock obtain(String key, Duration leaseTime) {
+        return new LeaseLock(lockKey(key), leaseTime.toMillis(), 0);
+    }
+
+    /**
+     * 공정 모드 락: Redis 대기열에서 도착 순서대로 락을 얻는다
+     *
+     * @param maxQueueDepth 대기열 최대 길이 (0 이하면 기본값, 가득 차면 tryLock 이 LockQueueFullException)
+     */
+    public Lock obtainFair(String key, Duration leaseTime, int maxQueueDepth) {
+        return new LeaseLock(lockKey(key), leaseTime.toMillis(), queueDepth(maxQueueDepth));
+    }
+
+    /**
+     * 여러 키를 한 번에 잡는 락 (Redis 왕복 1회로 전부 획득/해제)
+     *
+     * @param keys 락 키 목록 (중복 제거 후 정렬 순서로 처리)
+     */
+    public Lock obtainMulti(Collection<String> keys, Duration leaseTime) {
+        List<String> sortedKeys = keys.stream().distinct().sorted().toList();
+        if (sortedKeys.isEmpty()) {
+            throw new IllegalArgumentException("락 키가 비어 있음");
+        }
+        return new MultiLeaseLock(sortedKeys, leaseTime.toMillis());
+    }
+
+    /**
+     * 스레드를 잡지 않고 락을 기다린다
+     * <p>
+     * SET NX 는 비동기로 보내고, 실패하면 retryInterval 뒤 타이머로 다시 시도한다.
+     * waitTime 안에 잡으면 AsyncLock 을, 못 잡으면 빈 Mono 를 반환한다.
+     * 로컬 줄서기(LocalQueueingLockRegistry)는 스레드 소유 락이라 거치지 않는다.
+     *
+     * @param leaseTime 락을 잡고 있을 수 있는 최대 시간 (지나면 연장을 멈춰 자동 해제)
+     * @param waitTime  락 획득 대기 시간
+     */
+    public Mono<AsyncLock> lockAsync(String key, Duration leaseTime, Duration waitTime) {
+        return lockAsync(new LeaseLock(lockKey(key), leaseTime.toMillis(), 0), waitTime);
+    }
+
+    /**
+     * 공정 모드로 스레드를 잡지 않고 락을 기다린다 (대기열이 가득 차면 LockQueueFullException 으로 실패)
+     */
+    public Mono<AsyncLock> lockFairAsync(String key, Duration leaseTime, Duration waitTime, int maxQueueDepth) {
+        return lockAsync(new LeaseLock(lockKey(key), leaseTime.toMillis(), queueDepth(maxQueueDepth)), waitTime);
+    }
+
+    private Mono<AsyncLock> lockAsync(LeaseLock lock, Duration waitTime) {
+        return Mono.defer(() -> {
+            long deadline = System.nanoTime() + waitTime.toNanos();
+            AsyncAttempts attempts = new AsyncAttempts(lock);
+            return Mono.defer(attempts::next)
+                    .filter(Boolean::booleanValue)
+                    // 빈 결과(획득 실패)면 deadline 전까지 retryInterval 마다(PUB_SUB_LOCK 이면 해제 알림을 받으면) 다시 구독
+                    .repeatWhenEmpty(retries -> retries
+                            .takeWhile(attempt -> System.nanoTime() < deadline)
+                            .concatMap(attempt -> attempts.pause(
+                                    TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime()))))
+                    .map(acquired -> (AsyncLock) lock)
+                    .switchIfEmpty(lock.leaveQueueAsync().then(Mono.empty()))
+                    .filter(acquired -> attempts.handOver())
+                    .doOnCancel(attempts::cancel)
+                    .doFinally(signal -> attempts.unwatch());
+        });
+    }
+
+    private int queueDepth(int maxQueueDepth) {
+        return maxQueueDepth > 0 ? maxQueueDepth : defaultMaxQueueDepth;
+    }
+
+    /**
+     * 다음 시도 전에 redisKey 의 해제 알림을 기다리겠다고 등록한다 (SPIN_LOCK 이면 null)
+     * <p>
+     * 시도보다 먼저 등록해야 시도가 실패한 뒤 대기에 들어가기 전에 온 알림을 놓치지 않는다.
+     * 다 기다린 뒤에는 unwatchUnlock 으로 등록을 풀어, 알림이 오지 않는 키(만료로 풀린 락)의 신호가 남지 않게 한다.
+     */
+    private UnlockSignal watchUnlock(String redisKey) {
+        if (unlockListener == null) {
+            return null;
+        }
+        return unlockSignals.compute(redisKey, (key, signal) -> {
+            UnlockSignal watched = signal != null ? signal : new UnlockSignal();
+            watched.waiters++;
+            return watched;
+        });
+    }
+
+    private void unwatchUnlock(String redisKey, UnlockSignal signal) {
+        if (signal == null) {
+            return;
+        }
+        // 알림으로 이미 빠진 신호면 그 자리에 새로 생긴 신호는 건드리지 않는다
+        unlockSignals.computeIfPresent(redisKey,
+                (key, current) -> current == signal && --current.waiters == 0 ? null : current);
+    }
+
+    private void onUnlocked(String redisKey) {
+        UnlockSignal signal = unlockSignals.remove(redisKey);
+        if (signal != null) {
+            signal.released.complete(null);
+        }
+    }
+
+    /**
+     * 다음 시도까지 기다린다: SPIN_LOCK 은 retryInterval, PUB_SUB_LOCK 은 해제 알림이 오거나 waiterTimeout / 2 가 지날 때까지
+     *
+     * @param released 해제 알림 (SPIN_LOCK 이면 null)
+     */
+    private void awaitRetry(CompletableFuture<?> released, long remainingMillis) throws InterruptedException {
+        if (released == null) {
+            Thread.sleep(Math.min(retryIntervalMillis, remainingMillis));
+            return;
+        }
+        try {
+            released.get(Math.min(waiterTimeoutMillis / 2, remainingMillis), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException | ExecutionException e) {
+            // 알림 없이 대기 시간이 지남 (만료로 풀렸을 수 있으니 다시 시도)
+        }
+    }
+
+    private Mono<Long> retryDelay(CompletableFuture<?> released, long remainingMillis) {
+        long fallbackMillis = released == null ? retryIntervalMillis : waiterTimeoutMillis / 2;
+        Mono<Long> delay = Mono.delay(Duration.ofMillis(Math.max(1L, Math.min(fallbackMillis, remainingMillis))));
+        // 알림은 여러 대기자가 함께 기다리므로 취소가 신호까지 취소하지 않도록 한다
+        return released == null ? delay : Mono.firstWithSignal(delay, Mono.fromFuture(released, true).thenReturn(0L));
+    }
+
+    private static CompletableFuture<?> released(UnlockSignal signal) {
+        return signal == null ? null : signal.released;
+    }
+
+    /**
+     * 현재 스레드가 동기로 잡고 있는 같은 키의 락 (없으면 null)
+     */
+    private LeaseLock heldByCurrentThread(String redisKey) {
+        LeaseLock held = heldLocks.get(redisKey);
+        return held != null && held.owner == Thread.currentThread() ? held : null;
+    }
+
+    /**
+     * 현재 스레드가 마지막 호출 이후 락 획득 시도에 보낸 Redis 명령 수를 반환하고 0 으로 되돌린다
+     */
+    public long takeRoundTrips() {
+        long[] counter = threadRoundTrips.get();
+        long taken = counter[0];
+        counter[0] = 0;
+        return taken;
+    }
+
+    /**
+     * 이 노드가 가진 락을 RENEW_BATCH_SIZE 개씩 묶어 스크립트 한 번으로 연장
+     */
+    void renewHeldLocks() {
+        try {
+            long now = System.currentTimeMillis();
+            List<LeaseLock> batch = new ArrayList<>(Math.min(heldLocks.size(), RENEW_BATCH_SIZE));
+            for (LeaseLock lock : heldLocks.values()) {
+                if (lock.leaseDeadline <= now) {
+                    // leaseTime 초과: 마지막 PEXPIRE 가 deadline 까지만 잡아 두었으므로 그대로 만료된다
+                    heldLocks.remove(lock.redisKey, lock);
+                    log.warn("leaseTime 초과로 락 연장 중단: {}", lock.redisKey);
+                    continue;
+                }
+                batch.add(lock);
+                if (batch.size() == RENEW_BATCH_SIZE) {
+                    renew(batch, now);
+                    batch.clear();
+                }
+            }
+            if (!batch.isEmpty()) {
+                renew(batch, now);
+            }
+        } catch (RuntimeException e) {
+            // 다음 주기에 다시 시도 (watchdogTimeout 안에 한 번만 성공하면 된다)
+            log.warn("락 연장 실패", e);
+        }
+    }
+
+    private void renew(List<LeaseLock> batch, long now) {
+        List<String> keys = new ArrayList<>(batch.size());
+        Object[] args = new Object[batch.size() * 2];
+        for (int i = 0; i < batch.size(); i++) {
+            LeaseLock lock = batch.get(i);
+            keys.add(lock.redisKey);
+            args[i * 2] = lock.token;
+            args[i * 2 + 1] = String.valueOf(lock.nextExpiry(now));
+        }
+
+        List<?> renewed = redisTemplate.execute(RENEW_SCRIPT, keys, args);
+        for (int i = 0; i < batch.size(); i++) {
+            if (renewed != null && ((Number) renewed.get(i)).longValue() == 0L) {
+                LeaseLock lock = batch.get(i);
+                heldLocks.remove(lock.redisKey, lock);
+                log.warn("락을 잃음 (만료 후 다른 노드가 획득): {}", lock.redisKey);
+            }
+        }
+    }
+
+    @Override
+    public void destroy() {
+        if (watchdog != null) {
+            watchdog.cancel(false);
+        }
+        if (unlockListener != null) {
+            try {
+                unlockListener.destroy();
+            } catch (Exception e) {
+                log.warn("해제 알림 구독 종료 실패", e);
+            }
+        }
+    }
+
+    /**
+     * 한 키의 해제 알림을 기다리는 대기자들이 함께 쓰는 신호 (waiters 는 unlockSignals.compute 안에서만 바뀐다)
+     */
+    private static final class UnlockSignal {
+
+        private final CompletableFuture<Void> released = new CompletableFuture<>();
+        private int waiters;
+    }
+
+    /**
+     * lockAsync 로 잡은 락 (스레드와 무관하게 토큰으로 해제)
+     */
+    public interface AsyncLock {
+
+        Mono<Void> unlockAsync();
+
+        /**
+         * 획득까지 보낸 Redis 명령 수
+         */
+        long roundTrips();
+    }
+
+    /**
+     * lockAsync 한 번의 시도들
+     * <p>
+     * 구독이 취소되어도 이미 보낸 SET NX / 공정 락 스크립트는 Redis 에서 실행되므로, 시도의 응답은 취소와 상관없이 끝까지 받는다.
+     * 락을 구독자에게 넘기기 전에 취소되면 마지막 시도의 응답을 기다렸다가 잡혔으면 해제하고, 아니면 대기열에서 뺀다.
+     */
+    private final class AsyncAttempts {
+
+        private final LeaseLock lock;
+        /**
+         * 락을 넘겼거나 취소로 정리를 시작했으면 true (둘 중 먼저 온 쪽만 처리)
+         */
+        private final AtomicBoolean settled = new AtomicBoolean();
+        private volatile CompletableFuture<Boolean> last = CompletableFuture.completedFuture(false);
+        /**
+         * 마지막 시도 전에 등록한 해제 알림 (SPIN_LOCK 이면 늘 null)
+         */
+        private final AtomicReference<UnlockSignal> watched = new AtomicReference<>();
+
+        private AsyncAttempts(LeaseLock lock) {
+            this.lock = lock;
+        }
+
+        private Mono<Boolean> next() {
+            unwatch();
+            watched.set(watchUnlock(lock.redisKey));
+            CompletableFuture<Boolean> attempt = lock.tryLockAsync().toFuture();
+            last = attempt;
+            // 취소가 응답 대기 중인 명령까지 취소하지 않도록 한다
+            return Mono.fromFuture(attempt, true);
+        }
+
+        private Mono<Long> pause(long remainingMillis) {
+            return retryDelay(released(watched.get()), remainingMillis);
+        }
+
+        private void unwatch() {
+            unwatchUnlock(lock.redisKey, watched.getAndSet(null));
+        }
+
+        /**
+         * 잡은 락을 구독자에게 넘긴다 (이미 취소되었으면 false)
+         */
+        private boolean handOver() {
+            return settled.compareAndSet(false, true);
+        }
+
+        private void cancel() {
+            if (!settled.compareAndSet(false, true)) {
+                return;
+            }
+            last.whenComplete((acquired, error) -> {
+                Mono<Void> cleanup = Boolean.TRUE.equals(acquired) ? lock.unlockAsync() : lock.leaveQueueAsync();
+                cleanup.subscribe(null, e -> log.warn("취소된 락 정리 실패: {}", lock.redisKey, e));
+            });
+        }
+    }
+
+    private final class LeaseLock implements Lock, AsyncLock {
+
+        private final String redisKey;
+        private final long leaseTimeMillis;
+        /**
+         * 공정 모드 대기열 최대 길이 (0 이면 대기열 없이 SET NX 경쟁)
+         */
+        private final int maxQueueDepth;
+        private final String token;
+        private volatile long leaseDeadline;
+        private volatile long asyncRoundTrips;
+        /**
+         * 동기로 잡은 스레드와 보유 횟수 (보유 횟수는 그 스레드만 바꾼다)
+         */
+        private volatile Thread owner;
+        private int holdCount;
+        /**
+         * 이 인스턴스가 재진입으로 잡은 경우 실제로 Redis 락을 가진 인스턴스
+         */
+        private LeaseLock reentered;
+
+        private LeaseLock(String redisKey, long leaseTimeMillis, int maxQueueDepth) {
+            this(redisKey, leaseTimeMillis, maxQueueDepth, UUID.randomUUID().toString());
+        }
+
+        private LeaseLock(String redisKey, long leaseTimeMillis, int maxQueueDepth, String token) {
+            this.redisKey = redisKey;
+            this.leaseTimeMillis = leaseTimeMillis;
+            this.maxQueueDepth = maxQueueDepth;
+            this.token = token;
+        }
+
+        private boolean isFair() {
+            return maxQueueDepth > 0;
+        }
+
+        private List<String> fairKeys() {
+            return List.of(redisKey, redisKey + ":queue", redisKey + ":waiters", redisKey + ":ticket");
+        }
+
+        private List<String> fairArgs(long now) {
+            return List.of(token, String.valueOf(nextExpiry(now)),
+                    String.valueOf(waiterTimeoutMillis), String.valueOf(maxQueueDepth));
+        }
+
+        private List<String> queueKeys() {
+            return List.of(redisKey + ":queue", redisKey + ":waiters");
+        }
+
+        /**
+         * 공정 락 스크립트 결과 처리 (0 = 획득, -1 = 대기열 가득 참, 그 외 = 대기 중)
+         */
+        private boolean fairAcquired(Long result) {
+            if (result != null && result == QUEUE_REJECTED) {
+                throw new LockQueueFullException("락 대기열이 가득 참 (최대 " + maxQueueDepth + "): " + redisKey);
+            }
+            if (result != null && result == 0L) {
+                heldLocks.put(redisKey, this);
+                return true;
+            }
+            return false;
+        }
+
+        /**
+         * 다음 만료까지 남길 시간: watchdogTimeout 과 leaseTime 남은 시간 중 짧은 쪽 (watchdog 이 없으면 leaseTime 남은 시간)
+         */
+        private long nextExpiry(long now) {
+            long leaseRemaining = leaseDeadline - now;
+            return Math.max(1L, watchdog == null ? leaseRemaining : Math.min(watchdogTimeoutMillis, leaseRemaining));
+        }
+
+        @Override
+        public void lock() {
+            try {
+                lockInterruptibly();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("락 획득 중 인터럽트 발생: " + redisKey, e);
+            }
+        }
+
+        @Override
+        public void lockInterruptibly() throws InterruptedException {
+            while (!tryLock(Long.MAX_VALUE, TimeUnit.NANOSECONDS)) {
+                // 시간 제한 없이 재시도
+            }
+        }
+
+        @Override
+        public boolean tryLock() {
+            LeaseLock held = heldByCurrentThread(redisKey);
+            if (held != null) {
+                held.holdCount++;
+                reentered = held;
+                return true;
+            }
+
+            threadRoundTrips.get()[0]++;
+            long now = System.currentTimeMillis();
+            leaseDeadline = now + leaseTimeMillis;
+            owner = Thread.currentThread();
+            holdCount = 1;
+            if (isFair()) {
+                return fairAcquired(redisTemplate.execute(FAIR_LOCK_SCRIPT, fairKeys(), fairArgs(now).toArray()));
+            }
+            Boolean acquired = redisTemplate.opsForValue()
+                    .setIfAbsent(redisKey, token, Duration.ofMillis(nextExpiry(now)));
+            if (Boolean.TRUE.equals(acquired)) {
+                heldLocks.put(redisKey, this);
+                return true;
+            }
+            return false;
+        }
+
+        private Mono<Boolean> tryLockAsync() {
+            return Mono.defer(() -> {
+                asyncRoundTrips++;
+                long now = System.currentTimeMillis();
+                leaseDeadline = now + leaseTimeMillis;
+                if (isFair()) {
+                    return reactiveRedisTemplate.execute(FAIR_LOCK_SCRIPT, fairKeys(), fairArgs(now))
+                            .next()
+                            .map(this::fairAcquired);
+                }
+                return reactiveRedisTemplate.opsForValue()
+                        .setIfAbsent(redisKey, token, Duration.ofMillis(nextExpiry(now)))
+                        .doOnNext(acquired -> {
+                            if (acquired) {
+                                heldLocks.put(redisKey, this);
+                            }
+                        });
+            });
+        }
+
+        @Override
+        public boolean tryLock(long time, TimeUnit unit) throws InterruptedException {
+            long deadline = System.nanoTime() + unit.toNanos(time);
+            boolean acquired = false;
+            try {
+                while (true) {
+                    UnlockSignal signal = watchUnlock(redisKey);
+                    try {
+                        if (acquired = tryLock()) {
+                            return true;
+                        }
+                        long remainingMillis = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+                        if (remainingMillis <= 0) {
+                            return false;
+                        }
+                        awaitRetry(released(signal), remainingMillis);
+                    } finally {
+                        unwatchUnlock(redisKey, signal);
+                    }
+                }
+            } finally {
+                if (!acquired) {
+                    leaveQueue();
+                }
+            }
+        }
+
+        /**
+         * 기다리기를 포기한 대기자를 대기열에서 뺀다 (뒤 대기자가 waiterTimeout 까지 막히지 않도록)
+         */
+        private void leaveQueue() {
+            if (isFair()) {
+                redisTemplate.execute(LEAVE_QUEUE_SCRIPT, queueKeys(), token);
+            }
+        }
+
+        private Mono<Void> leaveQueueAsync() {
+            if (!isFair()) {
+                return Mono.empty();
+            }
+            return reactiveRedisTemplate.execute(LEAVE_QUEUE_SCRIPT, queueKeys(), List.of(token)).then();
+        }
+
+        @Override
+        public void unlock() {
+            LeaseLock held = reentered != null ? reentered : this;
+            reentered = null;
+            held.unlockHeld();
+        }
+
+        /**
+         * 보유 횟수를 줄이고 0 이 되면 Redis 에서 해제
+         */
+        private void unlockHeld() {
+            if (--holdCount > 0) {
+                return;
+            }
+
+            heldLocks.remove(redisKey, this);
+            Long deleted = redisTemplate.execute(UNLOCK_SCRIPT, List.of(redisKey), token, unlockChannel);
+            if (deleted == null || deleted == 0L) {
+                log.warn("이미 만료되었거나 다른 노드가 가진 락이라 해제하지 않음: {}", redisKey);
+            }
+        }
+
+        @Override
+        public long roundTrips() {
+            return asyncRoundTrips;
+        }
+
+        @Override
+        public Mono<Void> unlockAsync() {
+            return Mono.defer(() -> {
+                heldLocks.remove(redisKey, this);
+                return reactiveRedisTemplate.execute(UNLOCK_SCRIPT, List.of(redisKey), List.of(token, unlockChannel))
+                        .next()
+                        .doOnNext(deleted -> {
+                            if (deleted == 0L) {
+                                log.warn("이미 만료되었거나 다른 노드가 가진 락이라 해제하지 않음: {}", redisKey);
+                            }
+                        })
+                        .then();
+            });
+        }
+
+        @Override
+        public Condition newCondition() {
+            throw new UnsupportedOperationException("Conditions are not supported");
+        }
+    }
+
+    /**
+     * 여러 키 락: 키마다 같은 토큰의 LeaseLock 을 두어 watchdog 이 키별로 연장한다
+     */
+    private final class MultiLeaseLock implements Lock {
+
+        private final List<String> redisKeys;
+        /**
+         * MULTI_LOCK_SCRIPT 의 KEYS (락 키 뒤에 키별 공정 대기자 생존 키)
+         */
+        private final List<String> scriptKeys;
+        private final List<LeaseLock> parts;
+        private final long leaseTimeMillis;
+        private final String token = UUID.randomUUID().toString();
+        /**
+         * 재진입으로 잡은 경우 키마다 실제로 Redis 락을 가진 인스턴스
+         */
+        private List<LeaseLock> reentered;
+
+        private MultiLeaseLock(List<String> sortedKeys, long leaseTimeMillis) {
+            this.redisKeys = sortedKeys.stream().map(LeaseLockRegistry.this::lockKey).toList();
+            this.scriptKeys = new ArrayList<>(redisKeys);
+            redisKeys.forEach(redisKey -> scriptKeys.add(redisKey + ":waiters"));
+            this.parts = redisKeys.stream().map(redisKey -> new LeaseLock(redisKey, leaseTimeMillis, 0, token)).toList();
+            this.leaseTimeMillis = leaseTimeMillis;
+        }
+
+        @Override
+        public void lock() {
+            try {
+                lockInterruptibly();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("락 획득 중 인터럽트 발생: " + redisKeys, e);
+            }
+        }
+
+        @Override
+        public void lockInterruptibly() throws InterruptedException {
+            while (!tryLock(Long.MAX_VALUE, TimeUnit.NANOSECONDS)) {
+                // 시간 제한 없이 재시도
+            }
+        }
+
+        @Override
+        public boolean tryLock() {
+            List<LeaseLock> held = redisKeys.stream().map(LeaseLockRegistry.this::heldByCurrentThread).toList();
+            if (held.stream().allMatch(Objects::nonNull)) {
+                held.forEach(lock -> lock.holdCount++);
+                reentered = held;
+                return true;
+            }
+            if (held.stream().anyMatch(Objects::nonNull)) {
+                // 가진 키는 토큰이 달라 스크립트가 늘 실패하므로 waitTime 까지 기다리지 않고 바로 거절
+                throw new IllegalStateException("이미 잡고 있는 키 일부를 포함한 여러 키 락은 재진입할 수 없음: " + redisKeys);
+            }
+
+            threadRoundTrips.get()[0]++;
+            long now = System.currentTimeMillis();
+            for (LeaseLock part : parts) {
+                part.leaseDeadline = now + leaseTimeMillis;
+                part.owner = Thread.currentThread();
+                part.holdCount = 1;
+            }
+            Long acquired = redisTemplate.execute(MULTI_LOCK_SCRIPT, scriptKeys,
+                    token, String.valueOf(parts.get(0).nextExpiry(now)), String.valueOf(redisKeys.size()));
+            if (acquired != null && acquired == 1L) {
+                parts.forEach(part -> heldLocks.put(part.redisKey, part));
+                return true;
+            }
+            return false;
+        }
+
+        @Override
+        public boolean tryLock(long time, TimeUnit unit) throws InterruptedException {
+            long deadline = System.nanoTime() + unit.toNanos(time);
+            while (true) {
+                List<UnlockSignal> signals = redisKeys.stream().map(LeaseLockRegistry.this::watchUnlock).toList();
+                try {
+                    if (tryLock()) {
+                        return true;
+                    }
+                    long remainingMillis = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+                    if (remainingMillis <= 0) {
+                        return false;
+                    }
+                    // 키 하나라도 풀리면 다시 시도
+                    awaitRetry(unlockListener == null ? null : CompletableFuture.anyOf(
+                            signals.stream().map(signal -> signal.released).toArray(CompletableFuture[]::new)), remainingMillis);
+                } finally {
+                    for (int i = 0; i < redisKeys.size(); i++) {
+                        unwatchUnlock(redisKeys.get(i), signals.get(i));
+                    }
+                }
+            }
+        }
+
+        @Override
+        public void unlock() {
+            if (reentered != null) {
+                // 바깥 락이 아직 가지고 있으므로 보유 횟수만 줄인다 (바깥 락이 먼저 풀렸으면 0 이 된 키만 해제)
+                List<LeaseLock> held = reentered;
+                reentered = null;
+                held.forEach(LeaseLock::unlockHeld);
+                return;
+            }
+
+            List<LeaseLock> released = parts.stream().filter(part -> --part.holdCount <= 0).toList();
+            if (released.isEmpty()) {
+                return;
+            }
+            released.forEach(part -> heldLocks.remove(part.redisKey, part));
+            List<String> releasedKeys = released.stream().map(part -> part.redisKey).toList();
+            Long deleted = redisTemplate.execute(MULTI_UNLOCK_SCRIPT, releasedKeys, token, unlockChannel);
+            if (deleted == null || deleted < releasedKeys.size()) {
+                log.warn("일부 키가 이미 만료되었거나 다른 노드가 가진 락이라 해제하지 않음: {}", releasedKeys);
+            }
+        }
+
+        @Override
+        public Condition newCondition() {
+            throw new UnsupportedOperationException("Conditions are not supported");
+        }
+    }
+}
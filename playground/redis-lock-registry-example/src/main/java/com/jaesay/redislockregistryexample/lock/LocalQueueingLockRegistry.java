@@ -0,0 +1,171 @@
+package com.jaesay.redislockregistryexample.lock;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 로컬 줄서기 + 원격(Redis) 락의 2단계 락 레지스트리
+ * <p>
+ * 같은 키를 원하는 이 JVM 의 스레드들은 먼저 키별 로컬 락(공정 ReentrantLock)에서 줄을 서고,
+ * 로컬 락을 잡은 맨 앞 스레드만 Redis 락을 시도한다. 나머지는 로컬에서 대기하므로
+ * 노드 안 동시 요청 수만큼 Redis 명령(재시도 폴링 포함)이 줄어든다.
+ * <p>
+ * 로컬 락은 그 키를 쓰는 스레드가 있는 동안만 두고 마지막 스레드가 나가면 지우므로,
+ * 다른 키끼리 로컬에서 서로 기다리는 일이 없고 로컬 락 수는 동시에 쓰는 키 수를 넘지 않는다.
+ * <p>
+ * RedisLockRegistry 의 락은 이미 키마다 로컬 ReentrantLock 을 먼저 잡으므로 이 레지스트리를 앞에 두지 않는다.
+ * 로컬 락이 없는 LeaseLockRegistry 의 락(@DistributedLock)에만 쓴다.
+ */
+public class LocalQueueingLockRegistry {
+
+    private final Map<String, KeyQueue> queues = new ConcurrentHashMap<>();
+
+    /**
+     * 원격 락(예: 호출마다 leaseTime 이 다른 락)을 같은 키의 로컬 락 뒤에 둔다
+     */
+    public Lock obtain(String key, Lock remote) {
+        return new TwoLevelLock(key, remote);
+    }
+
+    /**
+     * 로컬 락을 쓰는 스레드가 있는 키 수
+     */
+    int activeKeys() {
+        return queues.size();
+    }
+
+    private KeyQueue join(String key) {
+        return queues.compute(key, (k, queue) -> {
+            KeyQueue joined = queue != null ? queue : new KeyQueue();
+            joined.users++;
+            return joined;
+        });
+    }
+
+    private void leave(String key, KeyQueue queue) {
+        queues.computeIfPresent(key, (k, current) -> current == queue && --current.users == 0 ? null : current);
+    }
+
+    /**
+     * 한 키의 로컬 락과 그 락을 잡았거나 기다리는 스레드 수 (users 는 queues.compute 안에서만 바뀐다)
+     */
+    private static final class KeyQueue {
+
+        private final ReentrantLock lock = new ReentrantLock(true);
+        private int users;
+    }
+
+    private final class TwoLevelLock implements Lock {
+
+        private final String key;
+        private final Lock remote;
+        /**
+         * 로컬 락을 잡은 동안의 키 큐 (unlock 에서 같은 큐를 풀고 나간다)
+         */
+        private KeyQueue queue;
+
+        private TwoLevelLock(String key, Lock remote) {
+            this.key = key;
+            this.remote = remote;
+        }
+
+        @Override
+        public void lock() {
+            KeyQueue joined = join(key);
+            joined.lock.lock();
+            try {
+                remote.lock();
+            } catch (RuntimeException e) {
+                release(joined);
+                throw e;
+            }
+            queue = joined;
+        }
+
+        @Override
+        public void lockInterruptibly() throws InterruptedException {
+            KeyQueue joined = join(key);
+            try {
+                joined.lock.lockInterruptibly();
+            } catch (InterruptedException e) {
+                leave(key, joined);
+                throw e;
+            }
+            try {
+                remote.lockInterruptibly();
+            } catch (InterruptedException | RuntimeException e) {
+                release(joined);
+                throw e;
+            }
+            queue = joined;
+        }
+
+        @Override
+        public boolean tryLock() {
+            KeyQueue joined = join(key);
+            if (!joined.lock.tryLock()) {
+                leave(key, joined);
+                return false;
+            }
+            if (!remote.tryLock()) {
+                release(joined);
+                return false;
+            }
+            queue = joined;
+            return true;
+        }
+
+        @Override
+        public boolean tryLock(long time, TimeUnit unit) throws InterruptedException {
+            long deadline = System.nanoTime() + unit.toNanos(time);
+            KeyQueue joined = join(key);
+            boolean acquired = false;
+            try {
+                if (!joined.lock.tryLock(time, unit)) {
+                    return false;
+                }
+                try {
+                    // 로컬에서 기다린 시간을 빼고 남은 시간만 Redis 에서 기다린다
+                    acquired = remote.tryLock(Math.max(0L, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+                } finally {
+                    if (!acquired) {
+                        joined.lock.unlock();
+                    }
+                }
+                if (acquired) {
+                    queue = joined;
+                }
+                return acquired;
+            } finally {
+                if (!acquired) {
+                    leave(key, joined);
+                }
+            }
+        }
+
+        @Override
+        public void unlock() {
+            KeyQueue held = queue;
+            queue = null;
+            try {
+                remote.unlock();
+            } finally {
+                release(held);
+            }
+        }
+
+        @Override
+        public Condition newCondition() {
+            throw new UnsupportedOperationException("Conditions are not supported");
+        }
+
+        private void release(KeyQueue joined) {
+            joined.lock.unlock();
+            leave(key, joined);
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package com.jaesay.redislockregistryexample.lock;
+
+/**
+ * 공정 모드 대기열이 가득 차 기다리지 않고 거절됨
+ */
+public class LockQueueFullException extends RuntimeException {
+
+    public LockQueueFullException(String message) {
+        super(message);
+    }
+
+    public LockQueueFullException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
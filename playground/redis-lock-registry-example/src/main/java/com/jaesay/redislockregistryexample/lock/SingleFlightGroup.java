@@ -0,0 +1,121 @@
+package com.jaesay.redislockregistryexample.lock;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.util.DigestUtils;
+
+import java.lang.reflect.Type;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * 같은 락 키 + 같은 인자의 중복 호출을 한 번의 실행으로 합친다 (single-flight)
+ * <p>
+ * - 같은 노드: 실행 중인 호출이 있으면 새로 실행하지 않고 그 결과(또는 예외)를 함께 받는다.
+ *   실행이 끝나면 합치지 않으므로 그 뒤에 들어온 호출은 새로 실행한다
+ * - 다른 노드(resultTtl 을 준 경우만): 실행을 마친 노드가 결과를 resultTtl 동안 Redis 에 남기고, 뒤따르는 노드는
+ *   락을 잡기 전/후에 결과 키를 확인해 있으면 그대로 반환한다
+ * 합치는 키(flightKey)는 락 키와 모든 인자의 JSON 으로 만든다. 락 키가 같아도 인자(예: 수량)가 다르면 따로 실행된다.
+ */
+@Slf4j
+public class SingleFlightGroup {
+
+    private final StringRedisTemplate redisTemplate;
+    private final ObjectMapper objectMapper;
+    private final String keyPrefix;
+    private final Map<String, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+
+    public SingleFlightGroup(StringRedisTemplate redisTemplate, ObjectMapper objectMapper, String keyPrefix) {
+        this.redisTemplate = redisTemplate;
+        this.objectMapper = objectMapper;
+        this.keyPrefix = keyPrefix;
+    }
+
+    /**
+     * 락 키 + 모든 인자로 만든 합치기 키 (인자를 JSON 으로 바꾸지 못하면 빈 값: 합치지 않고 그대로 실행)
+     */
+    public Optional<String> flightKey(String lockKey, Object[] args) {
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(args);
+            return Optional.of(lockKey + ":" + DigestUtils.md5DigestAsHex(json));
+        } catch (JsonProcessingException e) {
+            log.warn("인자를 JSON 으로 바꾸지 못해 중복 호출을 합치지 않음: {}", lockKey, e);
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * 이 노드에서 같은 키로 실행 중인 호출이 있으면 그 결과를 기다리고, 없으면 call 을 실행한다
+     *
+     * @param maxWait 앞선 호출을 기다릴 최대 시간
+     */
+    public Object execute(String key, Duration maxWait, Call call) throws Throwable {
+        CompletableFuture<Object> mine = new CompletableFuture<>();
+        CompletableFuture<Object> running = inFlight.putIfAbsent(key, mine);
+        if (running != null) {
+            log.info("실행 중인 호출에 합류: {}", key);
+            return await(key, running, maxWait);
+        }
+
+        try {
+            Object result = call.call();
+            mine.complete(result);
+            return result;
+        } catch (Throwable e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, mine);
+        }
+    }
+
+    /**
+     * 다른 노드(또는 이 노드)가 남긴 결과
+     */
+    public Optional<Object> findResult(String key, Type resultType) {
+        String json = redisTemplate.opsForValue().get(keyPrefix + key);
+        if (json == null) {
+            return Optional.empty();
+        }
+        try {
+            JavaType javaType = objectMapper.constructType(resultType);
+            return Optional.ofNullable(objectMapper.readValue(json, javaType));
+        } catch (JsonProcessingException e) {
+            log.warn("공유 결과를 읽지 못해 직접 실행: {}", key, e);
+            return Optional.empty();
+        }
+    }
+
+    public void saveResult(String key, Object result, Duration ttl) {
+        try {
+            redisTemplate.opsForValue().set(keyPrefix + key, objectMapper.writeValueAsString(result), ttl);
+        } catch (JsonProcessingException e) {
+            log.warn("결과를 공유하지 못함 (다른 노드는 직접 실행): {}", key, e);
+        }
+    }
+
+    private Object await(String key, CompletableFuture<Object> running, Duration maxWait) throws Throwable {
+        try {
+            return running.get(maxWait.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            throw e.getCause();
+        } catch (TimeoutException e) {
+            throw new IllegalStateException("실행 중인 호출의 결과를 기다리다 시간 초과: " + key, e);
+        }
+    }
+
+    @FunctionalInterface
+    public interface Call {
+
+        Object call() throws Throwable;
+    }
+}
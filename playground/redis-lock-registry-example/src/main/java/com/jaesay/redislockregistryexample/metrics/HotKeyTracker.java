@@ -0,0 +1,125 @@
+package com.jaesay.redislockregistryexample.metrics;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 락 대기 시간이 큰 키 상위 N 개 (메모리는 capacity 개로 고정)
+ * <p>
+ * Space-Saving 방식: 자리가 없으면 대기 시간 합이 가장 작은 키를 내보내고 그 값을 이어받는다.
+ * 그래서 값이 실제보다 클 수는 있어도 자주 기다리는 키가 상위에서 빠지지는 않는다.
+ * <p>
+ * 대기 시간 합 기준 최소 힙으로 가장 작은 키를 찾으므로 기록 한 번은 O(log capacity) 다.
+ */
+public class HotKeyTracker {
+
+    private final int capacity;
+    private final Map<String, HotKey> keys;
+    private final HotKey[] heap;
+    private int size;
+
+    public HotKeyTracker(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("capacity 는 1 이상이어야 합니다: " + capacity);
+        }
+        this.capacity = capacity;
+        this.keys = new HashMap<>(capacity * 2);
+        this.heap = new HotKey[capacity];
+    }
+
+    public synchronized void record(String key, long waitNanos) {
+        HotKey hotKey = keys.get(key);
+        if (hotKey != null) {
+            hotKey.acquisitions++;
+            hotKey.totalWaitNanos += waitNanos;
+            // 값이 커졌으니 아래로만 내려간다
+            siftDown(hotKey.index);
+            return;
+        }
+
+        hotKey = new HotKey(key);
+        if (size < capacity) {
+            hotKey.index = size;
+            heap[size++] = hotKey;
+        } else {
+            // 가장 작은 키(힙 루트)를 내보내고 그 자리와 값을 이어받는다
+            HotKey coldest = heap[0];
+            keys.remove(coldest.key);
+            hotKey.acquisitions = coldest.acquisitions;
+            hotKey.totalWaitNanos = coldest.totalWaitNanos;
+            hotKey.index = 0;
+            heap[0] = hotKey;
+        }
+        keys.put(key, hotKey);
+        hotKey.acquisitions++;
+        hotKey.totalWaitNanos += waitNanos;
+        siftUp(hotKey.index);
+        siftDown(hotKey.index);
+    }
+
+    public synchronized List<HotKeyReport> top(int limit) {
+        List<HotKey> sorted = new ArrayList<>(Arrays.asList(heap).subList(0, size));
+        sorted.sort(Comparator.comparingLong((HotKey k) -> k.totalWaitNanos).reversed());
+        return sorted.stream()
+                .limit(limit)
+                .map(k -> new HotKeyReport(k.key, k.acquisitions, k.totalWaitNanos / 1_000_000))
+                .toList();
+    }
+
+    private void siftUp(int index) {
+        while (index > 0) {
+            int parent = (index - 1) / 2;
+            if (heap[parent].totalWaitNanos <= heap[index].totalWaitNanos) {
+                return;
+            }
+            swap(index, parent);
+            index = parent;
+        }
+    }
+
+    private void siftDown(int index) {
+        while (true) {
+            int smallest = index;
+            int left = index * 2 + 1;
+            int right = left + 1;
+            if (left < size && heap[left].totalWaitNanos < heap[smallest].totalWaitNanos) {
+                smallest = left;
+            }
+            if (right < size && heap[right].totalWaitNanos < heap[smallest].totalWaitNanos) {
+                smallest = right;
+            }
+            if (smallest == index) {
+                return;
+            }
+            swap(index, smallest);
+            index = smallest;
+        }
+    }
+
+    private void swap(int i, int j) {
+        HotKey first = heap[i];
+        heap[i] = heap[j];
+        heap[j] = first;
+        heap[i].index = i;
+        heap[j].index = j;
+    }
+
+    public record HotKeyReport(String key, long acquisitions, long totalWaitMillis) {
+    }
+
+    private static final class HotKey {
+
+        private final String key;
+        private long acquisitions;
+        private long totalWaitNanos;
+        private int index;
+
+        private HotKey(String key) {
+            this.key = key;
+        }
+    }
+}
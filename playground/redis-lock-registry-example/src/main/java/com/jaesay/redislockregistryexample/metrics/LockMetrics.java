@@ -0,0 +1,141 @@
+package com.jaesay.redislockregistryexample.metrics;
+
+import com.jaesay.redislockregistryexample.config.RedisLockProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+import java.util.function.Function;
+
+/**
+ * 락 사용 지표 (Micrometer)
+ * <p>
+ * - lock.acquire.wait: 락 획득 대기 시간 (result = acquired | timeout | rejected)
+ * - lock.hold: 락 보유 시간
+ * - lock.acquire.failures: waitTime 안에 못 잡았거나 대기열 초과로 거절된 횟수 (reason = timeout | rejected)
+ * - lock.acquire.redis.round.trips: 락 1회 획득에 쓴 Redis 왕복 수
+ * - lock.registry.cache.hits / misses / evictions / size: RedisLockRegistry 내부 LRU 캐시(cacheCapacity)와 같은 규칙으로 세는 값
+ *   RedisLockRegistry 를 쓰는 OrderService(V1) 경로만 해당한다.
+ *   @DistributedLock 은 LeaseLockRegistry 로 호출마다 락을 새로 만들어 캐시가 없으므로 이 지표에 잡히지 않는다.
+ * 태그에는 키 원문 대신 키 패턴(order:user1:product1 -> order:*:*)을 넣어 태그 값 수를 제한한다.
+ * 키 원문은 HotKeyTracker 에만 고정 개수로 남긴다.
+ */
+@Component
+public class LockMetrics {
+
+    private final MeterRegistry meterRegistry;
+    private final HotKeyTracker hotKeyTracker;
+
+    public LockMetrics(MeterRegistry meterRegistry, RedisLockProperties redisLockProperties) {
+        this.meterRegistry = meterRegistry;
+        this.hotKeyTracker = new HotKeyTracker(redisLockProperties.getHotKeyCapacity());
+    }
+
+    /**
+     * 첫 구간만 남기고 나머지 구간을 * 로 바꾼 키 패턴 (order:user1:product1 -> order:*:*)
+     * 여러 키 락은 multi: + 첫 키의 패턴
+     */
+    public static String keyPattern(String key) {
+        // 여러 키 락(키1,키2,...)은 첫 키의 패턴으로 묶는다
+        int comma = key.indexOf(',');
+        if (comma >= 0) {
+            return "multi:" + keyPattern(key.substring(0, comma));
+        }
+        String[] segments = key.split(":", -1);
+        StringBuilder pattern = new StringBuilder(segments[0]);
+        for (int i = 1; i < segments.length; i++) {
+            pattern.append(":*");
+        }
+        return pattern.toString();
+    }
+
+    public void recordAcquired(String key, long waitNanos, long redisRoundTrips) {
+        String pattern = keyPattern(key);
+        waitTimer(pattern, "acquired").record(waitNanos, TimeUnit.NANOSECONDS);
+        if (redisRoundTrips > 0) {
+            DistributionSummary.builder("lock.acquire.redis.round.trips")
+                    .description("락 1회 획득에 쓴 Redis 왕복 수")
+                    .tag("pattern", pattern)
+                    .register(meterRegistry)
+                    .record(redisRoundTrips);
+        }
+        hotKeyTracker.record(key, waitNanos);
+    }
+
+    /**
+     * @param reason timeout (waitTime 초과) | rejected (공정 모드 대기열 초과)
+     */
+    public void recordFailure(String key, long waitNanos, String reason) {
+        String pattern = keyPattern(key);
+        waitTimer(pattern, reason).record(waitNanos, TimeUnit.NANOSECONDS);
+        Counter.builder("lock.acquire.failures")
+                .description("락 획득 실패 횟수")
+                .tag("pattern", pattern)
+                .tag("reason", reason)
+                .register(meterRegistry)
+                .increment();
+        hotKeyTracker.record(key, waitNanos);
+    }
+
+    public void recordHold(String key, long holdNanos) {
+        Timer.builder("lock.hold")
+                .description("락 보유 시간")
+                .tag("pattern", keyPattern(key))
+                .register(meterRegistry)
+                .record(holdNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public List<HotKeyTracker.HotKeyReport> hotKeys(int limit) {
+        return hotKeyTracker.top(limit);
+    }
+
+    /**
+     * RedisLockRegistry.obtain 을 감싸 내부 LRU 캐시와 같은 규칙(접근 순서, cacheCapacity 초과 시 가장 오래된 것 제거)으로
+     * 캐시 적중/제거 횟수를 센다 (RedisLockRegistry 는 캐시 상태를 노출하지 않는다)
+     * OrderService V1 이 RedisLockRegistry 에서 얻는 락만 거친다
+     */
+    public Function<String, Lock> mirrorRegistryCache(Function<String, Lock> obtain, int cacheCapacity) {
+        Counter hits = Counter.builder("lock.registry.cache.hits").register(meterRegistry);
+        Counter misses = Counter.builder("lock.registry.cache.misses").register(meterRegistry);
+        Counter evictions = Counter.builder("lock.registry.cache.evictions").register(meterRegistry);
+        Map<String, Boolean> cache = new LinkedHashMap<>(16, 0.75F, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Boolean> eldest) {
+                if (size() > cacheCapacity) {
+                    evictions.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+        meterRegistry.gauge("lock.registry.cache.size", cache, Map::size);
+
+        return key -> {
+            synchronized (cache) {
+                if (cache.get(key) != null) {
+                    hits.increment();
+                } else {
+                    misses.increment();
+                    cache.put(key, Boolean.TRUE);
+                }
+            }
+            return obtain.apply(key);
+        };
+    }
+
+    private Timer waitTimer(String pattern, String result) {
+        return Timer.builder("lock.acquire.wait")
+                .description("락 획득 대기 시간")
+                .tag("pattern", pattern)
+                .tag("result", result)
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+    }
+}
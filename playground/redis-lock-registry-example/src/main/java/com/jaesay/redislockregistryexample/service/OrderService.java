@@ -1,25 +1,42 @@
 package com.jaesay.redislockregistryexample.service;
 
-import lombok.RequiredArgsConstructor;
+import com.jaesay.redislockregistryexample.config.RedisLockProperties;
+import com.jaesay.redislockregistryexample.metrics.LockMetrics;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.integration.redis.util.RedisLockRegistry;
 import org.springframework.stereotype.Service;
 
 import java.util.concurrent.locks.Lock;
+import java.util.function.Function;
 
 @Service
-@RequiredArgsConstructor
 @Slf4j
 public class OrderService {
     
-    private final RedisLockRegistry redisLockRegistry;
+    private final Function<String, Lock> orderLocks;
+    private final LockMetrics lockMetrics;
+    
+    public OrderService(RedisLockRegistry redisLockRegistry, LockMetrics lockMetrics,
+                        RedisLockProperties redisLockProperties) {
+        // RedisLockRegistry 가 키마다 로컬 락을 먼저 잡으므로 같은 노드 요청은 그 안에서 줄을 서고 맨 앞만 Redis 에 접근한다
+        // obtain 은 내부 캐시 적중/제거를 지표로 남기도록 감싼다
+        this.orderLocks = lockMetrics.mirrorRegistryCache(redisLockRegistry::obtain, redisLockProperties.getCacheCapacity());
+        this.lockMetrics = lockMetrics;
+    }
     
     public String processOrder(String userId, String productId, int quantity) {
         String lockKey = "order:" + userId + ":" + productId;
-        Lock lock = redisLockRegistry.obtain(lockKey);
+        Lock lock = orderLocks.apply(lockKey);
         
+        boolean acquired = false;
+        long waitStart = System.nanoTime();
+        long holdStart = 0L;
         try {
             lock.lock();
+            acquired = true;
+            holdStart = System.nanoTime();
+            // RedisLockRegistry 는 Redis 명령 수를 알 수 없어 왕복 수는 기록하지 않는다
+            lockMetrics.recordAcquired(lockKey, holdStart - waitStart, 0L);
             log.info("락 획득 완료: {}", lockKey);
             
             // 재고 확인 및 주문 처리 시뮬레이션
@@ -38,8 +55,12 @@ public class OrderService {
             log.error("주문 처리 중 인터럽트 발생", e);
             return "주문 처리 실패: 인터럽트";
         } finally {
-            lock.unlock();
-            log.info("락 해제 완료: {}", lockKey);
+            // lock() 이 실패했으면 해제할 락도, 기록할 보유 시간도 없다
+            if (acquired) {
+                lock.unlock();
+                lockMetrics.recordHold(lockKey, System.nanoTime() - holdStart);
+                log.info("락 해제 완료: {}", lockKey);
+            }
         }
     }
 }
\ No newline at end of file
@@ -4,6 +4,8 @@ import com.jaesay.redislockregistryexample.annotation.DistributedLock;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
+import java.util.List;
+
 @Service
 @Slf4j
 public class OrderServiceV2 {
@@ -11,6 +13,7 @@ public class OrderServiceV2 {
     @DistributedLock(
         key = "'order:' + #userId + ':' + #productId",
         waitTime = 3000L,
+        fair = true,
         failureMessage = "주문 처리 중입니다. 잠시 후 다시 시도해주세요."
     )
     public String processOrder(String userId, String productId, int quantity) {
@@ -31,4 +34,31 @@ public class OrderServiceV2 {
             throw new RuntimeException("주문 처리 실패: 인터럽트", e);
         }
     }
+    
+    /**
+     * 장바구니 주문: 상품별 주문 락(order:{userId}:{productId})을 Redis 왕복 한 번으로 모두 잡는다
+     */
+    @DistributedLock(
+        key = "#productIds.![ 'order:' + #userId + ':' + #this ]",
+        waitTime = 3000L,
+        failureMessage = "장바구니 상품 중 주문 처리 중인 상품이 있습니다. 잠시 후 다시 시도해주세요."
+    )
+    public String processCartOrder(String userId, List<String> productIds) {
+        log.info("장바구니 주문 처리 시작 (V2): userId={}, productIds={}", userId, productIds);
+        
+        try {
+            // 실제 비즈니스 로직 시뮬레이션 (2초 소요)
+            Thread.sleep(2000);
+            
+            String orderId = "ORD-V2-CART-" + System.currentTimeMillis();
+            log.info("장바구니 주문 처리 완료 (V2): orderId={}", orderId);
+            
+            return "장바구니 주문 완료 (V2): " + orderId;
+            
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.error("장바구니 주문 처리 중 인터럽트 발생 (V2)", e);
+            throw new RuntimeException("장바구니 주문 처리 실패: 인터럽트", e);
+        }
+    }
 }
\ No newline at end of file
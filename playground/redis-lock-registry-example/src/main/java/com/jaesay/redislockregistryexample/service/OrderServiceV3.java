@@ -0,0 +1,34 @@
+package com.jaesay.redislockregistryexample.service;
+
+import com.jaesay.redislockregistryexample.annotation.DistributedLock;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 비동기 주문 처리: 락 대기와 작업 중 어떤 스레드도 잡지 않는다
+ */
+@Service
+@Slf4j
+public class OrderServiceV3 {
+    
+    @DistributedLock(
+        key = "'order:' + #userId + ':' + #productId",
+        waitTime = 3000L,
+        fair = true,
+        failureMessage = "주문 처리 중입니다. 잠시 후 다시 시도해주세요."
+    )
+    public CompletableFuture<String> processOrder(String userId, String productId, int quantity) {
+        log.info("주문 처리 시작 (V3): userId={}, productId={}, quantity={}", userId, productId, quantity);
+        
+        // 실제 비즈니스 로직 시뮬레이션 (2초 소요, sleep 대신 지연 실행)
+        return CompletableFuture.supplyAsync(() -> {
+            String orderId = "ORD-V3-" + System.currentTimeMillis();
+            log.info("주문 처리 완료 (V3): orderId={}", orderId);
+            
+            return "주문 완료 (V3): " + orderId;
+        }, CompletableFuture.delayedExecutor(2, TimeUnit.SECONDS));
+    }
+}
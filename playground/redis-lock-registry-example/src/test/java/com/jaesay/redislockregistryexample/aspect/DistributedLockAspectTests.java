@@ -0,0 +1,163 @@
+package com.jaesay.redislockregistryexample.aspect;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jaesay.redislockregistryexample.annotation.DistributedLock;
+import com.jaesay.redislockregistryexample.config.RedisLockProperties;
+import com.jaesay.redislockregistryexample.lock.LeaseLockRegistry;
+import com.jaesay.redislockregistryexample.lock.LocalQueueingLockRegistry;
+import com.jaesay.redislockregistryexample.lock.SingleFlightGroup;
+import com.jaesay.redislockregistryexample.metrics.LockMetrics;
+import com.jaesay.redislockregistryexample.support.EmbeddedRedis;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.integration.redis.util.RedisLockRegistry;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * 내장 Redis 와 실제 레지스트리로 @DistributedLock 프록시를 만들어 검증
+ */
+class DistributedLockAspectTests {
+
+    private static final String PREFIX = "test-aspect:";
+
+    private final StringRedisTemplate redisTemplate = EmbeddedRedis.stringRedisTemplate();
+    private ThreadPoolTaskScheduler taskScheduler;
+    private LeaseLockRegistry leaseLockRegistry;
+    private LockedService target;
+    private LockedService service;
+
+    @BeforeEach
+    void setUp() {
+        EmbeddedRedis.flushAll();
+        taskScheduler = EmbeddedRedis.taskScheduler();
+        leaseLockRegistry = new LeaseLockRegistry(redisTemplate, EmbeddedRedis.reactiveStringRedisTemplate(),
+                PREFIX + "lease", RedisLockRegistry.RedisLockType.SPIN_LOCK, taskScheduler, 3000L, 10L, 50);
+        DistributedLockAspect aspect = new DistributedLockAspect(
+                new LocalQueueingLockRegistry(),
+                leaseLockRegistry,
+                new LockKeyGenerator(),
+                new SingleFlightGroup(redisTemplate, new ObjectMapper(), PREFIX + "result:"),
+                new LockMetrics(new SimpleMeterRegistry(), new RedisLockProperties()));
+
+        target = new LockedService();
+        AspectJProxyFactory proxyFactory = new AspectJProxyFactory(target);
+        proxyFactory.setProxyTargetClass(true);
+        proxyFactory.addAspect(aspect);
+        service = proxyFactory.getProxy();
+        target.self = service;
+    }
+
+    @AfterEach
+    void tearDown() {
+        leaseLockRegistry.destroy();
+        taskScheduler.shutdown();
+    }
+
+    @Test
+    void nestedCallOnSameKeyReentersInsteadOfTimingOut() {
+        long start = System.nanoTime();
+
+        assertThat(service.outer("user1")).isEqualTo("inner user1");
+        assertThat(service.outerFair("user1")).isEqualTo("inner fair user1");
+
+        // waitTime(1초)까지 막히지 않고 바로 끝나며, 끝나면 락이 남지 않는다
+        assertThat(System.nanoTime() - start).isLessThan(1_000_000_000L);
+        assertThat(redisTemplate.hasKey(PREFIX + "lease:order:user1")).isFalse();
+    }
+
+    @Test
+    void singleFlightRunsCallsWithDifferentArgumentsSeparately() throws Exception {
+        target.release = new CountDownLatch(1);
+        CompletableFuture<String> one = CompletableFuture.supplyAsync(() -> service.order("user1", 1));
+        target.entered.await();
+        CompletableFuture<String> two = CompletableFuture.supplyAsync(() -> service.order("user1", 2));
+        target.release.countDown();
+
+        // 락 키는 같아도 수량이 다르면 둘 다 실행된다
+        assertThat(one.get(5, TimeUnit.SECONDS)).startsWith("user1 x1");
+        assertThat(two.get(5, TimeUnit.SECONDS)).startsWith("user1 x2");
+        assertThat(target.orders.get()).isEqualTo(2);
+    }
+
+    @Test
+    void singleFlightMergesDuplicatesOnlyWhileTheFirstCallRuns() throws Exception {
+        target.release = new CountDownLatch(1);
+        CompletableFuture<String> first = CompletableFuture.supplyAsync(() -> service.order("user1", 1));
+        target.entered.await();
+        CompletableFuture<String> duplicate = CompletableFuture.supplyAsync(() -> service.order("user1", 1));
+        Thread.sleep(200);
+        target.release.countDown();
+
+        assertThat(duplicate.get(5, TimeUnit.SECONDS)).isEqualTo(first.get(5, TimeUnit.SECONDS));
+        assertThat(target.orders.get()).isOne();
+
+        // 끝난 뒤 들어온 같은 주문은 새로 실행하고, 결과를 Redis 에 남기지 않는다
+        assertThat(service.order("user1", 1)).isEqualTo("user1 x1 #2");
+        assertThat(redisTemplate.keys(PREFIX + "result:*")).isEmpty();
+    }
+
+    @Test
+    void fairLockOnCollectionKeyIsRejected() {
+        assertThatThrownBy(() -> service.cartFair("user1", List.of("p1", "p2")))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("공정 모드");
+    }
+
+    static class LockedService {
+
+        LockedService self;
+        final AtomicInteger orders = new AtomicInteger();
+        final CountDownLatch entered = new CountDownLatch(1);
+        volatile CountDownLatch release = new CountDownLatch(0);
+
+        @DistributedLock(key = "'order:' + #userId", waitTime = 1000L)
+        public String outer(String userId) {
+            return self.inner(userId);
+        }
+
+        @DistributedLock(key = "'order:' + #userId", waitTime = 1000L)
+        public String inner(String userId) {
+            return "inner " + userId;
+        }
+
+        @DistributedLock(key = "'order:' + #userId", waitTime = 1000L, fair = true)
+        public String outerFair(String userId) {
+            return self.innerFair(userId);
+        }
+
+        @DistributedLock(key = "'order:' + #userId", waitTime = 1000L, fair = true)
+        public String innerFair(String userId) {
+            return "inner fair " + userId;
+        }
+
+        @DistributedLock(key = "#productIds.![ 'order:' + #userId + ':' + #this ]", fair = true)
+        public String cartFair(String userId, List<String> productIds) {
+            return "cart " + userId;
+        }
+
+        @DistributedLock(key = "'order:' + #userId", waitTime = 3000L, singleFlight = true)
+        public String order(String userId, int quantity) {
+            int run = orders.incrementAndGet();
+            entered.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return userId + " x" + quantity + " #" + run;
+        }
+    }
+}
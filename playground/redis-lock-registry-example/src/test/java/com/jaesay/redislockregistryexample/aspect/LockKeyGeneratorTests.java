@@ -0,0 +1,99 @@
+package com.jaesay.redislockregistryexample.aspect;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.expression.spel.standard.SpelExpressionParser;
+import org.springframework.expression.spel.support.StandardEvaluationContext;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Parameter;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * + 로 이은 표현식을 SpEL 없이 만드는 경로가 SpEL 평가와 같은 키를 만드는지 검증
+ */
+class LockKeyGeneratorTests {
+
+    private static final Method ORDER = method("order", String.class, Long.class);
+    private static final Method SUM = method("sum", Integer.class, Integer.class);
+    private static final Method CART = method("cart", String.class, List.class);
+
+    @Test
+    void literalsAndParametersUseFastPath() {
+        assertFastPath(ORDER, "'order:' + #userId + ':' + #productId", "u1", 7L);
+        assertFastPath(ORDER, "'order:' + #userId + ':' + #productId", null, null);
+        assertFastPath(ORDER, "'a+b:' + #userId", "u1");
+        assertFastPath(ORDER, "'fixed'", "u1", 7L);
+        assertFastPath(SUM, "#a + ':' + #b", 1, 2);
+        assertFastPath(SUM, "#a + ':' + #b", null, 2);
+        assertFastPath(CART, "'cart:' + #userId + ':' + #productIds", "u1", List.of(1L, 2L));
+    }
+
+    @Test
+    void singleNullParameterStaysNull() {
+        assertFastPath(ORDER, "#userId", null, 7L);
+        assertFastPath(ORDER, "#productId", "u1", 7L);
+    }
+
+    @Test
+    void escapedQuotesAndLeadingParameterSumFallBackToSpel() {
+        assertSpelPath(ORDER, "'it''s:' + #userId", "u1", 7L);
+        assertSpelPath(SUM, "#a + #b", 1, 2);
+        assertSpelPath(SUM, "#a + #b + ':'", 1, 2);
+        assertSpelPath(ORDER, "#userId.toUpperCase()", "u1", 7L);
+    }
+
+    private void assertFastPath(Method method, String expression, Object... args) {
+        assertThat(LockKeyGenerator.ConcatenationTemplate.parse(expression, parameterNames(method))).isNotNull();
+        assertSameAsSpel(method, expression, args);
+    }
+
+    private void assertSpelPath(Method method, String expression, Object... args) {
+        assertThat(LockKeyGenerator.ConcatenationTemplate.parse(expression, parameterNames(method))).isNull();
+        assertSameAsSpel(method, expression, args);
+    }
+
+    /**
+     * 템플릿은 메서드별로 캐시되므로 표현식마다 새 생성기를 쓴다
+     */
+    private void assertSameAsSpel(Method method, String expression, Object... args) {
+        Object[] arguments = Arrays.copyOf(args, method.getParameterCount());
+        String key = new LockKeyGenerator().generate(method, expression, arguments);
+
+        StandardEvaluationContext context = new StandardEvaluationContext();
+        String[] names = parameterNames(method);
+        for (int i = 0; i < names.length; i++) {
+            context.setVariable(names[i], arguments[i]);
+        }
+        String expected = new SpelExpressionParser().parseExpression(expression).getValue(context, String.class);
+
+        assertThat(key).as(expression).isEqualTo(expected);
+    }
+
+    private static String[] parameterNames(Method method) {
+        return Arrays.stream(method.getParameters()).map(Parameter::getName).toArray(String[]::new);
+    }
+
+    private static Method method(String name, Class<?>... parameterTypes) {
+        try {
+            return KeyedMethods.class.getDeclaredMethod(name, parameterTypes);
+        } catch (NoSuchMethodException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @SuppressWarnings("unused")
+    static class KeyedMethods {
+
+        void order(String userId, Long productId) {
+        }
+
+        void sum(Integer a, Integer b) {
+        }
+
+        void cart(String userId, List<Long> productIds) {
+        }
+    }
+}
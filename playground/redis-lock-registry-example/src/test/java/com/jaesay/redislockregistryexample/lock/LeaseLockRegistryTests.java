@@ -0,0 +1,451 @@
+package com.jaesay.redislockregistryexample.lock;
+
+import com.jaesay.redislockregistryexample.support.EmbeddedRedis;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.integration.redis.util.RedisLockRegistry;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class LeaseLockRegistryTests {
+
+    private static final String REGISTRY_KEY = "test-lease";
+    private static final String PREFIX = REGISTRY_KEY + ":";
+    private static final Duration LEASE = Duration.ofSeconds(10);
+
+    private final StringRedisTemplate redisTemplate = EmbeddedRedis.stringRedisTemplate();
+    private ThreadPoolTaskScheduler taskScheduler;
+    private LeaseLockRegistry registry;
+
+    @BeforeEach
+    void setUp() {
+        EmbeddedRedis.flushAll();
+        taskScheduler = EmbeddedRedis.taskScheduler();
+        registry = new LeaseLockRegistry(redisTemplate, EmbeddedRedis.reactiveStringRedisTemplate(),
+                REGISTRY_KEY, RedisLockRegistry.RedisLockType.SPIN_LOCK, taskScheduler, 3000L, 10L, 50);
+    }
+
+    @AfterEach
+    void tearDown() {
+        registry.destroy();
+        taskScheduler.shutdown();
+    }
+
+    @Test
+    void sameThreadReentersWithoutRedisAndReleasesOnLastUnlock() throws Exception {
+        Lock outer = registry.obtain("order:1", LEASE);
+        Lock inner = registry.obtain("order:1", LEASE);
+
+        assertThat(outer.tryLock(100, TimeUnit.MILLISECONDS)).isTrue();
+        registry.takeRoundTrips();
+        assertThat(inner.tryLock(0, TimeUnit.MILLISECONDS)).isTrue();
+        assertThat(registry.takeRoundTrips()).isZero();
+
+        inner.unlock();
+        assertThat(redisTemplate.hasKey(PREFIX + "order:1")).isTrue();
+        assertThat(tryLockOnOtherThread(registry.obtain("order:1", LEASE))).isFalse();
+
+        outer.unlock();
+        assertThat(redisTemplate.hasKey(PREFIX + "order:1")).isFalse();
+        assertThat(tryLockOnOtherThread(registry.obtain("order:1", LEASE))).isTrue();
+    }
+
+    @Test
+    void releaseOrderDoesNotMatterForReentrantHolds() throws Exception {
+        Lock outer = registry.obtain("order:1", LEASE);
+        Lock inner = registry.obtain("order:1", LEASE);
+        outer.lock();
+        inner.lock();
+
+        outer.unlock();
+        assertThat(redisTemplate.hasKey(PREFIX + "order:1")).isTrue();
+        inner.unlock();
+        assertThat(redisTemplate.hasKey(PREFIX + "order:1")).isFalse();
+    }
+
+    @Test
+    void fairLockReentersWithoutJoiningTheQueue() throws Exception {
+        Lock outer = registry.obtainFair("order:1", LEASE, 1);
+        Lock inner = registry.obtainFair("order:1", LEASE, 1);
+
+        assertThat(outer.tryLock(100, TimeUnit.MILLISECONDS)).isTrue();
+        assertThat(inner.tryLock(0, TimeUnit.MILLISECONDS)).isTrue();
+        assertThat(redisTemplate.opsForZSet().size(PREFIX + "order:1:queue")).isZero();
+
+        inner.unlock();
+        outer.unlock();
+        assertThat(redisTemplate.hasKey(PREFIX + "order:1")).isFalse();
+    }
+
+    @Test
+    void nestedLockBehindLocalQueueReenters() throws Exception {
+        LocalQueueingLockRegistry localQueueing = new LocalQueueingLockRegistry();
+        Lock outer = localQueueing.obtain("order:1", registry.obtain("order:1", LEASE));
+        Lock inner = localQueueing.obtain("order:1", registry.obtain("order:1", LEASE));
+
+        assertThat(outer.tryLock(100, TimeUnit.MILLISECONDS)).isTrue();
+        assertThat(inner.tryLock(0, TimeUnit.MILLISECONDS)).isTrue();
+        inner.unlock();
+        outer.unlock();
+
+        assertThat(redisTemplate.hasKey(PREFIX + "order:1")).isFalse();
+    }
+
+    @Test
+    void multiLockReentersOnlyWhenAllKeysAreHeld() throws Exception {
+        Lock cart = registry.obtainMulti(List.of("order:1", "order:2"), LEASE);
+        assertThat(cart.tryLock(100, TimeUnit.MILLISECONDS)).isTrue();
+
+        Lock single = registry.obtain("order:2", LEASE);
+        assertThat(single.tryLock(0, TimeUnit.MILLISECONDS)).isTrue();
+        single.unlock();
+
+        Lock sameCart = registry.obtainMulti(List.of("order:2", "order:1"), LEASE);
+        assertThat(sameCart.tryLock(0, TimeUnit.MILLISECONDS)).isTrue();
+        sameCart.unlock();
+
+        // 가진 키와 안 가진 키가 섞이면 waitTime 까지 기다리지 않고 바로 거절
+        Lock overlapping = registry.obtainMulti(List.of("order:2", "order:3"), LEASE);
+        assertThatThrownBy(() -> overlapping.tryLock(1, TimeUnit.SECONDS))
+                .isInstanceOf(IllegalStateException.class);
+
+        assertThat(redisTemplate.hasKey(PREFIX + "order:1")).isTrue();
+        cart.unlock();
+        assertThat(redisTemplate.hasKey(PREFIX + "order:1")).isFalse();
+        assertThat(redisTemplate.hasKey(PREFIX + "order:2")).isFalse();
+    }
+
+    @Test
+    void fairLockGrantsInArrivalOrder() throws Exception {
+        Lock holder = registry.obtainFair("order:1", LEASE, 10);
+        assertThat(holder.tryLock(100, TimeUnit.MILLISECONDS)).isTrue();
+
+        List<String> acquiredOrder = new CopyOnWriteArrayList<>();
+        CompletableFuture<Void> first = waitForFairLock("first", acquiredOrder);
+        awaitUntil(() -> queueSize("order:1") == 1);
+        CompletableFuture<Void> second = waitForFairLock("second", acquiredOrder);
+        awaitUntil(() -> queueSize("order:1") == 2);
+
+        holder.unlock();
+        CompletableFuture.allOf(first, second).get(5, TimeUnit.SECONDS);
+
+        assertThat(acquiredOrder).containsExactly("first", "second");
+        assertThat(queueSize("order:1")).isZero();
+    }
+
+    @Test
+    void fullQueueRejectsWithoutWaiting() throws Exception {
+        Lock holder = registry.obtainFair("order:1", LEASE, 1);
+        assertThat(holder.tryLock(100, TimeUnit.MILLISECONDS)).isTrue();
+        CompletableFuture<Void> waiter = waitForFairLock("waiter", new CopyOnWriteArrayList<>(), 1);
+        awaitUntil(() -> queueSize("order:1") == 1);
+
+        // 보유 스레드가 아닌 다른 스레드에서 시도해야 재진입이 아닌 대기열 검사를 거친다
+        long start = System.nanoTime();
+        Lock rejected = registry.obtainFair("order:1", LEASE, 1);
+        assertThatThrownBy(() -> CompletableFuture.runAsync(() -> {
+            try {
+                rejected.tryLock(2, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }).join()).hasCauseInstanceOf(LockQueueFullException.class);
+        assertThat(System.nanoTime() - start).isLessThan(TimeUnit.SECONDS.toNanos(1));
+
+        holder.unlock();
+        waiter.get(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void waiterThatGivesUpLeavesTheQueue() throws Exception {
+        Lock holder = registry.obtainFair("order:1", LEASE, 10);
+        assertThat(holder.tryLock(100, TimeUnit.MILLISECONDS)).isTrue();
+
+        assertThat(tryLockOnOtherThread(registry.obtainFair("order:1", LEASE, 10))).isFalse();
+
+        // waiterTimeout 을 기다리지 않아도 대기열이 비어 뒤 대기자가 막히지 않는다
+        assertThat(queueSize("order:1")).isZero();
+        holder.unlock();
+    }
+
+    @Test
+    void multiLockTakesAllKeysOrNone() throws Exception {
+        Lock other = registry.obtain("order:2", LEASE);
+        CompletableFuture.runAsync(other::lock).get();
+
+        Lock cart = registry.obtainMulti(List.of("order:1", "order:2", "order:3"), LEASE);
+        assertThat(cart.tryLock(50, TimeUnit.MILLISECONDS)).isFalse();
+        assertThat(redisTemplate.hasKey(PREFIX + "order:1")).isFalse();
+        assertThat(redisTemplate.hasKey(PREFIX + "order:3")).isFalse();
+
+        CompletableFuture.runAsync(other::unlock).get();
+        assertThat(cart.tryLock(50, TimeUnit.MILLISECONDS)).isTrue();
+        assertThat(redisTemplate.opsForValue().get(PREFIX + "order:1"))
+                .isEqualTo(redisTemplate.opsForValue().get(PREFIX + "order:3"));
+        cart.unlock();
+        assertThat(redisTemplate.hasKey(PREFIX + "order:2")).isFalse();
+    }
+
+    @Test
+    void multiLocksWithReversedKeyOrderDoNotDeadlock() throws Exception {
+        CompletableFuture<Integer> forward = lockCartRepeatedly(List.of("order:1", "order:2"));
+        CompletableFuture<Integer> reversed = lockCartRepeatedly(List.of("order:2", "order:1"));
+
+        assertThat(forward.get(10, TimeUnit.SECONDS)).isEqualTo(50);
+        assertThat(reversed.get(10, TimeUnit.SECONDS)).isEqualTo(50);
+        assertThat(redisTemplate.hasKey(PREFIX + "order:1")).isFalse();
+        assertThat(redisTemplate.hasKey(PREFIX + "order:2")).isFalse();
+    }
+
+    @Test
+    void multiLockDoesNotJumpAheadOfFairWaiters() throws Exception {
+        Lock holder = registry.obtainFair("order:1", LEASE, 10);
+        assertThat(holder.tryLock(100, TimeUnit.MILLISECONDS)).isTrue();
+
+        List<String> acquiredOrder = new CopyOnWriteArrayList<>();
+        CompletableFuture<Void> fairWaiter = waitForFairLock("fair", acquiredOrder);
+        awaitUntil(() -> queueSize("order:1") == 1);
+        Lock cart = registry.obtainMulti(List.of("order:1", "order:2"), LEASE);
+        CompletableFuture<Void> cartWaiter = CompletableFuture.runAsync(() -> {
+            try {
+                assertThat(cart.tryLock(5, TimeUnit.SECONDS)).isTrue();
+                acquiredOrder.add("cart");
+                cart.unlock();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        Thread.sleep(50);
+
+        holder.unlock();
+        CompletableFuture.allOf(fairWaiter, cartWaiter).get(5, TimeUnit.SECONDS);
+
+        assertThat(acquiredOrder).containsExactly("fair", "cart");
+    }
+
+    @Test
+    void watchdogRenewsUntilLeaseTimeThenLetsTheKeyExpire() throws Exception {
+        // watchdogTimeout 300ms: 연장이 없으면 300ms 뒤 만료
+        LeaseLockRegistry shortWatchdog = new LeaseLockRegistry(redisTemplate,
+                EmbeddedRedis.reactiveStringRedisTemplate(), REGISTRY_KEY, RedisLockRegistry.RedisLockType.SPIN_LOCK,
+                taskScheduler, 300L, 10L, 50);
+        try {
+            Lock renewed = shortWatchdog.obtain("order:1", LEASE);
+            Lock leased = shortWatchdog.obtain("order:2", Duration.ofMillis(600));
+            assertThat(renewed.tryLock(100, TimeUnit.MILLISECONDS)).isTrue();
+            assertThat(leased.tryLock(100, TimeUnit.MILLISECONDS)).isTrue();
+
+            Thread.sleep(1000);
+
+            assertThat(redisTemplate.hasKey(PREFIX + "order:1")).isTrue();
+            assertThat(redisTemplate.hasKey(PREFIX + "order:2")).isFalse();
+            renewed.unlock();
+            assertThat(redisTemplate.hasKey(PREFIX + "order:1")).isFalse();
+        } finally {
+            shortWatchdog.destroy();
+        }
+    }
+
+    @Test
+    void withoutWatchdogLocksForTheWholeLeaseTime() throws Exception {
+        LeaseLockRegistry noWatchdog = new LeaseLockRegistry(redisTemplate,
+                EmbeddedRedis.reactiveStringRedisTemplate(), REGISTRY_KEY, RedisLockRegistry.RedisLockType.SPIN_LOCK,
+                null, 300L, 10L, 50);
+        try {
+            Lock lock = noWatchdog.obtain("order:1", Duration.ofSeconds(5));
+            assertThat(lock.tryLock(100, TimeUnit.MILLISECONDS)).isTrue();
+
+            assertThat(redisTemplate.getExpire(PREFIX + "order:1", TimeUnit.MILLISECONDS)).isGreaterThan(4000L);
+            lock.unlock();
+        } finally {
+            noWatchdog.destroy();
+        }
+    }
+
+    @Test
+    void sharesLockKeysWithRedisLockRegistry() throws Exception {
+        RedisLockRegistry orderRegistry = new RedisLockRegistry(EmbeddedRedis.connectionFactory(), REGISTRY_KEY, 10000L);
+        try {
+            Lock v1 = orderRegistry.obtain("order:1");
+            v1.lock();
+            assertThat(tryLockOnOtherThread(registry.obtain("order:1", LEASE))).isFalse();
+            v1.unlock();
+
+            Lock lease = registry.obtain("order:1", LEASE);
+            assertThat(lease.tryLock(100, TimeUnit.MILLISECONDS)).isTrue();
+            assertThat(tryLockOnOtherThread(orderRegistry.obtain("order:1"))).isFalse();
+            lease.unlock();
+            assertThat(tryLockOnOtherThread(orderRegistry.obtain("order:1"))).isTrue();
+        } finally {
+            orderRegistry.destroy();
+        }
+    }
+
+    @Test
+    void pubSubWaitersWakeOnUnlockInsteadOfPolling() throws Exception {
+        // retryInterval 1초: 폴링이라면 해제 후 다음 시도까지 최대 1초, 알림을 받으면 바로
+        LeaseLockRegistry pubSub = new LeaseLockRegistry(redisTemplate,
+                EmbeddedRedis.reactiveStringRedisTemplate(), REGISTRY_KEY, RedisLockRegistry.RedisLockType.PUB_SUB_LOCK,
+                taskScheduler, 3000L, 1000L, 50);
+        RedisLockRegistry orderRegistry = new RedisLockRegistry(EmbeddedRedis.connectionFactory(), REGISTRY_KEY, 10000L);
+        orderRegistry.setRedisLockType(RedisLockRegistry.RedisLockType.PUB_SUB_LOCK);
+        try {
+            // RedisLockRegistry(V1) 해제 알림으로 깨어남
+            Lock v1 = orderRegistry.obtain("order:1");
+            v1.lock();
+            assertThat(millisToAcquireAfterUnlock(pubSub.obtain("order:1", LEASE), v1::unlock)).isLessThan(500L);
+
+            // 다른 lease 락 해제 알림으로 깨어남 (동기, 비동기)
+            Lock holder = pubSub.obtain("order:2", LEASE);
+            holder.lock();
+            assertThat(millisToAcquireAfterUnlock(pubSub.obtain("order:2", LEASE), holder::unlock)).isLessThan(500L);
+
+            holder.lock();
+            CompletableFuture<LeaseLockRegistry.AsyncLock> asyncWaiter =
+                    pubSub.lockAsync("order:2", LEASE, Duration.ofSeconds(5)).toFuture();
+            Thread.sleep(100);
+            long unlockedAt = System.nanoTime();
+            holder.unlock();
+            LeaseLockRegistry.AsyncLock asyncLock = asyncWaiter.get(5, TimeUnit.SECONDS);
+            assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - unlockedAt)).isLessThan(500L);
+            asyncLock.unlockAsync().block();
+        } finally {
+            orderRegistry.destroy();
+            pubSub.destroy();
+        }
+    }
+
+    @Test
+    void cancelledAsyncLockDoesNotLeaveTheKeyBehind() throws Exception {
+        // aspect 처럼 usingWhen 으로 잡고 SET NX 를 보낸 직후 취소: 응답 전 취소라 락을 받지 못해도 Redis 에는 잡혔을 수 있다
+        for (int i = 0; i < 50; i++) {
+            Disposable subscription = Mono.usingWhen(
+                    registry.lockAsync("order:1", LEASE, Duration.ofSeconds(1)),
+                    lock -> Mono.never(),
+                    LeaseLockRegistry.AsyncLock::unlockAsync).subscribe();
+            subscription.dispose();
+        }
+
+        // watchdogTimeout(3초) 만료를 기다리지 않고 바로 풀려 있어야 한다
+        awaitUntil(() -> !redisTemplate.hasKey(PREFIX + "order:1"), Duration.ofMillis(500));
+        assertThat(tryLockOnOtherThread(registry.obtain("order:1", LEASE))).isTrue();
+    }
+
+    @Test
+    void cancelledFairWaiterLeavesTheQueue() throws Exception {
+        Lock holder = registry.obtainFair("order:1", LEASE, 10);
+        assertThat(holder.tryLock(100, TimeUnit.MILLISECONDS)).isTrue();
+
+        Disposable waiter = registry.lockFairAsync("order:1", LEASE, Duration.ofSeconds(5), 10).subscribe();
+        awaitUntil(() -> queueSize("order:1") == 1);
+        waiter.dispose();
+
+        // 대기열 키 만료(waiterTimeout 의 2배 = 400ms)보다 먼저 빠진다
+        awaitUntil(() -> queueSize("order:1") == 0, Duration.ofMillis(200));
+        holder.unlock();
+    }
+
+    private CompletableFuture<Integer> lockCartRepeatedly(List<String> keys) {
+        return CompletableFuture.supplyAsync(() -> {
+            int acquired = 0;
+            try {
+                for (int i = 0; i < 50; i++) {
+                    Lock cart = registry.obtainMulti(keys, LEASE);
+                    if (cart.tryLock(5, TimeUnit.SECONDS)) {
+                        acquired++;
+                        Thread.sleep(1);
+                        cart.unlock();
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return acquired;
+        });
+    }
+
+    private CompletableFuture<Void> waitForFairLock(String name, List<String> acquiredOrder) {
+        return waitForFairLock(name, acquiredOrder, 10);
+    }
+
+    private CompletableFuture<Void> waitForFairLock(String name, List<String> acquiredOrder, int maxQueueDepth) {
+        Lock lock = registry.obtainFair("order:1", LEASE, maxQueueDepth);
+        return CompletableFuture.runAsync(() -> {
+            try {
+                assertThat(lock.tryLock(5, TimeUnit.SECONDS)).isTrue();
+                acquiredOrder.add(name);
+                Thread.sleep(20);
+                lock.unlock();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+    }
+
+    /**
+     * 다른 스레드가 lock 을 기다리기 시작한 뒤 unlock 을 실행하고, 해제부터 획득까지 걸린 시간을 잰다
+     */
+    private long millisToAcquireAfterUnlock(Lock lock, Runnable unlock) throws Exception {
+        CompletableFuture<Long> acquiredAt = CompletableFuture.supplyAsync(() -> {
+            try {
+                assertThat(lock.tryLock(5, TimeUnit.SECONDS)).isTrue();
+                long now = System.nanoTime();
+                lock.unlock();
+                return now;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException(e);
+            }
+        });
+        Thread.sleep(100);
+        long unlockedAt = System.nanoTime();
+        unlock.run();
+        return TimeUnit.NANOSECONDS.toMillis(acquiredAt.get(5, TimeUnit.SECONDS) - unlockedAt);
+    }
+
+    private long queueSize(String key) {
+        Long size = redisTemplate.opsForZSet().size(PREFIX + key + ":queue");
+        return size == null ? 0L : size;
+    }
+
+    private void awaitUntil(BooleanSupplier condition) throws InterruptedException {
+        awaitUntil(condition, Duration.ofSeconds(5));
+    }
+
+    private void awaitUntil(BooleanSupplier condition, Duration timeout) throws InterruptedException {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        while (!condition.getAsBoolean()) {
+            assertThat(System.nanoTime()).as("조건 대기 시간 초과").isLessThan(deadline);
+            Thread.sleep(5);
+        }
+    }
+
+    private boolean tryLockOnOtherThread(Lock lock) throws Exception {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                boolean acquired = lock.tryLock(50, TimeUnit.MILLISECONDS);
+                if (acquired) {
+                    lock.unlock();
+                }
+                return acquired;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }).get();
+    }
+}
@@ -0,0 +1,158 @@
+package com.jaesay.redislockregistryexample.lock;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 로컬 줄서기에서 쓴 시간을 빼고 남은 시간만 원격 락에 넘기는지 검증
+ */
+class LocalQueueingLockRegistryTests {
+
+    private final LocalQueueingLockRegistry registry = new LocalQueueingLockRegistry();
+    private final CountDownLatch holding = new CountDownLatch(1);
+    private final CountDownLatch release = new CountDownLatch(1);
+    private CompletableFuture<Void> holder;
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        if (holder != null) {
+            holder.join();
+        }
+    }
+
+    @Test
+    void remoteWaitsOnlyForTimeLeftAfterLocalQueue() throws Exception {
+        holdKeyOnOtherThread();
+        CompletableFuture.delayedExecutor(200, TimeUnit.MILLISECONDS).execute(release::countDown);
+
+        RecordingLock remote = new RecordingLock(true);
+        Lock lock = registry.obtain("order:1", remote);
+        long start = System.nanoTime();
+        assertThat(lock.tryLock(500, TimeUnit.MILLISECONDS)).isTrue();
+        lock.unlock();
+
+        long localWaitMillis = TimeUnit.NANOSECONDS.toMillis(remote.lastCalledAt.get() - start);
+        long remoteWaitMillis = TimeUnit.NANOSECONDS.toMillis(remote.lastWaitNanos.get());
+        assertThat(localWaitMillis).isGreaterThanOrEqualTo(150L);
+        assertThat(remoteWaitMillis).isGreaterThan(0L).isLessThanOrEqualTo(500L - localWaitMillis + 5L);
+    }
+
+    @Test
+    void localWaitPastDeadlineDoesNotTouchRemote() throws Exception {
+        holdKeyOnOtherThread();
+
+        RecordingLock remote = new RecordingLock(true);
+        assertThat(registry.obtain("order:1", remote).tryLock(100, TimeUnit.MILLISECONDS)).isFalse();
+
+        assertThat(remote.attempts.get()).isZero();
+    }
+
+    @Test
+    void remoteTimeoutReleasesLocalStripe() throws Exception {
+        RecordingLock remote = new RecordingLock(false);
+        assertThat(registry.obtain("order:1", remote).tryLock(50, TimeUnit.MILLISECONDS)).isFalse();
+        assertThat(remote.attempts.get()).isOne();
+
+        // 원격 락을 못 잡은 스레드가 로컬 락을 쥐고 있지 않아 다른 스레드가 바로 들어온다
+        assertThat(CompletableFuture.supplyAsync(() -> {
+            Lock other = registry.obtain("order:1", new RecordingLock(true));
+            boolean acquired = other.tryLock();
+            if (acquired) {
+                other.unlock();
+            }
+            return acquired;
+        }).get()).isTrue();
+    }
+
+    @Test
+    void otherKeysDoNotWaitBehindAHeldKey() throws Exception {
+        holdKeyOnOtherThread();
+
+        RecordingLock remote = new RecordingLock(true);
+        assertThat(CompletableFuture.supplyAsync(() -> registry.obtain("order:2", remote).tryLock()).get()).isTrue();
+        assertThat(remote.attempts.get()).isOne();
+    }
+
+    @Test
+    void localLockIsDroppedWhenTheLastUserLeaves() throws Exception {
+        holdKeyOnOtherThread();
+        assertThat(registry.obtain("order:1", new RecordingLock(true)).tryLock(10, TimeUnit.MILLISECONDS)).isFalse();
+        assertThat(registry.activeKeys()).isOne();
+
+        release.countDown();
+        holder.join();
+        assertThat(registry.activeKeys()).isZero();
+    }
+
+    private void holdKeyOnOtherThread() throws InterruptedException {
+        holder = CompletableFuture.runAsync(() -> {
+            Lock lock = registry.obtain("order:1", new RecordingLock(true));
+            lock.lock();
+            try {
+                holding.countDown();
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                lock.unlock();
+            }
+        });
+        holding.await();
+    }
+
+    /**
+     * 넘겨받은 대기 시간을 기록하고 정해진 결과를 돌려주는 원격 락
+     */
+    private static final class RecordingLock implements Lock {
+
+        private final boolean result;
+        private final AtomicInteger attempts = new AtomicInteger();
+        private final AtomicLong lastWaitNanos = new AtomicLong(-1L);
+        private final AtomicLong lastCalledAt = new AtomicLong();
+
+        private RecordingLock(boolean result) {
+            this.result = result;
+        }
+
+        @Override
+        public void lock() {
+        }
+
+        @Override
+        public void lockInterruptibly() {
+        }
+
+        @Override
+        public boolean tryLock() {
+            attempts.incrementAndGet();
+            return result;
+        }
+
+        @Override
+        public boolean tryLock(long time, TimeUnit unit) {
+            lastCalledAt.set(System.nanoTime());
+            lastWaitNanos.set(unit.toNanos(time));
+            return tryLock();
+        }
+
+        @Override
+        public void unlock() {
+        }
+
+        @Override
+        public Condition newCondition() {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.jaesay.redislockregistryexample.metrics;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 고정 개수 안에서 대기 시간이 큰 키가 상위에 남는지 검증
+ */
+class HotKeyTrackerTests {
+
+    private static final long MILLIS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    @Test
+    void topOrdersKeysByTotalWait() {
+        HotKeyTracker tracker = new HotKeyTracker(10);
+        tracker.record("order:a", 5 * MILLIS);
+        tracker.record("order:b", 30 * MILLIS);
+        tracker.record("order:c", 10 * MILLIS);
+        tracker.record("order:a", 20 * MILLIS);
+
+        assertThat(tracker.top(2)).containsExactly(
+                new HotKeyTracker.HotKeyReport("order:b", 1, 30),
+                new HotKeyTracker.HotKeyReport("order:a", 2, 25));
+    }
+
+    @Test
+    void fullTrackerEvictsColdestKeyAndInheritsItsCount() {
+        HotKeyTracker tracker = new HotKeyTracker(3);
+        tracker.record("order:a", 30 * MILLIS);
+        tracker.record("order:b", 10 * MILLIS);
+        tracker.record("order:c", 20 * MILLIS);
+
+        tracker.record("order:d", 5 * MILLIS);
+
+        assertThat(tracker.top(10)).containsExactly(
+                new HotKeyTracker.HotKeyReport("order:a", 1, 30),
+                new HotKeyTracker.HotKeyReport("order:c", 1, 20),
+                new HotKeyTracker.HotKeyReport("order:d", 2, 15));
+    }
+
+    @Test
+    void frequentlyWaitedKeyStaysOnTopAmongManyColdKeys() {
+        HotKeyTracker tracker = new HotKeyTracker(8);
+        for (int i = 0; i < 10_000; i++) {
+            tracker.record("order:cold" + i, MILLIS);
+            if (i % 10 == 0) {
+                tracker.record("order:hot", 3 * MILLIS);
+            }
+        }
+
+        List<HotKeyTracker.HotKeyReport> top = tracker.top(10);
+        assertThat(top).hasSize(8);
+        assertThat(top.get(0).key()).isEqualTo("order:hot");
+        assertThat(top.get(0).acquisitions()).isGreaterThanOrEqualTo(1_000);
+    }
+}
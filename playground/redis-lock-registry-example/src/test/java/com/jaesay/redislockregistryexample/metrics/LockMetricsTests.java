@@ -0,0 +1,51 @@
+package com.jaesay.redislockregistryexample.metrics;
+
+import com.jaesay.redislockregistryexample.config.RedisLockProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 태그용 키 패턴과 RedisLockRegistry 캐시 지표 검증
+ */
+class LockMetricsTests {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final LockMetrics lockMetrics = new LockMetrics(meterRegistry, new RedisLockProperties());
+
+    @Test
+    void keyPatternKeepsOnlyFirstSegment() {
+        assertThat(LockMetrics.keyPattern("order:user1:product1")).isEqualTo("order:*:*");
+        assertThat(LockMetrics.keyPattern("order:user1")).isEqualTo("order:*");
+        assertThat(LockMetrics.keyPattern("order")).isEqualTo("order");
+        assertThat(LockMetrics.keyPattern("order::")).isEqualTo("order:*:*");
+        assertThat(LockMetrics.keyPattern("")).isEqualTo("");
+    }
+
+    @Test
+    void multiKeyPatternUsesFirstKey() {
+        assertThat(LockMetrics.keyPattern("order:user1:p1,order:user1:p2")).isEqualTo("multi:order:*:*");
+    }
+
+    @Test
+    void registryCacheMirrorCountsHitsMissesAndEvictions() {
+        Function<String, Lock> obtain = lockMetrics.mirrorRegistryCache(key -> new ReentrantLock(), 2);
+
+        obtain.apply("order:1");
+        obtain.apply("order:2");
+        obtain.apply("order:1");
+        // 가장 오래 안 쓴 order:2 가 밀려난다
+        obtain.apply("order:3");
+        obtain.apply("order:2");
+
+        assertThat(meterRegistry.get("lock.registry.cache.hits").counter().count()).isEqualTo(1.0);
+        assertThat(meterRegistry.get("lock.registry.cache.misses").counter().count()).isEqualTo(4.0);
+        assertThat(meterRegistry.get("lock.registry.cache.evictions").counter().count()).isEqualTo(2.0);
+        assertThat(meterRegistry.get("lock.registry.cache.size").gauge().value()).isEqualTo(2.0);
+    }
+}
@@ -0,0 +1,85 @@
+package com.jaesay.redislockregistryexample.support;
+
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import redis.embedded.RedisServer;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.ServerSocket;
+
+/**
+ * 테스트용 내장 Redis (JVM 에 하나만 띄워 테스트 클래스끼리 공유하고, 테스트마다 flushAll 로 비운다)
+ */
+public final class EmbeddedRedis {
+
+    private static LettuceConnectionFactory connectionFactory;
+
+    private EmbeddedRedis() {
+    }
+
+    public static synchronized LettuceConnectionFactory connectionFactory() {
+        if (connectionFactory == null) {
+            int port = freePort();
+            RedisServer server = start(port);
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> stop(server)));
+
+            connectionFactory = new LettuceConnectionFactory(new RedisStandaloneConfiguration("localhost", port));
+            connectionFactory.afterPropertiesSet();
+            connectionFactory.start();
+        }
+        return connectionFactory;
+    }
+
+    public static StringRedisTemplate stringRedisTemplate() {
+        return new StringRedisTemplate(connectionFactory());
+    }
+
+    public static ReactiveStringRedisTemplate reactiveStringRedisTemplate() {
+        return new ReactiveStringRedisTemplate(connectionFactory());
+    }
+
+    public static ThreadPoolTaskScheduler taskScheduler() {
+        ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+        scheduler.setPoolSize(1);
+        scheduler.setThreadNamePrefix("test-lock-renewal-");
+        scheduler.initialize();
+        return scheduler;
+    }
+
+    public static void flushAll() {
+        stringRedisTemplate().execute(connection -> {
+            connection.serverCommands().flushAll();
+            return null;
+        }, true);
+    }
+
+    private static RedisServer start(int port) {
+        try {
+            RedisServer server = new RedisServer(port);
+            server.start();
+            return server;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void stop(RedisServer server) {
+        try {
+            server.stop();
+        } catch (IOException e) {
+            // JVM 종료 중이라 무시
+        }
+    }
+
+    private static int freePort() {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package com.example.samplebatch.benchmark;
+
+import com.example.samplebatch.config.BatchJobProperties.WriterType;
+import com.example.samplebatch.entity.AfterEntity;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.batch.item.Chunk;
+import org.springframework.batch.item.ItemWriter;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * afterWriter 저장 방식별 처리량 비교 (청크 1회 쓰기 = 1 op, 초당 행 수는 rows 카운터로 확인)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AfterWriterBenchmark {
+
+    @Param({"10", "100", "1000"})
+    public int chunkSize;
+
+    @Param({"REPOSITORY", "JDBC"})
+    public WriterType writerType;
+
+    private ConfigurableApplicationContext context;
+    private ItemWriter<AfterEntity> writer;
+    private TransactionTemplate transactionTemplate;
+    private JdbcTemplate dataJdbcTemplate;
+    private long nextSourceId;
+
+    @Setup(Level.Trial)
+    @SuppressWarnings("unchecked")
+    public void setUp() {
+        context = BenchmarkSupport.start("batch.first.writer-type=" + writerType);
+
+        writer = context.getBean("afterWriter", ItemWriter.class);
+        transactionTemplate = new TransactionTemplate(
+            context.getBean("dataDbTransactionManager", PlatformTransactionManager.class));
+        dataJdbcTemplate = BenchmarkSupport.dataJdbcTemplate(context);
+    }
+
+    @TearDown(Level.Iteration)
+    public void truncate() {
+        dataJdbcTemplate.execute("TRUNCATE TABLE AFTER_ENTITY");
+        nextSourceId = 0L;
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public void write(RowCounter counter) {
+        // 청크마다 새 sourceId 를 줘야 upsert 가 갱신이 아닌 insert 로 동작한다
+        List<AfterEntity> items = new ArrayList<>(chunkSize);
+        for (int i = 0; i < chunkSize; i++) {
+            AfterEntity entity = new AfterEntity();
+            entity.setSourceId(++nextSourceId);
+            entity.setUsername("user" + i);
+            items.add(entity);
+        }
+
+        transactionTemplate.executeWithoutResult(status -> {
+            try {
+                writer.write(new Chunk<>(items));
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        counter.rows += chunkSize;
+    }
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class RowCounter {
+
+        public long rows;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            rows = 0;
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.example.samplebatch.benchmark;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.batch.core.BatchStatus;
+import org.springframework.batch.core.Job;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.JobParametersBuilder;
+import org.springframework.batch.core.launch.JobLauncher;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * firstJob / secondJob 전체 실행 시간 (호출마다 시드 데이터를 다시 적재)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class BatchJobBenchmark {
+
+    @Param({"10000"})
+    public int rows;
+
+    @Param({"firstJob", "secondJob"})
+    public String jobName;
+
+    @Param({"SINGLE", "PARTITIONED", "REMOTE_CHUNKING"})
+    public String firstExecutionMode;
+
+    /**
+     * REMOTE_CHUNKING 워커 수 (다른 모드에서는 영향 없음)
+     */
+    @Param({"4"})
+    public int remoteWorkers;
+
+    private ConfigurableApplicationContext context;
+    private JdbcTemplate dataJdbcTemplate;
+    private JobLauncher jobLauncher;
+    private Job job;
+    private long runId;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        // 매 실행마다 같은 데이터를 다시 심으므로 증분 처리는 끄고 항상 전체를 처리
+        context = BenchmarkSupport.start(
+            "batch.first.execution-mode=" + firstExecutionMode,
+            "batch.first.incremental=false",
+            "batch.first.remote-chunking.workers=" + remoteWorkers,
+            "batch.first.remote-chunking.throttle-limit=" + remoteWorkers * 2);
+        dataJdbcTemplate = BenchmarkSupport.dataJdbcTemplate(context);
+        jobLauncher = context.getBean(JobLauncher.class);
+        job = context.getBean(jobName, Job.class);
+    }
+
+    @Setup(Level.Invocation)
+    public void seed() {
+        BenchmarkSupport.seedBeforeEntities(dataJdbcTemplate, rows);
+        BenchmarkSupport.seedWinEntities(dataJdbcTemplate, rows);
+        dataJdbcTemplate.execute("TRUNCATE TABLE AFTER_ENTITY");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public JobExecution runJob() throws Exception {
+        JobExecution execution = jobLauncher.run(job, new JobParametersBuilder()
+            .addLong("run.id", ++runId)
+            .toJobParameters());
+
+        if (execution.getStatus() != BatchStatus.COMPLETED) {
+            throw new IllegalStateException(jobName + " 실행 실패: " + execution.getAllFailureExceptions());
+        }
+        return execution;
+    }
+}
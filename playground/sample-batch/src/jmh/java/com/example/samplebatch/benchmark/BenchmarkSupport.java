@@ -0,0 +1,69 @@
+package com.example.samplebatch.benchmark;
+
+import com.example.samplebatch.SampleBatchApplication;
+import java.util.ArrayList;
+import java.util.List;
+import javax.sql.DataSource;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * 벤치마크 공통: 애플리케이션 기동과 H2 datadb 시드 데이터 적재
+ */
+final class BenchmarkSupport {
+
+    private static final int SEED_BATCH_SIZE = 1000;
+
+    private BenchmarkSupport() {
+    }
+
+    /**
+     * 웹 서버와 스케줄 없이 애플리케이션을 띄운다 (추가 설정은 "key=value" 형식)
+     */
+    static ConfigurableApplicationContext start(String... properties) {
+        return new SpringApplicationBuilder(SampleBatchApplication.class)
+            .web(WebApplicationType.NONE)
+            .properties(
+                "spring.jpa.show-sql=false",
+                "batch.schedule.enabled=false",
+                "logging.level.com.example.samplebatch=warn")
+            .properties(properties)
+            .run();
+    }
+
+    static JdbcTemplate dataJdbcTemplate(ConfigurableApplicationContext context) {
+        return new JdbcTemplate(context.getBean("dataDbSource", DataSource.class));
+    }
+
+    static void seedBeforeEntities(JdbcTemplate jdbcTemplate, int rows) {
+        jdbcTemplate.execute("TRUNCATE TABLE BEFORE_ENTITY RESTART IDENTITY");
+        insertInBatches(jdbcTemplate, "INSERT INTO BEFORE_ENTITY (USERNAME) VALUES (?)", rows,
+            i -> new Object[]{"user" + i});
+    }
+
+    static void seedWinEntities(JdbcTemplate jdbcTemplate, int rows) {
+        jdbcTemplate.execute("TRUNCATE TABLE WIN_ENTITY RESTART IDENTITY");
+        // win 은 0~20 으로 고르게 분포 (약 절반이 reward 대상)
+        insertInBatches(jdbcTemplate, "INSERT INTO WIN_ENTITY (USERNAME, WIN, REWARD) VALUES (?, ?, FALSE)", rows,
+            i -> new Object[]{"user" + i, (long) (i % 21)});
+    }
+
+    private static void insertInBatches(JdbcTemplate jdbcTemplate, String sql, int rows, RowValues rowValues) {
+        List<Object[]> batch = new ArrayList<>(SEED_BATCH_SIZE);
+        for (int i = 1; i <= rows; i++) {
+            batch.add(rowValues.values(i));
+            if (batch.size() == SEED_BATCH_SIZE || i == rows) {
+                jdbcTemplate.batchUpdate(sql, batch);
+                batch.clear();
+            }
+        }
+    }
+
+    @FunctionalInterface
+    private interface RowValues {
+
+        Object[] values(int index);
+    }
+}
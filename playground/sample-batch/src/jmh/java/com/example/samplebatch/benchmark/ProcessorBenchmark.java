@@ -0,0 +1,71 @@
+package com.example.samplebatch.benchmark;
+
+import com.example.samplebatch.entity.AfterEntity;
+import com.example.samplebatch.entity.BeforeEntity;
+import com.example.samplebatch.entity.WinEntity;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.batch.item.ItemProcessor;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * middleProcessor / trueProcessor 아이템 1건 처리량
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ProcessorBenchmark {
+
+    private ConfigurableApplicationContext context;
+    private ItemProcessor<BeforeEntity, AfterEntity> middleProcessor;
+    private ItemProcessor<WinEntity, WinEntity> trueProcessor;
+    private BeforeEntity beforeEntity;
+    private WinEntity winEntity;
+
+    @Setup(Level.Trial)
+    @SuppressWarnings("unchecked")
+    public void setUp() {
+        context = BenchmarkSupport.start();
+        middleProcessor = context.getBean("middleProcessor", ItemProcessor.class);
+        trueProcessor = context.getBean("trueProcessor", ItemProcessor.class);
+
+        beforeEntity = new BeforeEntity();
+        beforeEntity.setId(1L);
+        beforeEntity.setUsername("user1");
+
+        winEntity = new WinEntity();
+        winEntity.setId(1L);
+        winEntity.setUsername("user1");
+        winEntity.setWin(15L);
+        winEntity.setReward(false);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public AfterEntity middleProcessor() throws Exception {
+        return middleProcessor.process(beforeEntity);
+    }
+
+    @Benchmark
+    public WinEntity trueProcessor() throws Exception {
+        return trueProcessor.process(winEntity);
+    }
+}
@@ -0,0 +1,111 @@
+package com.example.samplebatch.benchmark;
+
+import com.example.samplebatch.batch.reader.KeysetItemReader;
+import com.example.samplebatch.entity.BeforeEntity;
+import com.example.samplebatch.repository.BeforeRepository;
+import jakarta.persistence.EntityManagerFactory;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.batch.item.ItemStreamReader;
+import org.springframework.batch.item.data.builder.RepositoryItemReaderBuilder;
+import org.springframework.batch.item.database.builder.JpaCursorItemReaderBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Sort;
+
+/**
+ * BeforeEntity 전체를 한 번 읽는 데 걸리는 시간을 리더 방식별로 비교
+ * PAGING: RepositoryItemReader (LIMIT/OFFSET), CURSOR: JpaCursorItemReader, KEYSET: KeysetItemReader
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class ReaderBenchmark {
+
+    @Param({"10000", "100000"})
+    public int rows;
+
+    @Param({"10", "100", "1000"})
+    public int pageSize;
+
+    @Param({"PAGING", "CURSOR", "KEYSET"})
+    public String strategy;
+
+    private ConfigurableApplicationContext context;
+    private BeforeRepository beforeRepository;
+    private EntityManagerFactory entityManagerFactory;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkSupport.start();
+        BenchmarkSupport.seedBeforeEntities(BenchmarkSupport.dataJdbcTemplate(context), rows);
+        beforeRepository = context.getBean(BeforeRepository.class);
+        entityManagerFactory = context.getBean("dataDbManagerFactory", EntityManagerFactory.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public long readAll() throws Exception {
+        ItemStreamReader<BeforeEntity> reader = createReader();
+        reader.open(new ExecutionContext());
+
+        long count = 0;
+        try {
+            while (reader.read() != null) {
+                count++;
+            }
+        } finally {
+            reader.close();
+        }
+
+        if (count != rows) {
+            throw new IllegalStateException("읽은 건수 불일치: " + count);
+        }
+        return count;
+    }
+
+    private ItemStreamReader<BeforeEntity> createReader() {
+        return switch (strategy) {
+            case "PAGING" -> new RepositoryItemReaderBuilder<BeforeEntity>()
+                .name("pagingReader")
+                .pageSize(pageSize)
+                .methodName("findAll")
+                .repository(beforeRepository)
+                .sorts(Map.of("id", Sort.Direction.ASC))
+                .build();
+            // 커서는 한 번 열어 끝까지 읽으므로 pageSize 와 무관
+            case "CURSOR" -> new JpaCursorItemReaderBuilder<BeforeEntity>()
+                .name("cursorReader")
+                .entityManagerFactory(entityManagerFactory)
+                .queryString("select b from BeforeEntity b order by b.id")
+                .build();
+            case "KEYSET" -> {
+                KeysetItemReader<BeforeEntity> reader = new KeysetItemReader<>(
+                    beforeRepository::findPageAfter, BeforeEntity::getId, pageSize);
+                reader.setName("keysetReader");
+                yield reader;
+            }
+            default -> throw new IllegalArgumentException(strategy);
+        };
+    }
+}
@@ -1,25 +1,53 @@
 package com.example.samplebatch.batch;
 
+import static com.example.samplebatch.batch.support.AsyncChunkSupport.asyncProcessor;
+import static com.example.samplebatch.batch.support.AsyncChunkSupport.asyncWriter;
+
+import com.example.samplebatch.batch.partition.IdRangePartitioner;
+import com.example.samplebatch.batch.listener.ChunkMetricsListener;
+import com.example.samplebatch.batch.listener.CommitLatencyListener;
+import com.example.samplebatch.batch.listener.HighWaterMarkListener;
+import com.example.samplebatch.batch.listener.PersistenceContextClearListener;
+import com.example.samplebatch.batch.reader.KeysetItemReader;
+import com.example.samplebatch.batch.remote.ChunkReplyDispatcher;
+import com.example.samplebatch.batch.remote.RetryingChunkMessageChannelItemWriter;
+import com.example.samplebatch.batch.support.AdaptiveChunkCompletionPolicy;
+import com.example.samplebatch.batch.support.HighWaterMarkStore;
+import com.example.samplebatch.batch.writer.StatelessSessionItemWriter;
+import com.example.samplebatch.config.BatchJobProperties;
+import com.example.samplebatch.config.BatchJobProperties.PersistenceMode;
 import com.example.samplebatch.entity.AfterEntity;
 import com.example.samplebatch.entity.BeforeEntity;
 import com.example.samplebatch.repository.AfterRepository;
 import com.example.samplebatch.repository.BeforeRepository;
+import jakarta.persistence.EntityManagerFactory;
+import java.util.List;
 import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import javax.sql.DataSource;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.hibernate.StatelessSession;
 import org.springframework.batch.core.Job;
 import org.springframework.batch.core.Step;
+import org.springframework.batch.core.StepExecutionListener;
+import org.springframework.batch.core.configuration.annotation.JobScope;
+import org.springframework.batch.core.configuration.annotation.StepScope;
 import org.springframework.batch.core.job.builder.JobBuilder;
 import org.springframework.batch.core.repository.JobRepository;
 import org.springframework.batch.core.step.builder.StepBuilder;
+import org.springframework.batch.item.Chunk;
 import org.springframework.batch.item.ItemProcessor;
-import org.springframework.batch.item.data.RepositoryItemReader;
-import org.springframework.batch.item.data.RepositoryItemWriter;
-import org.springframework.batch.item.data.builder.RepositoryItemReaderBuilder;
-import org.springframework.batch.item.data.builder.RepositoryItemWriterBuilder;
+import org.springframework.batch.item.ItemWriter;
+import org.springframework.batch.item.database.builder.JdbcBatchItemWriterBuilder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.data.domain.Sort;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.messaging.MessageChannel;
 import org.springframework.transaction.PlatformTransactionManager;
 
 @Configuration
@@ -27,8 +55,38 @@ import org.springframework.transaction.PlatformTransactionManager;
 @Slf4j
 public class FirstBatch {
 
+    /**
+     * 표준 SQL MERGE 한 문장으로 sourceId 기준 upsert (조회 후 INSERT 처럼 동시 실행 사이에 끼어들 틈이 없다)
+     */
+    private static final String UPSERT_AFTER_ENTITY_SQL = """
+        MERGE INTO AFTER_ENTITY T
+        USING (VALUES (:sourceId, :username)) S (SOURCE_ID, USERNAME)
+        ON T.SOURCE_ID = S.SOURCE_ID
+        WHEN MATCHED THEN UPDATE SET USERNAME = S.USERNAME
+        WHEN NOT MATCHED THEN INSERT (SOURCE_ID, USERNAME) VALUES (S.SOURCE_ID, S.USERNAME)
+        """;
+
     private final JobRepository jobRepository;
-    private final PlatformTransactionManager platformTransactionManager;
+    @Qualifier("dataDbTransactionManager")
+    private final PlatformTransactionManager dataDbTransactionManager;
+    @Qualifier("dataDbSource")
+    private final DataSource dataDbSource;
+    @Qualifier("dataDbManagerFactory")
+    private final EntityManagerFactory dataDbManagerFactory;
+    private final BatchJobProperties batchJobProperties;
+    private final AdaptiveChunkCompletionPolicy chunkCompletionPolicy;
+    private final ChunkMetricsListener chunkMetricsListener;
+    private final CommitLatencyListener commitLatencyListener;
+    private final HighWaterMarkStore highWaterMarkStore;
+    private final PersistenceContextClearListener persistenceContextClearListener;
+    @Qualifier("batchTaskExecutor")
+    private final TaskExecutor batchTaskExecutor;
+    @Qualifier("asyncProcessorTaskExecutor")
+    private final TaskExecutor asyncProcessorTaskExecutor;
+    // REMOTE_CHUNKING 모드에서만 있는 빈 (RemoteChunkingConfig)
+    @Qualifier("chunkRequests")
+    private final ObjectProvider<MessageChannel> chunkRequests;
+    private final ObjectProvider<ChunkReplyDispatcher> chunkReplyDispatcher;
 
     private final BeforeRepository beforeRepository;
     private final AfterRepository afterRepository;
@@ -36,31 +94,129 @@ public class FirstBatch {
     @Bean
     public Job firstJob() {
         log.info("first job");
+        Step step = switch (batchJobProperties.getFirst().getExecutionMode()) {
+            case SINGLE -> firstStep();
+            case PARTITIONED -> firstPartitionStep();
+            case REMOTE_CHUNKING -> firstRemoteChunkingStep();
+        };
+
         return new JobBuilder("firstJob", jobRepository)
-            .start(firstStep())
+            .listener(firstHighWaterMarkListener())
+            .start(step)
+            .build();
+    }
+
+    /**
+     * 실행마다 읽을 BeforeEntity id 구간을 정하고, 성공하면 high-water mark 를 갱신
+     */
+    @Bean
+    public HighWaterMarkListener firstHighWaterMarkListener() {
+        return new HighWaterMarkListener("firstJob", highWaterMarkStore, beforeRepository::findMaxId,
+            batchJobProperties.getFirst().isIncremental());
+    }
+
+    /**
+     * BeforeEntity id 구간을 나눠 firstStep 을 파티션별로 병렬 실행하는 매니저 스텝
+     * 파티션 스텝은 "firstStep:partitionN" 이름으로 각자 실행 이력을 가지므로 실패한 파티션만 재시작된다.
+     */
+    @Bean
+    public Step firstPartitionStep() {
+        log.info("first partition step");
+        return new StepBuilder("firstPartitionStep", jobRepository)
+            .partitioner("firstStep", beforeIdRangePartitioner(null, null))
+            .step(firstStep())
+            .gridSize(batchJobProperties.getFirst().getGridSize())
+            .taskExecutor(batchTaskExecutor)
+            .build();
+    }
+
+    /**
+     * 매니저 스텝: BeforeEntity 를 읽어 청크 단위로 워커(RemoteChunkingConfig)에 보내기만 한다
+     * 처리량은 워커 수(batch.first.remote-chunking.workers)에 비례해 늘고, 실패한 청크는 매니저가 다시 보낸다.
+     */
+    @Bean
+    public Step firstRemoteChunkingStep() {
+        log.info("first remote chunking step");
+        RetryingChunkMessageChannelItemWriter<BeforeEntity> writer = remoteChunkWriter();
+
+        return new StepBuilder("firstRemoteChunkingStep", jobRepository)
+            .<BeforeEntity, BeforeEntity>chunk(chunkCompletionPolicy, dataDbTransactionManager)
+            .reader(beforeReader(null, null, null, null))
+            .writer(writer)
+            .listener((StepExecutionListener) writer)
+            .listener(chunkCompletionPolicy)
+            .listener(chunkMetricsListener)
             .build();
     }
 
+    @Bean
+    @StepScope
+    public RetryingChunkMessageChannelItemWriter<BeforeEntity> remoteChunkWriter() {
+        BatchJobProperties.RemoteChunking remoteChunking = batchJobProperties.getFirst().getRemoteChunking();
+        return new RetryingChunkMessageChannelItemWriter<>(
+            chunkRequests.getObject(), chunkReplyDispatcher.getObject(), remoteChunking.getThrottleLimit(),
+            remoteChunking.getRetryLimit(), remoteChunking.getReplyTimeout());
+    }
+
+    /**
+     * 이번 실행 구간 (fromId, toId] 안의 실제 id 범위만 파티션으로 나눈다
+     */
+    @Bean
+    @JobScope
+    public IdRangePartitioner beforeIdRangePartitioner(
+        @Value("#{jobExecutionContext['" + HighWaterMarkListener.FROM_ID_KEY + "']}") Long fromId,
+        @Value("#{jobExecutionContext['" + HighWaterMarkListener.TO_ID_KEY + "']}") Long toId) {
+
+        return new IdRangePartitioner(() -> beforeRepository.findMinIdAfter(fromId), () -> toId);
+    }
+
     @Bean
     public Step firstStep() {
         log.info("first step");
+        if (batchJobProperties.getAsyncProcessor().isEnabled()) {
+            return buildFirstStep(
+                asyncProcessor(middleProcessor(), asyncProcessorTaskExecutor),
+                asyncWriter(afterWriter()));
+        }
+        return buildFirstStep(middleProcessor(), afterWriter());
+    }
+
+    private <O> Step buildFirstStep(ItemProcessor<BeforeEntity, O> processor, ItemWriter<O> writer) {
         return new StepBuilder("firstStep", jobRepository)
-            .<BeforeEntity, AfterEntity>chunk(10, platformTransactionManager)
-            .reader(beforeReader())
-            .processor(middleProcessor())
-            .writer(afterWriter())
+            .<BeforeEntity, O>chunk(chunkCompletionPolicy, dataDbTransactionManager)
+            .reader(beforeReader(null, null, null, null))
+            .processor(processor)
+            .writer(writer)
+            .listener(chunkCompletionPolicy)
+            .listener(chunkMetricsListener)
+            .listener(commitLatencyListener)
+            .listener(persistenceContextClearListener)
             .build();
     }
 
     @Bean
-    public RepositoryItemReader<BeforeEntity> beforeReader() {
-        return new RepositoryItemReaderBuilder<BeforeEntity>()
-            .name("beforeReader")
-            .pageSize(10)
-            .methodName("findAll")
-            .repository(beforeRepository)
-            .sorts(Map.of("id", Sort.Direction.ASC))
-            .build();
+    @StepScope
+    public KeysetItemReader<BeforeEntity> beforeReader(
+        @Value("#{stepExecutionContext['minId']}") Long minId,
+        @Value("#{stepExecutionContext['maxId']}") Long maxId,
+        @Value("#{jobExecutionContext['" + HighWaterMarkListener.FROM_ID_KEY + "']}") Long fromId,
+        @Value("#{jobExecutionContext['" + HighWaterMarkListener.TO_ID_KEY + "']}") Long toId) {
+
+        // OFFSET 페이징 대신 id 키셋으로 읽어 뒤쪽 페이지도 조회 비용이 일정하도록 한다
+        KeysetItemReader<BeforeEntity> reader = new KeysetItemReader<>(
+            beforeRepository::findPageAfter, BeforeEntity::getId, batchJobProperties.getChunk().getSize());
+        reader.setName("beforeReader");
+        reader.setPageSizeSupplier(chunkCompletionPolicy::getCurrentChunkSize);
+
+        // 파티션으로 실행되면 파티션 범위를, 단일 실행이면 이번 실행 구간 전체를 읽는다
+        if (minId != null && maxId != null) {
+            reader.setMinId(minId);
+            reader.setMaxId(maxId);
+        } else if (fromId != null && toId != null) {
+            reader.setMinId(fromId);
+            reader.setMaxId(toId);
+        }
+        return reader;
     }
 
     @Bean
@@ -70,6 +226,7 @@ public class FirstBatch {
             public AfterEntity process(BeforeEntity item) throws Exception {
 
                 AfterEntity afterEntity = new AfterEntity();
+                afterEntity.setSourceId(item.getId());
                 afterEntity.setUsername(item.getUsername());
 
                 return afterEntity;
@@ -77,11 +234,63 @@ public class FirstBatch {
         };
     }
 
+    /**
+     * AfterEntity 는 sourceId 기준 upsert 라 같은 원본을 여러 번 처리해도 한 행만 남는다
+     * (전체 재처리와 증분 처리 결과가 같고, 재시작으로 청크가 다시 쓰여도 중복이 생기지 않는다)
+     */
     @Bean
-    public RepositoryItemWriter<AfterEntity> afterWriter() {
-        return new RepositoryItemWriterBuilder<AfterEntity>()
-            .repository(afterRepository)
-            .methodName("save")
-            .build();
+    public ItemWriter<AfterEntity> afterWriter() {
+        return switch (batchJobProperties.getFirst().getWriterType()) {
+            case REPOSITORY -> batchJobProperties.getJpa().getPersistenceMode() == PersistenceMode.STATELESS
+                ? new StatelessSessionItemWriter<AfterEntity>(dataDbManagerFactory, dataDbSource, this::statelessUpsertAfterEntities)
+                : this::upsertAfterEntities;
+            // 기본 IDENTITY 채번에서는 Hibernate 가 INSERT 를 배치로 묶지 못하므로 JDBC 로 청크를 한 번에 전송
+            case JDBC -> new JdbcBatchItemWriterBuilder<AfterEntity>()
+                .dataSource(dataDbSource)
+                .sql(UPSERT_AFTER_ENTITY_SQL)
+                .beanMapped()
+                .build();
+        };
+    }
+
+    private void upsertAfterEntities(Chunk<? extends AfterEntity> chunk) {
+        Map<Long, AfterEntity> existing = afterRepository.findBySourceIdIn(sourceIds(chunk)).stream()
+            .collect(Collectors.toMap(AfterEntity::getSourceId, Function.identity()));
+
+        for (AfterEntity item : chunk) {
+            AfterEntity target = existing.get(item.getSourceId());
+            if (target == null) {
+                afterRepository.save(item);
+            } else {
+                target.setUsername(item.getUsername());
+            }
+        }
+    }
+
+    /**
+     * STATELESS 모드 upsert: 조회/저장 모두 StatelessSession 으로 해 영속성 컨텍스트를 거치지 않는다
+     */
+    private void statelessUpsertAfterEntities(StatelessSession session, Chunk<? extends AfterEntity> chunk) {
+        Map<Long, AfterEntity> existing = session
+            .createSelectionQuery("from AfterEntity a where a.sourceId in :sourceIds", AfterEntity.class)
+            .setParameterList("sourceIds", sourceIds(chunk))
+            .getResultList().stream()
+            .collect(Collectors.toMap(AfterEntity::getSourceId, Function.identity()));
+
+        for (AfterEntity item : chunk) {
+            AfterEntity target = existing.get(item.getSourceId());
+            if (target == null) {
+                session.insert(item);
+            } else {
+                target.setUsername(item.getUsername());
+                session.update(target);
+            }
+        }
+    }
+
+    private static List<Long> sourceIds(Chunk<? extends AfterEntity> chunk) {
+        return chunk.getItems().stream()
+            .map(AfterEntity::getSourceId)
+            .toList();
     }
 }
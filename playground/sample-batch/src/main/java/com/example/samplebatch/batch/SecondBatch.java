@@ -1,65 +1,152 @@
 package com.example.samplebatch.batch;
 
+import static com.example.samplebatch.batch.support.AsyncChunkSupport.asyncProcessor;
+import static com.example.samplebatch.batch.support.AsyncChunkSupport.asyncWriter;
+
+import com.example.samplebatch.batch.listener.ChunkMetricsListener;
+import com.example.samplebatch.batch.listener.CommitLatencyListener;
+import com.example.samplebatch.batch.listener.PersistenceContextClearListener;
+import com.example.samplebatch.batch.reader.KeysetItemReader;
+import com.example.samplebatch.batch.support.AdaptiveChunkCompletionPolicy;
+import com.example.samplebatch.batch.tasklet.IdRangeUpdateTasklet;
+import com.example.samplebatch.batch.writer.StatelessSessionItemWriter;
+import com.example.samplebatch.config.BatchJobProperties;
+import com.example.samplebatch.config.BatchJobProperties.PersistenceMode;
 import com.example.samplebatch.entity.WinEntity;
 import com.example.samplebatch.repository.WinRepository;
-import java.util.Collections;
+import jakarta.persistence.EntityManagerFactory;
 import java.util.Map;
+import javax.sql.DataSource;
 import lombok.RequiredArgsConstructor;
 import org.springframework.batch.core.Job;
 import org.springframework.batch.core.Step;
+import org.springframework.batch.core.configuration.annotation.StepScope;
 import org.springframework.batch.core.job.builder.JobBuilder;
 import org.springframework.batch.core.repository.JobRepository;
 import org.springframework.batch.core.step.builder.StepBuilder;
 import org.springframework.batch.item.ItemProcessor;
-import org.springframework.batch.item.data.RepositoryItemReader;
-import org.springframework.batch.item.data.RepositoryItemWriter;
-import org.springframework.batch.item.data.builder.RepositoryItemReaderBuilder;
+import org.springframework.batch.item.ItemWriter;
 import org.springframework.batch.item.data.builder.RepositoryItemWriterBuilder;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.data.domain.Sort;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
 import org.springframework.transaction.PlatformTransactionManager;
 
 @Configuration
 @RequiredArgsConstructor
 public class SecondBatch {
 
+    private static final String REWARD_UPDATE_SQL = """
+        UPDATE WIN_ENTITY SET REWARD = TRUE
+        WHERE WIN >= :win AND ID BETWEEN :fromId AND :toId AND (REWARD IS NULL OR REWARD = FALSE)
+        """;
+    private static final String REWARD_MIN_ID_SQL = "SELECT MIN(ID) FROM WIN_ENTITY WHERE WIN >= :win";
+    private static final String REWARD_MAX_ID_SQL = "SELECT MAX(ID) FROM WIN_ENTITY WHERE WIN >= :win";
+
     private final JobRepository jobRepository;
     private final PlatformTransactionManager platformTransactionManager;
+    @Qualifier("dataDbTransactionManager")
+    private final PlatformTransactionManager dataDbTransactionManager;
+    @Qualifier("dataDbSource")
+    private final DataSource dataDbSource;
+    @Qualifier("dataDbManagerFactory")
+    private final EntityManagerFactory dataDbManagerFactory;
+    private final BatchJobProperties batchJobProperties;
+    private final AdaptiveChunkCompletionPolicy chunkCompletionPolicy;
+    private final ChunkMetricsListener chunkMetricsListener;
+    private final CommitLatencyListener commitLatencyListener;
+    private final PersistenceContextClearListener persistenceContextClearListener;
+    @Qualifier("asyncProcessorTaskExecutor")
+    private final TaskExecutor asyncProcessorTaskExecutor;
     private final WinRepository winRepository;
 
     @Bean
     public Job secondJob() {
+        Step step = switch (batchJobProperties.getSecond().getStepType()) {
+            case CHUNK -> secondStep();
+            case BULK_UPDATE -> secondBulkUpdateStep();
+        };
 
         return new JobBuilder("secondJob", jobRepository)
-            .start(secondStep())
+            .start(step)
             .build();
     }
 
     @Bean
     public Step secondStep() {
 
+        if (batchJobProperties.getAsyncProcessor().isEnabled()) {
+            return buildSecondStep(
+                asyncProcessor(trueProcessor(), asyncProcessorTaskExecutor),
+                asyncWriter(winWriter()));
+        }
+        return buildSecondStep(trueProcessor(), winWriter());
+    }
+
+    private <O> Step buildSecondStep(ItemProcessor<WinEntity, O> processor, ItemWriter<O> writer) {
+
+        // CLEAR/STATELESS 는 청크 하나를 datadb 트랜잭션 하나로 읽고 써야 영속성 컨텍스트를 청크 단위로 관리할 수 있다
+        PlatformTransactionManager transactionManager = persistenceMode() == PersistenceMode.DEFAULT
+            ? platformTransactionManager
+            : dataDbTransactionManager;
+
         return new StepBuilder("secondStep", jobRepository)
-            .<WinEntity, WinEntity> chunk(10, platformTransactionManager)
+            .<WinEntity, O> chunk(chunkCompletionPolicy, transactionManager)
             .reader(winReader())
-            .processor(trueProcessor())
-            .writer(winWriter())
+            .processor(processor)
+            .writer(writer)
+            .listener(chunkCompletionPolicy)
+            .listener(chunkMetricsListener)
+            .listener(commitLatencyListener)
+            .listener(persistenceContextClearListener)
             .build();
     }
 
+    /**
+     * WinEntity 를 읽지 않고 id 구간별 UPDATE 로 reward 를 설정하는 스텝
+     * 이미 reward 가 true 인 행은 건드리지 않으므로 재실행해도 추가 갱신이 없다.
+     */
     @Bean
-    public RepositoryItemReader<WinEntity> winReader() {
+    public Step secondBulkUpdateStep() {
 
-        return new RepositoryItemReaderBuilder<WinEntity>()
-            .name("winReader")
-            .pageSize(10)
-            .methodName("findByWinGreaterThanEqual")
-            .arguments(Collections.singletonList(10L))
-            .repository(winRepository)
-            .sorts(Map.of("id", Sort.Direction.ASC))
+        return new StepBuilder("secondBulkUpdateStep", jobRepository)
+            .tasklet(rewardUpdateTasklet(), dataDbTransactionManager)
+            .listener(chunkMetricsListener)
             .build();
     }
 
+    @Bean
+    public IdRangeUpdateTasklet rewardUpdateTasklet() {
+
+        return new IdRangeUpdateTasklet(
+            new NamedParameterJdbcTemplate(dataDbSource),
+            REWARD_UPDATE_SQL,
+            REWARD_MIN_ID_SQL,
+            REWARD_MAX_ID_SQL,
+            Map.of("win", 10L),
+            batchJobProperties.getSecond().getUpdateRangeSize());
+    }
+
+    @Bean
+    @StepScope
+    public KeysetItemReader<WinEntity> winReader() {
+
+        // winWriter 가 같은 테이블을 갱신하므로 OFFSET 대신 id 키셋으로 읽고,
+        // 상한 id 는 스텝 시작 시점에 고정해 실행 중 변경/추가된 행을 다시 읽지 않는다
+        // 커서와 상한을 들고 있으므로 스텝 실행마다 새로 만든다 (동시에 도는 secondJob 끼리 공유하지 않도록)
+        KeysetItemReader.KeysetQuery<WinEntity> query = persistenceMode() == PersistenceMode.STATELESS
+            ? (lastId, maxId, limit) -> winRepository.findRewardTargetsAfterReadOnly(10L, lastId, maxId, limit)
+            : (lastId, maxId, limit) -> winRepository.findRewardTargetsAfter(10L, lastId, maxId, limit);
+        KeysetItemReader<WinEntity> reader = new KeysetItemReader<>(
+            query, WinEntity::getId, batchJobProperties.getChunk().getSize());
+        reader.setName("winReader");
+        reader.setPageSizeSupplier(chunkCompletionPolicy::getCurrentChunkSize);
+        reader.setMaxIdSupplier(winRepository::findMaxId);
+        return reader;
+    }
+
     @Bean
     public ItemProcessor<WinEntity, WinEntity> trueProcessor() {
 
@@ -70,11 +157,22 @@ public class SecondBatch {
     }
 
     @Bean
-    public RepositoryItemWriter<WinEntity> winWriter() {
+    public ItemWriter<WinEntity> winWriter() {
 
+        if (persistenceMode() == PersistenceMode.STATELESS) {
+            return new StatelessSessionItemWriter<>(dataDbManagerFactory, dataDbSource, (session, chunk) -> {
+                for (WinEntity item : chunk) {
+                    session.update(item);
+                }
+            });
+        }
         return new RepositoryItemWriterBuilder<WinEntity>()
             .repository(winRepository)
             .methodName("save")
             .build();
     }
+
+    private PersistenceMode persistenceMode() {
+        return batchJobProperties.getJpa().getPersistenceMode();
+    }
 }
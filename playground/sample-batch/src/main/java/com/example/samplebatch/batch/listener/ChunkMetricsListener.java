@@ -0,0 +1,57 @@
+package com.example.samplebatch.batch.listener;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.util.concurrent.TimeUnit;
+import lombok.RequiredArgsConstructor;
+import org.springframework.batch.core.ChunkListener;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.scope.context.ChunkContext;
+import org.springframework.batch.core.scope.context.StepContext;
+import org.springframework.stereotype.Component;
+
+/**
+ * 청크 단위 소요 시간과 처리 건수를 기록하는 리스너
+ * <p>
+ * batch.chunk.duration: 청크 하나(읽기~커밋)의 전체 시간
+ * batch.chunk.items: 커밋된 쓰기 건수 (rate() 로 초당 처리량 확인)
+ * 아이템 단위 read/process/write 시간은 Spring Batch 기본 메트릭(spring.batch.item.*, spring.batch.chunk.write)을 사용한다.
+ */
+@Component
+@RequiredArgsConstructor
+public class ChunkMetricsListener implements ChunkListener {
+
+    private static final String START_NANOS = ChunkMetricsListener.class.getName() + ".start";
+    private static final String START_WRITE_COUNT = ChunkMetricsListener.class.getName() + ".writeCount";
+
+    private final MeterRegistry meterRegistry;
+
+    @Override
+    public void beforeChunk(ChunkContext context) {
+        context.setAttribute(START_NANOS, System.nanoTime());
+        context.setAttribute(START_WRITE_COUNT, context.getStepContext().getStepExecution().getWriteCount());
+    }
+
+    @Override
+    public void afterChunk(ChunkContext context) {
+        StepContext stepContext = context.getStepContext();
+        StepExecution stepExecution = stepContext.getStepExecution();
+
+        long elapsed = System.nanoTime() - (long) context.getAttribute(START_NANOS);
+        Timer.builder("batch.chunk.duration")
+            .description("청크 하나를 읽고 처리해 커밋하기까지 걸린 시간")
+            .tag("job", stepContext.getJobName())
+            .tag("step", stepContext.getStepName())
+            .register(meterRegistry)
+            .record(elapsed, TimeUnit.NANOSECONDS);
+
+        long written = stepExecution.getWriteCount() - (long) context.getAttribute(START_WRITE_COUNT);
+        Counter.builder("batch.chunk.items")
+            .description("커밋된 쓰기 건수")
+            .tag("job", stepContext.getJobName())
+            .tag("step", stepContext.getStepName())
+            .register(meterRegistry)
+            .increment(written);
+    }
+}
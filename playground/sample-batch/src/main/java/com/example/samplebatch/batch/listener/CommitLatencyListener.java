@@ -0,0 +1,53 @@
+package com.example.samplebatch.batch.listener;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.util.concurrent.TimeUnit;
+import lombok.RequiredArgsConstructor;
+import org.springframework.batch.core.ItemWriteListener;
+import org.springframework.batch.core.scope.context.StepContext;
+import org.springframework.batch.core.scope.context.StepSynchronizationManager;
+import org.springframework.batch.item.Chunk;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * 청크 트랜잭션의 커밋 시간(batch.chunk.commit)을 기록하는 리스너
+ * 쓰기 직후 트랜잭션 동기화를 등록해 beforeCommit ~ afterCommit 사이를 잰다.
+ */
+@Component
+@RequiredArgsConstructor
+public class CommitLatencyListener implements ItemWriteListener<Object> {
+
+    private final MeterRegistry meterRegistry;
+
+    @Override
+    public void afterWrite(Chunk<?> items) {
+        StepContext stepContext = StepSynchronizationManager.getContext();
+        if (stepContext == null || !TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+
+        Timer timer = Timer.builder("batch.chunk.commit")
+            .description("청크 트랜잭션 커밋 시간")
+            .tag("job", stepContext.getJobName())
+            .tag("step", stepContext.getStepName())
+            .register(meterRegistry);
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+
+            private long startNanos;
+
+            @Override
+            public void beforeCommit(boolean readOnly) {
+                startNanos = System.nanoTime();
+            }
+
+            @Override
+            public void afterCommit() {
+                timer.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+            }
+        });
+    }
+}
@@ -0,0 +1,66 @@
+package com.example.samplebatch.batch.listener;
+
+import com.example.samplebatch.batch.support.HighWaterMarkStore;
+import java.util.function.Supplier;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.batch.core.BatchStatus;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.JobExecutionListener;
+import org.springframework.batch.core.JobParameter;
+import org.springframework.batch.item.ExecutionContext;
+
+/**
+ * 잡 시작 시 처리할 원본 id 구간(fromId 미포함 ~ toId 포함)을 정해 잡 ExecutionContext 에 넣고,
+ * 잡이 성공하면 toId 를 다음 실행의 시작점(high-water mark)으로 저장한다.
+ * <p>
+ * incremental 이면 저장된 high-water mark 다음부터, 아니면 처음부터 읽는다.
+ * 잡 파라미터 incremental 이 있으면 생성 시 받은 값 대신 그 값을 쓴다 (예: 스케줄 실행만 증분).
+ * 재시작 시에는 이전 실행의 ExecutionContext 가 이어지므로 처음 정한 구간을 그대로 다시 처리한다.
+ */
+@Slf4j
+public class HighWaterMarkListener implements JobExecutionListener {
+
+    public static final String FROM_ID_KEY = "hwm.from";
+    public static final String TO_ID_KEY = "hwm.to";
+    public static final String INCREMENTAL_KEY = "incremental";
+
+    private final String name;
+    private final HighWaterMarkStore highWaterMarkStore;
+    private final Supplier<Long> maxIdSupplier;
+    private final boolean incremental;
+
+    public HighWaterMarkListener(String name, HighWaterMarkStore highWaterMarkStore,
+        Supplier<Long> maxIdSupplier, boolean incremental) {
+        this.name = name;
+        this.highWaterMarkStore = highWaterMarkStore;
+        this.maxIdSupplier = maxIdSupplier;
+        this.incremental = incremental;
+    }
+
+    @Override
+    public void beforeJob(JobExecution jobExecution) {
+        ExecutionContext executionContext = jobExecution.getExecutionContext();
+        if (executionContext.containsKey(TO_ID_KEY)) {
+            return;
+        }
+
+        JobParameter<?> incrementalParameter = jobExecution.getJobParameters().getParameter(INCREMENTAL_KEY);
+        boolean incremental = incrementalParameter == null
+            ? this.incremental
+            : Boolean.parseBoolean(String.valueOf(incrementalParameter.getValue()));
+        long fromId = incremental ? highWaterMarkStore.find(name) : 0L;
+        Long maxId = maxIdSupplier.get();
+        long toId = maxId == null ? fromId : Math.max(fromId, maxId);
+
+        executionContext.putLong(FROM_ID_KEY, fromId);
+        executionContext.putLong(TO_ID_KEY, toId);
+        log.info("{} 처리 구간: ({}, {}]", name, fromId, toId);
+    }
+
+    @Override
+    public void afterJob(JobExecution jobExecution) {
+        if (jobExecution.getStatus() == BatchStatus.COMPLETED) {
+            highWaterMarkStore.save(name, jobExecution.getExecutionContext().getLong(TO_ID_KEY));
+        }
+    }
+}
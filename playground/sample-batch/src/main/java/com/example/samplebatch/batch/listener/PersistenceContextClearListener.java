@@ -0,0 +1,50 @@
+package com.example.samplebatch.batch.listener;
+
+import com.example.samplebatch.config.BatchJobProperties;
+import com.example.samplebatch.config.BatchJobProperties.PersistenceMode;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.batch.core.ItemWriteListener;
+import org.springframework.batch.item.Chunk;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.orm.jpa.EntityManagerFactoryUtils;
+import org.springframework.stereotype.Component;
+
+/**
+ * 청크를 쓴 직후 datadb 영속성 컨텍스트를 비우는 리스너
+ * <p>
+ * CLEAR: 변경 내용을 flush 한 뒤 clear
+ * STATELESS: 쓰기는 StatelessSession 으로 이미 끝났으므로 flush 없이 clear (읽으면서 붙은 엔티티만 버린다)
+ * 청크 크기가 커져도 영속성 컨텍스트에 엔티티와 스냅샷이 쌓이지 않고, 커밋 시 dirty checking 할 대상도 없다.
+ */
+@Component
+public class PersistenceContextClearListener implements ItemWriteListener<Object> {
+
+    private final EntityManagerFactory entityManagerFactory;
+    private final PersistenceMode persistenceMode;
+
+    public PersistenceContextClearListener(
+        @Qualifier("dataDbManagerFactory") EntityManagerFactory entityManagerFactory,
+        BatchJobProperties batchJobProperties) {
+        this.entityManagerFactory = entityManagerFactory;
+        this.persistenceMode = batchJobProperties.getJpa().getPersistenceMode();
+    }
+
+    @Override
+    public void afterWrite(Chunk<?> items) {
+        if (persistenceMode == PersistenceMode.DEFAULT) {
+            return;
+        }
+
+        // 청크 트랜잭션에 묶인 EntityManager 가 없으면 (다른 트랜잭션 매니저로 실행 중) 비울 것도 없다
+        EntityManager entityManager = EntityManagerFactoryUtils.getTransactionalEntityManager(entityManagerFactory);
+        if (entityManager == null) {
+            return;
+        }
+
+        if (persistenceMode == PersistenceMode.CLEAR) {
+            entityManager.flush();
+        }
+        entityManager.clear();
+    }
+}
@@ -0,0 +1,56 @@
+package com.example.samplebatch.batch.partition;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+import org.springframework.batch.core.partition.support.Partitioner;
+import org.springframework.batch.item.ExecutionContext;
+
+/**
+ * id 최소~최대 구간을 gridSize 개의 연속 범위로 나누는 파티셔너
+ * <p>
+ * 각 파티션의 ExecutionContext 에 minId(미포함), maxId(포함)를 넣는다.
+ * 재시작 시에는 이전 파티션의 ExecutionContext 가 그대로 쓰이므로 파티션별로 이어서 처리된다.
+ */
+public class IdRangePartitioner implements Partitioner {
+
+    public static final String MIN_ID_KEY = "minId";
+    public static final String MAX_ID_KEY = "maxId";
+
+    private final Supplier<Long> minIdSupplier;
+    private final Supplier<Long> maxIdSupplier;
+
+    public IdRangePartitioner(Supplier<Long> minIdSupplier, Supplier<Long> maxIdSupplier) {
+        this.minIdSupplier = minIdSupplier;
+        this.maxIdSupplier = maxIdSupplier;
+    }
+
+    @Override
+    public Map<String, ExecutionContext> partition(int gridSize) {
+        Long min = minIdSupplier.get();
+        Long max = maxIdSupplier.get();
+
+        Map<String, ExecutionContext> partitions = new HashMap<>();
+        if (min == null || max == null || min > max) {
+            // 데이터가 없으면 아무것도 읽지 않는 파티션 하나만 생성
+            partitions.put("partition0", range(0L, 0L));
+            return partitions;
+        }
+
+        long size = (max - min) / gridSize + 1;
+        long from = min;
+        for (int i = 0; i < gridSize && from <= max; i++) {
+            long to = Math.min(from + size - 1, max);
+            partitions.put("partition" + i, range(from - 1, to));
+            from = to + 1;
+        }
+        return partitions;
+    }
+
+    private ExecutionContext range(long minId, long maxId) {
+        ExecutionContext context = new ExecutionContext();
+        context.putLong(MIN_ID_KEY, minId);
+        context.putLong(MAX_ID_KEY, maxId);
+        return context;
+    }
+}
@@ -0,0 +1,169 @@
+package com.example.samplebatch.batch.reader;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.IntSupplier;
+import java.util.function.Supplier;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.batch.item.ItemStreamException;
+import org.springframework.batch.item.ItemStreamReader;
+import org.springframework.batch.item.ItemStreamSupport;
+import org.springframework.data.domain.Limit;
+
+/**
+ * id 키셋 기반 리더 (WHERE id > :lastId ORDER BY id LIMIT n)
+ * <p>
+ * OFFSET 을 쓰지 않으므로 테이블이 커져도 페이지당 조회 비용이 일정하다.
+ * 마지막으로 반환한 id 를 ExecutionContext 에 저장하고, 재시작 시 그 다음 id 부터 읽는다.
+ * 스레드 세이프하지 않으므로 스텝(파티션)마다 별도 인스턴스를 사용한다.
+ * 페이지 조회 시간은 batch.reader.page 타이머로 기록한다.
+ */
+public class KeysetItemReader<T> extends ItemStreamSupport implements ItemStreamReader<T> {
+
+    private static final String LAST_ID_KEY = "last.id";
+    private static final String MAX_ID_KEY = "max.id";
+
+    private final KeysetQuery<T> query;
+    private final Function<T, Long> idExtractor;
+    private final int pageSize;
+    private IntSupplier pageSizeSupplier;
+
+    private long minId = 0L;
+    private long maxId = Long.MAX_VALUE;
+    private Supplier<Long> maxIdSupplier;
+    private MeterRegistry meterRegistry = Metrics.globalRegistry;
+    private Timer pageTimer;
+    private String readerName = getClass().getSimpleName();
+
+    private final Deque<T> buffer = new ArrayDeque<>();
+    private long lastReadId;
+    private long lastFetchedId;
+    private boolean exhausted;
+
+    public KeysetItemReader(KeysetQuery<T> query, Function<T, Long> idExtractor, int pageSize) {
+        this.query = query;
+        this.idExtractor = idExtractor;
+        this.pageSize = pageSize;
+    }
+
+    @Override
+    public void setName(String name) {
+        super.setName(name);
+        this.pageTimer = null;
+        this.readerName = name;
+    }
+
+    public void setMeterRegistry(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+        this.pageTimer = null;
+    }
+
+    /**
+     * 페이지마다 조회할 건수를 정하는 함수 (지정하면 생성자의 pageSize 대신 사용)
+     * 청크 크기가 실행 중 바뀔 때 페이지 크기를 맞추는 용도
+     */
+    public void setPageSizeSupplier(IntSupplier pageSizeSupplier) {
+        this.pageSizeSupplier = pageSizeSupplier;
+    }
+
+    /**
+     * 읽기 시작 id (이 값은 포함하지 않음)
+     */
+    public void setMinId(long minId) {
+        this.minId = minId;
+    }
+
+    /**
+     * 읽기 종료 id (이 값까지 포함)
+     */
+    public void setMaxId(long maxId) {
+        this.maxId = maxId;
+    }
+
+    /**
+     * 스텝 시작 시점의 상한 id 를 조회하는 함수
+     * 처음 open 할 때 한 번만 호출해 ExecutionContext 에 저장하므로, 실행 중 추가된 행은 읽지 않고
+     * 재시작해도 같은 상한으로 이어서 읽는다.
+     */
+    public void setMaxIdSupplier(Supplier<Long> maxIdSupplier) {
+        this.maxIdSupplier = maxIdSupplier;
+    }
+
+    @Override
+    public void open(ExecutionContext executionContext) throws ItemStreamException {
+        String key = getExecutionContextKey(LAST_ID_KEY);
+        lastReadId = executionContext.containsKey(key) ? executionContext.getLong(key) : minId;
+
+        String maxKey = getExecutionContextKey(MAX_ID_KEY);
+        if (executionContext.containsKey(maxKey)) {
+            maxId = executionContext.getLong(maxKey);
+        } else if (maxIdSupplier != null) {
+            Long captured = maxIdSupplier.get();
+            maxId = captured == null ? minId : captured;
+        }
+
+        lastFetchedId = lastReadId;
+        buffer.clear();
+        exhausted = false;
+
+        if (pageTimer == null) {
+            pageTimer = Timer.builder("batch.reader.page")
+                .description("키셋 페이지 조회 시간")
+                .tag("reader", readerName)
+                .register(meterRegistry);
+        }
+    }
+
+    @Override
+    public T read() throws Exception {
+        if (buffer.isEmpty() && !exhausted) {
+            fetchNextPage();
+        }
+
+        T item = buffer.poll();
+        if (item == null) {
+            return null;
+        }
+
+        lastReadId = idExtractor.apply(item);
+        return item;
+    }
+
+    private void fetchNextPage() {
+        int size = pageSizeSupplier != null ? pageSizeSupplier.getAsInt() : pageSize;
+        List<T> page = pageTimer.record(() -> query.findPage(lastFetchedId, maxId, Limit.of(size)));
+        if (page.size() < size) {
+            exhausted = true;
+        }
+        if (!page.isEmpty()) {
+            lastFetchedId = idExtractor.apply(page.get(page.size() - 1));
+            buffer.addAll(page);
+        }
+    }
+
+    @Override
+    public void update(ExecutionContext executionContext) throws ItemStreamException {
+        // 프리패치된 id 가 아니라 실제로 반환(커밋 대상)된 마지막 id 를 저장
+        executionContext.putLong(getExecutionContextKey(LAST_ID_KEY), lastReadId);
+        executionContext.putLong(getExecutionContextKey(MAX_ID_KEY), maxId);
+    }
+
+    @Override
+    public void close() throws ItemStreamException {
+        buffer.clear();
+    }
+
+    /**
+     * lastId 초과 ~ maxId 이하 범위를 id 오름차순으로 limit 건 조회하는 쿼리
+     */
+    @FunctionalInterface
+    public interface KeysetQuery<T> {
+
+        List<T> findPage(Long lastId, Long maxId, Limit limit);
+    }
+}
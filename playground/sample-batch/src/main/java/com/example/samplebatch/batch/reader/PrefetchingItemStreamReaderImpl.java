@@ -0,0 +1,108 @@
+package com.example.samplebatch.batch.reader;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.batch.item.ItemStreamException;
+import org.springframework.batch.item.ItemStreamReader;
+import org.springframework.web.client.RestTemplate;
+
+/**
+ * CustomItemStreamReaderImpl 의 프리패치 버전
+ * <p>
+ * 다음 windowSize 개 id 에 대한 요청을 가상 스레드에서 미리 보내 두고, 응답은 id 순서대로 반환한다.
+ * 체크포인트(current.call.id)는 미리 받아 둔 id 가 아니라 실제로 반환한 마지막 id 이므로,
+ * 재시작하면 마지막 커밋 지점 다음 id 부터 다시 요청한다.
+ */
+public class PrefetchingItemStreamReaderImpl implements ItemStreamReader<String> {
+
+    private final RestTemplate restTemplate;
+    private final String apiUrl;
+    private final int windowSize;
+    private final String CURRENT_ID_KEY = "current.call.id";
+
+    private final Deque<CompletableFuture<String>> window = new ArrayDeque<>();
+    private ExecutorService executor;
+    private int currentId;
+    private int nextRequestId;
+    private boolean exhausted;
+
+    public PrefetchingItemStreamReaderImpl(RestTemplate restTemplate, int windowSize) {
+        this(restTemplate, "https://www.devyummi.com/page?id=", windowSize);
+    }
+
+    public PrefetchingItemStreamReaderImpl(RestTemplate restTemplate, String apiUrl, int windowSize) {
+        this.currentId = 0;
+        this.restTemplate = restTemplate;
+        this.apiUrl = apiUrl;
+        this.windowSize = windowSize;
+    }
+
+    @Override
+    public void open(ExecutionContext executionContext) throws ItemStreamException {
+        if (executionContext.containsKey(CURRENT_ID_KEY)) {
+            currentId = executionContext.getInt(CURRENT_ID_KEY);
+        }
+        nextRequestId = currentId + 1;
+        exhausted = false;
+        executor = Executors.newVirtualThreadPerTaskExecutor();
+    }
+
+    @Override
+    public String read() throws Exception {
+        if (exhausted) {
+            return null;
+        }
+
+        fillWindow();
+
+        // 창의 맨 앞은 항상 currentId + 1 에 대한 요청이다
+        String response;
+        try {
+            response = window.poll().get();
+        } catch (ExecutionException e) {
+            // 같은 id 부터 다시 요청할 수 있도록 미리 보낸 요청을 버린다
+            resetWindow();
+            throw e.getCause() instanceof Exception cause ? cause : e;
+        }
+
+        if (response == null) {
+            exhausted = true;
+            resetWindow();
+            return null;
+        }
+
+        currentId++;
+        return response;
+    }
+
+    private void fillWindow() {
+        while (window.size() < windowSize) {
+            String url = apiUrl + nextRequestId++;
+            window.add(CompletableFuture.supplyAsync(() -> restTemplate.getForObject(url, String.class), executor));
+        }
+    }
+
+    private void resetWindow() {
+        window.forEach(future -> future.cancel(true));
+        window.clear();
+        nextRequestId = currentId + 1;
+    }
+
+    @Override
+    public void update(ExecutionContext executionContext) throws ItemStreamException {
+        executionContext.putInt(CURRENT_ID_KEY, currentId);
+    }
+
+    @Override
+    public void close() throws ItemStreamException {
+        resetWindow();
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+}
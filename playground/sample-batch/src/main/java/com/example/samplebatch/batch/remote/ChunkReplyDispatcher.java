@@ -0,0 +1,52 @@
+package com.example.samplebatch.batch.remote;
+
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.integration.chunk.ChunkResponse;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageHandler;
+
+/**
+ * 공유 응답 채널로 들어온 ChunkResponse 를 보낸 스텝 실행(jobExecutionId + stepExecutionId)의 큐로 나눠 준다
+ * <p>
+ * 같은 잡이 동시에 여러 번 실행되어도 각 매니저 writer 는 자기 스텝 실행의 응답만 받는다.
+ * 등록되지 않은(이미 끝난) 스텝 실행의 늦은 응답은 버린다.
+ */
+@Slf4j
+public class ChunkReplyDispatcher implements MessageHandler {
+
+    private final Map<ReplyKey, BlockingQueue<ChunkResponse>> queues = new ConcurrentHashMap<>();
+
+    public BlockingQueue<ChunkResponse> register(StepExecution stepExecution) {
+        BlockingQueue<ChunkResponse> queue = new LinkedBlockingQueue<>();
+        queues.put(ReplyKey.of(stepExecution), queue);
+        return queue;
+    }
+
+    public void unregister(StepExecution stepExecution) {
+        queues.remove(ReplyKey.of(stepExecution));
+    }
+
+    @Override
+    public void handleMessage(Message<?> message) {
+        ChunkResponse response = (ChunkResponse) message.getPayload();
+        StepExecution stepExecution = response.getStepContribution().getStepExecution();
+        BlockingQueue<ChunkResponse> queue = queues.get(new ReplyKey(response.getJobId(), stepExecution.getId()));
+        if (queue == null) {
+            log.debug("끝난 스텝 실행의 늦은 응답 무시: {}", response);
+            return;
+        }
+        queue.add(response);
+    }
+
+    private record ReplyKey(Long jobExecutionId, Long stepExecutionId) {
+
+        static ReplyKey of(StepExecution stepExecution) {
+            return new ReplyKey(stepExecution.getJobExecutionId(), stepExecution.getId());
+        }
+    }
+}
@@ -0,0 +1,206 @@
+package com.example.samplebatch.batch.remote;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.batch.core.BatchStatus;
+import org.springframework.batch.core.ExitStatus;
+import org.springframework.batch.core.StepContribution;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.StepExecutionListener;
+import org.springframework.batch.integration.chunk.AsynchronousFailureException;
+import org.springframework.batch.integration.chunk.ChunkRequest;
+import org.springframework.batch.integration.chunk.ChunkResponse;
+import org.springframework.batch.item.Chunk;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.batch.item.ItemStream;
+import org.springframework.batch.item.ItemWriter;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.support.MessageBuilder;
+
+/**
+ * 원격 청킹 매니저 쪽 writer
+ * <p>
+ * 청크를 ChunkRequest 로 요청 채널에 보내고 바로 반환한다. 응답을 기다리는 청크는 throttleLimit 개까지만 두고,
+ * 그 이상이면 응답이 올 때까지 기다리므로 워커 수만큼 청크가 동시에 처리된다.
+ * 워커가 실패 응답을 보내면 보냈던 청크를 retryLimit 번까지 다시 보내고, 그래도 실패하면 스텝을 실패시킨다.
+ * 스텝이 끝날 때(afterStep) 남은 응답을 모두 기다린다.
+ * <p>
+ * 응답은 ChunkReplyDispatcher 가 jobExecutionId + stepExecutionId 로 나눠 주므로 동시에 실행된 다른 잡의 응답을 가져가지 않는다.
+ * 성공 응답의 StepContribution(워커의 쓰기/필터 건수)을 모아 두었다가 스텝이 끝날 때 매니저 스텝 실행에 반영한다.
+ * (매니저는 보낸 건수를 쓰기 건수로 세므로, 진행 중에는 보낸 건수이고 끝나면 워커가 실제로 쓴 건수가 된다)
+ * <p>
+ * 매니저의 청크 커밋은 워커 응답보다 먼저 일어나므로, reader 체크포인트를 그대로 저장하면 나중에 실패한 청크를
+ * 재시작 때 건너뛴다. 그래서 ItemStream 으로 reader 다음에 update 를 받아, 응답을 다 받은 청크까지의 체크포인트로
+ * 되돌려 저장한다. 재시작하면 응답을 못 받은 청크부터 다시 읽어 보낸다 (워커 writer 가 멱등이어야 한다).
+ * <p>
+ * Spring Batch 의 ChunkMessageChannelItemWriter 는 실패 응답을 받으면 예외만 던지고 해당 청크를 다시 보내지 않아
+ * 보낸 청크를 응답이 올 때까지 들고 있는 방식으로 따로 구현했다.
+ */
+@Slf4j
+public class RetryingChunkMessageChannelItemWriter<T> implements ItemWriter<T>, ItemStream, StepExecutionListener {
+
+    private final MessageChannel requestChannel;
+    private final ChunkReplyDispatcher replyDispatcher;
+    private final int throttleLimit;
+    private final int retryLimit;
+    private final long replyTimeoutMillis;
+
+    private final Map<Integer, InFlight<T>> inFlight = new LinkedHashMap<>();
+    private final NavigableMap<Integer, ExecutionContext> checkpoints = new TreeMap<>();
+    private StepExecution stepExecution;
+    private StepContribution workerContribution;
+    private BlockingQueue<ChunkResponse> replies;
+    private int sequence;
+
+    public RetryingChunkMessageChannelItemWriter(MessageChannel requestChannel, ChunkReplyDispatcher replyDispatcher,
+        int throttleLimit, int retryLimit, Duration replyTimeout) {
+        this.requestChannel = requestChannel;
+        this.replyDispatcher = replyDispatcher;
+        this.throttleLimit = Math.max(1, throttleLimit);
+        this.retryLimit = retryLimit;
+        this.replyTimeoutMillis = replyTimeout.toMillis();
+    }
+
+    @Override
+    public void beforeStep(StepExecution stepExecution) {
+        this.stepExecution = stepExecution;
+        this.workerContribution = new StepContribution(stepExecution);
+        this.replies = replyDispatcher.register(stepExecution);
+        this.sequence = 0;
+        this.inFlight.clear();
+        this.checkpoints.clear();
+    }
+
+    /**
+     * 재시작 위치(처음 실행이면 빈 상태)를 아직 아무 청크도 확인되지 않았을 때의 체크포인트로 둔다
+     */
+    @Override
+    public void open(ExecutionContext executionContext) {
+        checkpoints.put(-1, new ExecutionContext(executionContext));
+    }
+
+    /**
+     * reader 가 방금 쓴 체크포인트를 마지막으로 보낸 청크의 것으로 기억해 두고,
+     * 저장될 ExecutionContext 는 응답을 다 받은 청크까지의 체크포인트로 바꾼다
+     */
+    @Override
+    public void update(ExecutionContext executionContext) {
+        checkpoints.put(sequence - 1, new ExecutionContext(executionContext));
+
+        int acknowledged = inFlight.isEmpty() ? sequence - 1 : inFlight.keySet().iterator().next() - 1;
+        checkpoints.headMap(checkpoints.floorKey(acknowledged), false).clear();
+        ExecutionContext checkpoint = checkpoints.floorEntry(acknowledged).getValue();
+
+        List<String> newerKeys = executionContext.entrySet().stream()
+            .map(Map.Entry::getKey)
+            .filter(key -> !checkpoint.containsKey(key))
+            .toList();
+        newerKeys.forEach(executionContext::remove);
+        checkpoint.entrySet().forEach(entry -> executionContext.put(entry.getKey(), entry.getValue()));
+    }
+
+    @Override
+    public void write(Chunk<? extends T> chunk) {
+        InFlight<T> request = new InFlight<>(sequence++, new Chunk<>(chunk.getItems()));
+        inFlight.put(request.sequence, request);
+        send(request);
+
+        while (inFlight.size() >= throttleLimit) {
+            receive();
+        }
+    }
+
+    @Override
+    public ExitStatus afterStep(StepExecution stepExecution) {
+        try {
+            if (stepExecution.getStatus() != BatchStatus.COMPLETED) {
+                return null;
+            }
+
+            while (!inFlight.isEmpty()) {
+                receive();
+            }
+        } catch (AsynchronousFailureException e) {
+            stepExecution.setStatus(BatchStatus.FAILED);
+            stepExecution.addFailureException(e);
+            return ExitStatus.FAILED.addExitDescription(e);
+        } finally {
+            replyDispatcher.unregister(stepExecution);
+            applyWorkerContribution(stepExecution);
+        }
+        return null;
+    }
+
+    /**
+     * 응답을 받은 청크의 워커 건수로 쓰기/필터 건수를 맞춘다
+     */
+    private void applyWorkerContribution(StepExecution stepExecution) {
+        stepExecution.setWriteCount(workerContribution.getWriteCount());
+        stepExecution.setFilterCount(stepExecution.getFilterCount() + workerContribution.getFilterCount());
+    }
+
+    /**
+     * 워커의 청크 처리기는 쓰기에 실패하면 받은 Chunk 를 비우므로, 같은 JVM 워커에도 재전송할 수 있게 보낼 때마다 복사한다
+     */
+    private void send(InFlight<T> request) {
+        ChunkRequest<T> chunkRequest = new ChunkRequest<>(request.sequence, new Chunk<>(request.items.getItems()),
+            stepExecution.getJobExecutionId(), stepExecution.createStepContribution());
+        requestChannel.send(MessageBuilder.withPayload(chunkRequest).build());
+    }
+
+    private void receive() {
+        ChunkResponse response;
+        try {
+            response = replies.poll(replyTimeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new AsynchronousFailureException("워커 응답 대기 중 인터럽트", e);
+        }
+        if (response == null) {
+            throw new AsynchronousFailureException(
+                "워커 응답 대기 시간 초과: " + inFlight.size() + "개 청크 응답 없음");
+        }
+
+        InFlight<T> request = inFlight.get(response.getSequence());
+        if (request == null) {
+            // 이미 처리한 재시도의 늦은 응답
+            return;
+        }
+
+        if (response.isSuccessful()) {
+            inFlight.remove(response.getSequence());
+            StepContribution contribution = response.getStepContribution();
+            workerContribution.incrementWriteCount(contribution.getWriteCount());
+            workerContribution.incrementFilterCount(contribution.getFilterCount());
+            return;
+        }
+
+        if (request.attempts >= retryLimit) {
+            throw new AsynchronousFailureException(
+                "청크 " + request.sequence + " 가 " + (request.attempts + 1) + "번 실패: " + response.getMessage());
+        }
+
+        request.attempts++;
+        log.warn("청크 {} 실패, 재전송 {}/{}: {}", request.sequence, request.attempts, retryLimit, response.getMessage());
+        send(request);
+    }
+
+    private static class InFlight<T> {
+
+        private final int sequence;
+        private final Chunk<T> items;
+        private int attempts;
+
+        InFlight(int sequence, Chunk<T> items) {
+            this.sequence = sequence;
+            this.items = items;
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.example.samplebatch.batch.support;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.batch.core.ChunkListener;
+import org.springframework.batch.core.scope.context.ChunkContext;
+import org.springframework.batch.repeat.policy.SimpleCompletionPolicy;
+
+/**
+ * 청크 처리 시간이 목표 커밋 간격에 가까워지도록 청크 크기를 실행 중에 조정하는 완료 정책
+ * <p>
+ * 청크가 끝날 때마다 (목표 시간 / 실제 시간) 비율로 다음 청크 크기를 정하되, 한 번에 1/2 ~ 2배까지만 바꾸고
+ * minSize ~ maxSize 범위를 벗어나지 않는다. 사용한 청크 크기는 batch.chunk.size 로 기록한다.
+ * 청크 사이에만 크기가 바뀌므로 스텝 실행마다(@StepScope) 하나씩 사용한다.
+ */
+@Slf4j
+public class AdaptiveChunkCompletionPolicy extends SimpleCompletionPolicy implements ChunkListener {
+
+    private static final String START_NANOS = AdaptiveChunkCompletionPolicy.class.getName() + ".start";
+
+    private final int minSize;
+    private final int maxSize;
+    private final long targetNanos;
+    private final MeterRegistry meterRegistry;
+
+    private volatile int currentChunkSize;
+
+    public AdaptiveChunkCompletionPolicy(int initialSize, int minSize, int maxSize, Duration targetLatency,
+        MeterRegistry meterRegistry) {
+        this.minSize = minSize;
+        this.maxSize = maxSize;
+        this.targetNanos = targetLatency.toNanos();
+        this.meterRegistry = meterRegistry;
+        resize(clamp(initialSize));
+    }
+
+    /**
+     * 다음 청크에 사용할 크기 (리더 페이지 크기도 이 값을 따른다)
+     */
+    public int getCurrentChunkSize() {
+        return currentChunkSize;
+    }
+
+    @Override
+    public void beforeChunk(ChunkContext context) {
+        context.setAttribute(START_NANOS, System.nanoTime());
+    }
+
+    @Override
+    public void afterChunk(ChunkContext context) {
+        Object start = context.getAttribute(START_NANOS);
+        if (start == null) {
+            return;
+        }
+
+        int size = currentChunkSize;
+        DistributionSummary.builder("batch.chunk.size")
+            .description("청크 크기")
+            .tag("job", context.getStepContext().getJobName())
+            .tag("step", context.getStepContext().getStepName())
+            .register(meterRegistry)
+            .record(size);
+
+        long elapsed = System.nanoTime() - (long) start;
+        if (minSize >= maxSize || elapsed <= 0) {
+            return;
+        }
+
+        double ratio = Math.max(0.5, Math.min(2.0, (double) targetNanos / elapsed));
+        int next = clamp((int) Math.round(size * ratio));
+        if (next != size) {
+            log.debug("청크 크기 조정: {} -> {} ({}ms)", size, next, elapsed / 1_000_000);
+            resize(next);
+        }
+    }
+
+    private void resize(int size) {
+        currentChunkSize = size;
+        setChunkSize(size);
+    }
+
+    private int clamp(int size) {
+        return Math.max(minSize, Math.min(maxSize, size));
+    }
+}
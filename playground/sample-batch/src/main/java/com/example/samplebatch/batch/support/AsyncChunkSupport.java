@@ -0,0 +1,34 @@
+package com.example.samplebatch.batch.support;
+
+import java.util.concurrent.Future;
+import org.springframework.batch.integration.async.AsyncItemProcessor;
+import org.springframework.batch.integration.async.AsyncItemWriter;
+import org.springframework.batch.item.ItemProcessor;
+import org.springframework.batch.item.ItemWriter;
+import org.springframework.core.task.TaskExecutor;
+
+/**
+ * 기존 ItemProcessor/ItemWriter 를 비동기 처리 단계로 감싸는 헬퍼
+ * <p>
+ * 청크의 각 아이템 process 를 TaskExecutor 에서 동시에 실행하고, 쓰기 단계에서 Future 를 읽은 순서대로 풀어
+ * 위임 writer 에 넘긴다. 동시 실행 수는 TaskExecutor 의 동시성 제한으로 묶는다.
+ */
+public final class AsyncChunkSupport {
+
+    private AsyncChunkSupport() {
+    }
+
+    public static <I, O> ItemProcessor<I, Future<O>> asyncProcessor(ItemProcessor<I, O> delegate,
+        TaskExecutor taskExecutor) {
+        AsyncItemProcessor<I, O> processor = new AsyncItemProcessor<>();
+        processor.setDelegate(delegate);
+        processor.setTaskExecutor(taskExecutor);
+        return processor;
+    }
+
+    public static <O> ItemWriter<Future<O>> asyncWriter(ItemWriter<O> delegate) {
+        AsyncItemWriter<O> writer = new AsyncItemWriter<>();
+        writer.setDelegate(delegate);
+        return writer;
+    }
+}
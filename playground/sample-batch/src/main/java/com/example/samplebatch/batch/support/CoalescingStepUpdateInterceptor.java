@@ -0,0 +1,72 @@
+package com.example.samplebatch.batch.support;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.batch.core.BatchStatus;
+import org.springframework.batch.core.StepExecution;
+
+/**
+ * JobRepository 의 청크별 스텝 메타데이터 저장을 묶어 주는 인터셉터
+ * <p>
+ * 스텝이 STARTED 인 동안 update(StepExecution), updateExecutionContext(StepExecution) 호출은
+ * 첫 호출, flushEvery 번째 호출, flushInterval 경과 시에만 실제로 저장하고 나머지는 건너뛴다.
+ * 스텝이 끝나면(COMPLETED, FAILED, STOPPED 등) 항상 저장하므로 최종 건수와 상태는 그대로 남는다.
+ * <p>
+ * 건너뛴 동안은 메타 DB 의 체크포인트가 최대 flushEvery 청크만큼 뒤처지므로, 비정상 종료 후 재시작하면
+ * 그 청크들을 다시 처리한다 (writer 가 멱등이어야 한다). 외부에서 요청한 중지도 다음 저장 시점에 감지된다.
+ */
+public class CoalescingStepUpdateInterceptor implements MethodInterceptor {
+
+    private final int flushEvery;
+    private final long flushIntervalNanos;
+    private final Map<String, Counter> counters = new ConcurrentHashMap<>();
+
+    public CoalescingStepUpdateInterceptor(int flushEvery, Duration flushInterval) {
+        this.flushEvery = Math.max(1, flushEvery);
+        this.flushIntervalNanos = flushInterval.toNanos();
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        String method = invocation.getMethod().getName();
+        Object[] arguments = invocation.getArguments();
+        boolean stepUpdate = ("update".equals(method) || "updateExecutionContext".equals(method))
+            && arguments.length == 1 && arguments[0] instanceof StepExecution;
+
+        if (!stepUpdate) {
+            return invocation.proceed();
+        }
+
+        StepExecution stepExecution = (StepExecution) arguments[0];
+        String key = method + ":" + stepExecution.getId();
+
+        if (stepExecution.getStatus() != BatchStatus.STARTED) {
+            counters.remove(key);
+            return invocation.proceed();
+        }
+
+        if (counters.computeIfAbsent(key, k -> new Counter()).shouldFlush()) {
+            return invocation.proceed();
+        }
+        return null;
+    }
+
+    private class Counter {
+
+        private int calls;
+        private long lastFlushNanos;
+
+        synchronized boolean shouldFlush() {
+            long now = System.nanoTime();
+            boolean flush = calls == 0 || (calls % flushEvery) == 0 || now - lastFlushNanos >= flushIntervalNanos;
+            calls++;
+            if (flush) {
+                lastFlushNanos = now;
+            }
+            return flush;
+        }
+    }
+}
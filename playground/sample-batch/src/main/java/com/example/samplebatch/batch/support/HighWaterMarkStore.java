@@ -0,0 +1,44 @@
+package com.example.samplebatch.batch.support;
+
+import java.util.List;
+import javax.sql.DataSource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * 잡별로 마지막까지 처리한 원본 id(high-water mark)를 메타 DB 에 저장
+ * (테이블은 schema/batch-support-h2.sql 에서 생성)
+ */
+@Component
+public class HighWaterMarkStore {
+
+    private static final String UPSERT_SQL = """
+        MERGE INTO BATCH_HIGH_WATER_MARK T
+        USING (VALUES (?, ?)) S (NAME, LAST_ID)
+        ON T.NAME = S.NAME
+        WHEN MATCHED THEN UPDATE SET LAST_ID = S.LAST_ID
+        WHEN NOT MATCHED THEN INSERT (NAME, LAST_ID) VALUES (S.NAME, S.LAST_ID)
+        """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public HighWaterMarkStore(DataSource metaDbSource) {
+        this.jdbcTemplate = new JdbcTemplate(metaDbSource);
+    }
+
+    /**
+     * 저장된 값이 없으면 0 (처음부터)
+     */
+    public long find(String name) {
+        List<Long> lastIds = jdbcTemplate.queryForList(
+            "SELECT LAST_ID FROM BATCH_HIGH_WATER_MARK WHERE NAME = ?", Long.class, name);
+        return lastIds.isEmpty() ? 0L : lastIds.get(0);
+    }
+
+    /**
+     * 표준 SQL MERGE 한 문장으로 저장해 UPDATE 후 INSERT 사이에 다른 실행이 끼어드는 경합이 없다
+     */
+    public void save(String name, long lastId) {
+        jdbcTemplate.update(UPSERT_SQL, name, lastId);
+    }
+}
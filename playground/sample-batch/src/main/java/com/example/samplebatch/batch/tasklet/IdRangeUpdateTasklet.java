@@ -0,0 +1,81 @@
+package com.example.samplebatch.batch.tasklet;
+
+import java.util.Map;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.batch.core.StepContribution;
+import org.springframework.batch.core.scope.context.ChunkContext;
+import org.springframework.batch.core.step.tasklet.Tasklet;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.batch.repeat.RepeatStatus;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+/**
+ * id 구간마다 UPDATE 문 하나를 실행하는 집합 기반 태스크릿
+ * <p>
+ * 행을 JVM 으로 읽어오지 않고 DB 에서 바로 갱신한다. execute 한 번이 한 구간(트랜잭션 하나)이며,
+ * 처리한 마지막 id 와 시작 시점의 상한 id 를 ExecutionContext 에 저장해 재시작 시 다음 구간부터 이어간다.
+ * 첫 구간은 대상 행의 최소 id 부터 시작해, id 가 크거나 듬성한 테이블에서 빈 구간을 UPDATE 하지 않는다.
+ * 갱신된 행 수는 StepExecution 의 writeCount 로 집계된다.
+ * <p>
+ * updateSql 은 :fromId, :toId 파라미터(양 끝 포함)를 사용해야 한다.
+ * minIdSql, maxIdSql 은 updateSql 과 같은 조건으로 대상 행의 최소/최대 id 를 조회해야 한다.
+ */
+@Slf4j
+public class IdRangeUpdateTasklet implements Tasklet {
+
+    private static final String LAST_ID_KEY = "idRangeUpdate.last.id";
+    private static final String MAX_ID_KEY = "idRangeUpdate.max.id";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final String updateSql;
+    private final String minIdSql;
+    private final String maxIdSql;
+    private final Map<String, Object> parameters;
+    private final long rangeSize;
+
+    public IdRangeUpdateTasklet(NamedParameterJdbcTemplate jdbcTemplate, String updateSql, String minIdSql,
+        String maxIdSql, Map<String, Object> parameters, long rangeSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.updateSql = updateSql;
+        this.minIdSql = minIdSql;
+        this.maxIdSql = maxIdSql;
+        this.parameters = parameters;
+        this.rangeSize = rangeSize;
+    }
+
+    @Override
+    public RepeatStatus execute(StepContribution contribution, ChunkContext chunkContext) throws Exception {
+        ExecutionContext executionContext = chunkContext.getStepContext().getStepExecution().getExecutionContext();
+
+        // 상한은 첫 실행 때 한 번만 잡아 두고, 이후 추가된 행은 다음 실행에서 처리한다
+        if (!executionContext.containsKey(MAX_ID_KEY)) {
+            Long maxId = jdbcTemplate.queryForObject(maxIdSql, parameters, Long.class);
+            executionContext.putLong(MAX_ID_KEY, maxId == null ? 0L : maxId);
+        }
+        // 하한도 첫 실행 때 한 번만 잡아 첫 구간을 최소 id 부터 시작한다
+        if (!executionContext.containsKey(LAST_ID_KEY)) {
+            Long minId = jdbcTemplate.queryForObject(minIdSql, parameters, Long.class);
+            executionContext.putLong(LAST_ID_KEY, minId == null ? 0L : minId - 1);
+        }
+
+        long maxId = executionContext.getLong(MAX_ID_KEY);
+        long lastId = executionContext.getLong(LAST_ID_KEY);
+        if (lastId >= maxId) {
+            return RepeatStatus.FINISHED;
+        }
+
+        long toId = Math.min(lastId + rangeSize, maxId);
+        MapSqlParameterSource params = new MapSqlParameterSource(parameters)
+            .addValue("fromId", lastId + 1)
+            .addValue("toId", toId);
+
+        int updated = jdbcTemplate.update(updateSql, params);
+        contribution.incrementWriteCount(updated);
+        executionContext.putLong(LAST_ID_KEY, toId);
+
+        log.info("id 구간 갱신 완료: {} ~ {}, {}건", lastId + 1, toId, updated);
+
+        return toId >= maxId ? RepeatStatus.FINISHED : RepeatStatus.CONTINUABLE;
+    }
+}
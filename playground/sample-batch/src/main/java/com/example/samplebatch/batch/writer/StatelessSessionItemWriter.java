@@ -0,0 +1,46 @@
+package com.example.samplebatch.batch.writer;
+
+import jakarta.persistence.EntityManagerFactory;
+import java.sql.Connection;
+import javax.sql.DataSource;
+import org.hibernate.SessionFactory;
+import org.hibernate.StatelessSession;
+import org.springframework.batch.item.Chunk;
+import org.springframework.batch.item.ItemWriter;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+
+/**
+ * Hibernate StatelessSession 으로 청크를 쓰는 ItemWriter
+ * <p>
+ * 영속성 컨텍스트, 스냅샷, dirty checking 없이 insert/update 가 바로 SQL 로 나간다.
+ * 청크 트랜잭션(JpaTransactionManager)이 잡고 있는 JDBC 커넥션을 그대로 쓰므로 같은 트랜잭션으로 커밋/롤백된다.
+ */
+public class StatelessSessionItemWriter<T> implements ItemWriter<T> {
+
+    private final SessionFactory sessionFactory;
+    private final DataSource dataSource;
+    private final ChunkWriter<T> chunkWriter;
+
+    public StatelessSessionItemWriter(EntityManagerFactory entityManagerFactory, DataSource dataSource,
+        ChunkWriter<T> chunkWriter) {
+        this.sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+        this.dataSource = dataSource;
+        this.chunkWriter = chunkWriter;
+    }
+
+    @Override
+    public void write(Chunk<? extends T> chunk) throws Exception {
+        Connection connection = DataSourceUtils.getConnection(dataSource);
+        try (StatelessSession session = sessionFactory.openStatelessSession(connection)) {
+            chunkWriter.write(session, chunk);
+        } finally {
+            DataSourceUtils.releaseConnection(connection, dataSource);
+        }
+    }
+
+    @FunctionalInterface
+    public interface ChunkWriter<T> {
+
+        void write(StatelessSession session, Chunk<? extends T> chunk) throws Exception;
+    }
+}
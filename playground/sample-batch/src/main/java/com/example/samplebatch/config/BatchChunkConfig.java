@@ -0,0 +1,33 @@
+package com.example.samplebatch.config;
+
+import com.example.samplebatch.batch.support.AdaptiveChunkCompletionPolicy;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.springframework.batch.core.configuration.annotation.StepScope;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@RequiredArgsConstructor
+public class BatchChunkConfig {
+
+    private final BatchJobProperties batchJobProperties;
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * 스텝 실행(파티션 포함)마다 하나씩 생성되는 청크 완료 정책
+     * adaptive 가 꺼져 있으면 size 로 고정된다.
+     */
+    @Bean
+    @StepScope
+    public AdaptiveChunkCompletionPolicy chunkCompletionPolicy() {
+        BatchJobProperties.Chunking chunk = batchJobProperties.getChunk();
+
+        if (!chunk.isAdaptive()) {
+            return new AdaptiveChunkCompletionPolicy(
+                chunk.getSize(), chunk.getSize(), chunk.getSize(), chunk.getTargetLatency(), meterRegistry);
+        }
+        return new AdaptiveChunkCompletionPolicy(
+            chunk.getSize(), chunk.getMinSize(), chunk.getMaxSize(), chunk.getTargetLatency(), meterRegistry);
+    }
+}
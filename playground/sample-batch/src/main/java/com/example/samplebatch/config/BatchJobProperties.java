@@ -0,0 +1,336 @@
+package com.example.samplebatch.config;
+
+import java.time.Duration;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@ConfigurationProperties(prefix = "batch")
+@Component
+@Data
+public class BatchJobProperties {
+
+    /**
+     * 스케줄 설정
+     */
+    private Schedule schedule = new Schedule();
+
+    /**
+     * firstJob 설정
+     */
+    private First first = new First();
+
+    /**
+     * secondJob 설정
+     */
+    private Second second = new Second();
+
+    /**
+     * 청크 크기 설정 (firstStep, secondStep 공통)
+     */
+    private Chunking chunk = new Chunking();
+
+    /**
+     * 병렬 스텝 실행용 TaskExecutor 설정
+     */
+    private Executor executor = new Executor();
+
+    /**
+     * API 비동기 잡 실행 설정
+     */
+    private Launch launch = new Launch();
+
+    /**
+     * 비동기 ItemProcessor 설정 (firstStep, secondStep 공통)
+     */
+    private AsyncProcessor asyncProcessor = new AsyncProcessor();
+
+    /**
+     * 배치 메타데이터(BATCH_* 테이블) 저장/보관 설정
+     */
+    private Metadata metadata = new Metadata();
+
+    /**
+     * datadb JPA 영속성 컨텍스트 설정
+     */
+    private Jpa jpa = new Jpa();
+
+    @Data
+    public static class Schedule {
+
+        /**
+         * FirstSchedule 사용 여부
+         * 기본값: true
+         */
+        private boolean enabled = true;
+
+        /**
+         * 트리거별 실행 리스 유지 시간
+         * 늦게 깨어난 인스턴스가 같은 트리거를 다시 실행하지 않도록 실행이 끝나도 반납하지 않고 이 시간 뒤 만료된다
+         * 기본값: 10분
+         */
+        private Duration leaseTtl = Duration.ofMinutes(10);
+
+        /**
+         * 스케줄 실행을 증분으로 할지 여부 (batch.first.incremental 대신 적용, API 실행은 batch.first.incremental 을 따름)
+         * true: 지난 high-water mark 이후 추가된 BeforeEntity 만 처리
+         * 기본값: true
+         */
+        private boolean incremental = true;
+    }
+
+    @Data
+    public static class First {
+
+        /**
+         * firstJob 실행 방식
+         * SINGLE: 단일 스레드로 firstStep 실행 (기본값)
+         * PARTITIONED: id 범위로 파티셔닝 후 워커 스텝을 병렬 실행
+         * REMOTE_CHUNKING: 매니저가 읽은 청크를 메시지 채널로 워커에 보내 process/write 를 맡김
+         */
+        private ExecutionMode executionMode = ExecutionMode.SINGLE;
+
+        /**
+         * 파티션 개수 (PARTITIONED 모드)
+         * 기본값: 4
+         */
+        private int gridSize = 4;
+
+        /**
+         * AfterEntity 저장 방식
+         * JDBC: 청크 단위 JDBC 배치 MERGE (기본값)
+         * REPOSITORY: sourceId 로 기존 행을 조회해 갱신하거나 새로 저장
+         */
+        private WriterType writerType = WriterType.JDBC;
+
+        /**
+         * 증분 처리 여부
+         * true: 지난 실행에서 저장한 high-water mark 이후 추가된 BeforeEntity 만 처리
+         * false: 매번 전체를 처리 (AfterEntity 는 sourceId 기준 upsert 라 결과는 같다)
+         * 기본값: false
+         * 스케줄 실행은 batch.schedule.incremental 을 따른다
+         */
+        private boolean incremental = false;
+
+        /**
+         * 원격 청킹 설정 (REMOTE_CHUNKING 모드)
+         */
+        private RemoteChunking remoteChunking = new RemoteChunking();
+    }
+
+    @Data
+    public static class RemoteChunking {
+
+        /**
+         * 청크를 처리하는 워커 수
+         * 기본값: 4
+         */
+        private int workers = 4;
+
+        /**
+         * 응답을 기다리는 청크 최대 수 (워커 수 이상으로 둬야 모든 워커가 쉬지 않는다)
+         * 기본값: 8
+         */
+        private int throttleLimit = 8;
+
+        /**
+         * 워커가 실패한 청크를 매니저가 다시 보내는 횟수
+         * 기본값: 3
+         */
+        private int retryLimit = 3;
+
+        /**
+         * 워커 응답 대기 시간 (넘으면 스텝 실패)
+         * 기본값: 30초
+         */
+        private Duration replyTimeout = Duration.ofSeconds(30);
+    }
+
+    @Data
+    public static class Second {
+
+        /**
+         * secondStep 처리 방식
+         * CHUNK: WinEntity 를 읽어 reward 를 바꾼 뒤 다시 저장 (기본값)
+         * BULK_UPDATE: id 구간마다 UPDATE 문 하나로 DB 에서 바로 갱신
+         */
+        private StepType stepType = StepType.CHUNK;
+
+        /**
+         * BULK_UPDATE 한 번에 처리할 id 구간 크기
+         * 기본값: 1000
+         */
+        private long updateRangeSize = 1000L;
+    }
+
+    @Data
+    public static class Chunking {
+
+        /**
+         * 청크 크기 (adaptive 사용 시 초기값)
+         * 기본값: 10
+         * 설명: 리더 페이지 크기도 현재 청크 크기를 따른다
+         */
+        private int size = 10;
+
+        /**
+         * 실행 중 청크 크기 자동 조정 여부
+         * 기본값: false
+         */
+        private boolean adaptive = false;
+
+        /**
+         * 자동 조정 시 최소 청크 크기
+         * 기본값: 10
+         */
+        private int minSize = 10;
+
+        /**
+         * 자동 조정 시 최대 청크 크기
+         * 기본값: 1000
+         */
+        private int maxSize = 1000;
+
+        /**
+         * 목표 청크 처리(커밋 간격) 시간
+         * 기본값: 500ms
+         */
+        private Duration targetLatency = Duration.ofMillis(500);
+    }
+
+    @Data
+    public static class Executor {
+
+        /**
+         * 동시에 실행할 워커 수
+         * 기본값: 4
+         * 설명: 워커마다 dataDbSource 커넥션을 사용하므로 풀 크기(maximum-pool-size)를 넘지 않게 설정
+         */
+        private int concurrency = 4;
+
+        /**
+         * 가상 스레드 사용 여부
+         * 기본값: false
+         */
+        private boolean virtualThreads = false;
+    }
+
+    @Data
+    public static class Launch {
+
+        /**
+         * 동시에 실행할 수 있는 잡 수
+         * 기본값: 2
+         */
+        private int concurrency = 2;
+
+        /**
+         * 실행을 기다릴 수 있는 잡 수 (초과 시 429 응답)
+         * 기본값: 10
+         */
+        private int queueCapacity = 10;
+
+        /**
+         * 가상 스레드 사용 여부
+         * 기본값: false
+         */
+        private boolean virtualThreads = false;
+    }
+
+    @Data
+    public static class AsyncProcessor {
+
+        /**
+         * 비동기 처리 사용 여부
+         * 기본값: false
+         * 설명: process 가 외부 호출 등 I/O 대기 위주일 때 청크 아이템을 가상 스레드에서 동시에 처리
+         */
+        private boolean enabled = false;
+
+        /**
+         * 동시에 처리 중일 수 있는 최대 아이템 수
+         * 기본값: 32
+         */
+        private int maxInFlight = 32;
+    }
+
+    @Data
+    public static class Metadata {
+
+        /**
+         * 청크마다 하는 스텝 실행/ExecutionContext 저장을 묶어서 할지 여부
+         * 체크포인트가 최대 flushEvery 청크만큼 늦게 기록되므로 재시작 시 그만큼 다시 처리한다.
+         * 기본값: false
+         */
+        private boolean coalesceStepUpdates = false;
+
+        /**
+         * 몇 번의 청크마다 저장할지
+         * 기본값: 10
+         */
+        private int flushEvery = 10;
+
+        /**
+         * 마지막 저장 후 이 시간이 지나면 횟수와 상관없이 저장
+         * 기본값: 5초
+         */
+        private Duration flushInterval = Duration.ofSeconds(5);
+
+        /**
+         * 오래된 메타데이터 삭제 스케줄 사용 여부
+         * 기본값: true
+         */
+        private boolean purgeEnabled = true;
+
+        /**
+         * 삭제 스케줄 cron
+         * 기본값: 매일 03:00
+         */
+        private String purgeCron = "0 0 3 * * *";
+
+        /**
+         * 종료된 잡 실행 보관 기간
+         * 기본값: 30일
+         */
+        private Duration retention = Duration.ofDays(30);
+    }
+
+    @Data
+    public static class Jpa {
+
+        /**
+         * datadb 영속성 컨텍스트 사용 방식 (JPA 로 쓰는 writer: firstStep REPOSITORY, secondStep)
+         * DEFAULT: 청크 트랜잭션 동안 읽고 쓴 엔티티를 영속성 컨텍스트에 유지 (기본값)
+         * CLEAR: 청크를 쓴 직후 flush + clear 해 영속성 컨텍스트를 비운다
+         * STATELESS: Hibernate StatelessSession 으로 바로 INSERT/UPDATE 하고 영속성 컨텍스트는 비운다
+         */
+        private PersistenceMode persistenceMode = PersistenceMode.DEFAULT;
+
+        /**
+         * AfterEntity id 채번 방식
+         * IDENTITY: INSERT 할 때 DB 가 채번 (기본값, Hibernate 가 INSERT 를 배치로 묶지 못함)
+         * POOLED_SEQUENCE: 시퀀스에서 allocationSize 개씩 미리 받아 채번해 REPOSITORY writer 의 INSERT 도 JDBC 배치로 묶인다
+         */
+        private IdStrategy afterIdStrategy = IdStrategy.IDENTITY;
+    }
+
+    public enum ExecutionMode {
+        SINGLE, PARTITIONED, REMOTE_CHUNKING
+    }
+
+    public enum WriterType {
+        REPOSITORY, JDBC
+    }
+
+    public enum StepType {
+        CHUNK, BULK_UPDATE
+    }
+
+    public enum PersistenceMode {
+        DEFAULT, CLEAR, STATELESS
+    }
+
+    public enum IdStrategy {
+        IDENTITY, POOLED_SEQUENCE
+    }
+}
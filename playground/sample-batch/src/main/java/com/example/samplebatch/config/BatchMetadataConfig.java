@@ -0,0 +1,53 @@
+package com.example.samplebatch.config;
+
+import com.example.samplebatch.batch.support.CoalescingStepUpdateInterceptor;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.batch.core.repository.ExecutionContextSerializer;
+import org.springframework.batch.core.repository.JobRepository;
+import org.springframework.batch.core.repository.dao.Jackson2ExecutionContextStringSerializer;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class BatchMetadataConfig {
+
+    /**
+     * ExecutionContext 를 Java 직렬화(Base64) 대신 JSON 으로 저장해 컬럼 크기와 직렬화 비용을 줄인다
+     * (Spring Boot 가 JobRepository/JobExplorer 에 자동으로 적용)
+     */
+    @Bean
+    public ExecutionContextSerializer executionContextSerializer() {
+        return new Jackson2ExecutionContextStringSerializer();
+    }
+
+    /**
+     * batch.metadata.coalesce-step-updates 가 켜져 있으면 JobRepository 를 CoalescingStepUpdateInterceptor 로 감싼다
+     */
+    @Bean
+    public static BeanPostProcessor coalescingJobRepositoryPostProcessor(
+        ObjectProvider<BatchJobProperties> batchJobProperties) {
+
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!(bean instanceof JobRepository)) {
+                    return bean;
+                }
+
+                BatchJobProperties.Metadata metadata = batchJobProperties.getObject().getMetadata();
+                if (!metadata.isCoalesceStepUpdates()) {
+                    return bean;
+                }
+
+                ProxyFactory proxyFactory = new ProxyFactory();
+                proxyFactory.setTarget(bean);
+                proxyFactory.addInterface(JobRepository.class);
+                proxyFactory.addAdvice(
+                    new CoalescingStepUpdateInterceptor(metadata.getFlushEvery(), metadata.getFlushInterval()));
+                return proxyFactory.getProxy();
+            }
+        };
+    }
+}
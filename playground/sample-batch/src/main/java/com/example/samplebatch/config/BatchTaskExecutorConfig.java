@@ -0,0 +1,43 @@
+package com.example.samplebatch.config;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+@Configuration
+@RequiredArgsConstructor
+public class BatchTaskExecutorConfig {
+
+    private final BatchJobProperties batchJobProperties;
+
+    @Bean
+    public TaskExecutor batchTaskExecutor() {
+        BatchJobProperties.Executor executor = batchJobProperties.getExecutor();
+
+        if (executor.isVirtualThreads()) {
+            // 가상 스레드는 풀이 없으므로 동시 실행 수만 제한
+            SimpleAsyncTaskExecutor taskExecutor = new SimpleAsyncTaskExecutor("batch-");
+            taskExecutor.setVirtualThreads(true);
+            taskExecutor.setConcurrencyLimit(executor.getConcurrency());
+            return taskExecutor;
+        }
+
+        ThreadPoolTaskExecutor taskExecutor = new ThreadPoolTaskExecutor();
+        taskExecutor.setCorePoolSize(executor.getConcurrency());
+        taskExecutor.setMaxPoolSize(executor.getConcurrency());
+        taskExecutor.setThreadNamePrefix("batch-");
+        return taskExecutor;
+    }
+
+    @Bean
+    public TaskExecutor asyncProcessorTaskExecutor() {
+        // 동시성 제한에 걸리면 제출하는 쪽(청크 스레드)이 대기하므로 처리 중 아이템 수가 제한된다
+        SimpleAsyncTaskExecutor taskExecutor = new SimpleAsyncTaskExecutor("async-processor-");
+        taskExecutor.setVirtualThreads(true);
+        taskExecutor.setConcurrencyLimit(batchJobProperties.getAsyncProcessor().getMaxInFlight());
+        return taskExecutor;
+    }
+}
@@ -1,6 +1,8 @@
 package com.example.samplebatch.config;
 
+import com.example.samplebatch.config.BatchJobProperties.IdStrategy;
 import jakarta.persistence.EntityManagerFactory;
+import java.util.Map;
 import javax.sql.DataSource;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.boot.context.properties.ConfigurationProperties;
@@ -21,6 +23,16 @@ import org.springframework.transaction.PlatformTransactionManager;
 )
 public class DataDbConfig {
 
+    /**
+     * AfterEntity id 를 풀링 시퀀스로 바꾸는 매핑 (batch.jpa.after-id-strategy=POOLED_SEQUENCE)
+     */
+    private static final String POOLED_ID_MAPPING = "META-INF/after-entity-pooled-id.xml";
+
+    /**
+     * 시퀀스 allocationSize 와 같은 크기로 INSERT 를 묶는다
+     */
+    private static final int JDBC_BATCH_SIZE = 50;
+
     @Bean
     @ConfigurationProperties(prefix = "spring.datasource.data")
     public DataSource dataDbSource() {
@@ -29,12 +41,19 @@ public class DataDbConfig {
 
     @Bean(name = "dataDbManagerFactory")
     public LocalContainerEntityManagerFactoryBean entityManagerFactory(
-        EntityManagerFactoryBuilder builder, @Qualifier("dataDbSource") DataSource dataSource) {
-        return builder
+        EntityManagerFactoryBuilder builder, @Qualifier("dataDbSource") DataSource dataSource,
+        BatchJobProperties batchJobProperties) {
+        EntityManagerFactoryBuilder.Builder datadb = builder
             .dataSource(dataSource)
             .packages("com.example.samplebatch.entity") // 엔티티 패키지
-            .persistenceUnit("datadb")
-            .build();
+            .persistenceUnit("datadb");
+        if (batchJobProperties.getJpa().getAfterIdStrategy() == IdStrategy.POOLED_SEQUENCE) {
+            datadb.mappingResources(POOLED_ID_MAPPING)
+                .properties(Map.of(
+                    "hibernate.jdbc.batch_size", JDBC_BATCH_SIZE,
+                    "hibernate.order_inserts", true));
+        }
+        return datadb.build();
     }
 
     @Bean(name = "dataDbTransactionManager")
@@ -1,8 +1,12 @@
 package com.example.samplebatch.config;
 
+import java.util.List;
 import javax.sql.DataSource;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.boot.jdbc.init.DataSourceScriptDatabaseInitializer;
+import org.springframework.boot.sql.init.DatabaseInitializationMode;
+import org.springframework.boot.sql.init.DatabaseInitializationSettings;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Primary;
@@ -24,4 +28,15 @@ public class MetaDbConfig {
     public PlatformTransactionManager metaTransactionManager() {
         return new DataSourceTransactionManager(metaDbSource());
     }
+
+    /**
+     * BATCH_* 와 함께 쓰는 배치 보조 테이블 생성 (spring.batch.jdbc.initialize-schema 처럼 기동 시 스크립트 실행)
+     */
+    @Bean
+    public DataSourceScriptDatabaseInitializer batchSupportSchemaInitializer() {
+        DatabaseInitializationSettings settings = new DatabaseInitializationSettings();
+        settings.setSchemaLocations(List.of("classpath:schema/batch-support-h2.sql"));
+        settings.setMode(DatabaseInitializationMode.ALWAYS);
+        return new DataSourceScriptDatabaseInitializer(metaDbSource(), settings);
+    }
 }
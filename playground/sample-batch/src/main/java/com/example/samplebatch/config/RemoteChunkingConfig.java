@@ -0,0 +1,92 @@
+package com.example.samplebatch.config;
+
+import com.example.samplebatch.batch.remote.ChunkReplyDispatcher;
+import com.example.samplebatch.entity.AfterEntity;
+import com.example.samplebatch.entity.BeforeEntity;
+import lombok.RequiredArgsConstructor;
+import org.springframework.batch.integration.chunk.RemoteChunkingWorkerBuilder;
+import org.springframework.batch.item.ItemProcessor;
+import org.springframework.batch.item.ItemWriter;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.integration.channel.DirectChannel;
+import org.springframework.integration.channel.ExecutorChannel;
+import org.springframework.integration.dsl.IntegrationFlow;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * firstJob REMOTE_CHUNKING 모드용 메시지 채널과 워커
+ * <p>
+ * 브로커 대신 같은 JVM 안의 Spring Integration 채널을 쓴다.
+ * 요청 채널은 워커 수만큼의 스레드로 청크를 나눠 처리하고, 응답은 ChunkReplyDispatcher 가 보낸 스텝 실행별로 나눠 준다.
+ * 채널을 JMS/AMQP 어댑터로 바꾸면 매니저와 워커를 다른 프로세스로 나눌 수 있다.
+ * batch.first.execution-mode 가 REMOTE_CHUNKING 일 때만 워커 스레드와 채널을 만든다.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "batch.first", name = "execution-mode", havingValue = "REMOTE_CHUNKING")
+@RequiredArgsConstructor
+public class RemoteChunkingConfig {
+
+    private final BatchJobProperties batchJobProperties;
+
+    @Bean
+    public ThreadPoolTaskExecutor chunkWorkerTaskExecutor() {
+        int workers = batchJobProperties.getFirst().getRemoteChunking().getWorkers();
+
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(workers);
+        executor.setMaxPoolSize(workers);
+        executor.setThreadNamePrefix("chunk-worker-");
+        return executor;
+    }
+
+    @Bean
+    public ExecutorChannel chunkRequests() {
+        return new ExecutorChannel(chunkWorkerTaskExecutor());
+    }
+
+    @Bean
+    public DirectChannel chunkReplies() {
+        return new DirectChannel();
+    }
+
+    @Bean
+    public ChunkReplyDispatcher chunkReplyDispatcher() {
+        ChunkReplyDispatcher dispatcher = new ChunkReplyDispatcher();
+        chunkReplies().subscribe(dispatcher);
+        return dispatcher;
+    }
+
+    /**
+     * 청크를 받아 middleProcessor, afterWriter 로 처리하고 결과를 응답 채널로 보내는 워커
+     * 청크 하나를 datadb 트랜잭션 하나로 쓴다.
+     */
+    @Bean
+    public IntegrationFlow firstChunkWorkerFlow(
+        @Qualifier("middleProcessor") ItemProcessor<BeforeEntity, AfterEntity> middleProcessor,
+        @Qualifier("afterWriter") ItemWriter<AfterEntity> afterWriter,
+        @Qualifier("dataDbTransactionManager") PlatformTransactionManager dataDbTransactionManager) {
+
+        TransactionTemplate transactionTemplate = new TransactionTemplate(dataDbTransactionManager);
+        ItemWriter<AfterEntity> transactionalWriter = chunk -> transactionTemplate.executeWithoutResult(status -> {
+            try {
+                afterWriter.write(chunk);
+            } catch (RuntimeException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+
+        return new RemoteChunkingWorkerBuilder<BeforeEntity, AfterEntity>()
+            .itemProcessor(middleProcessor)
+            .itemWriter(transactionalWriter)
+            .inputChannel(chunkRequests())
+            .outputChannel(chunkReplies())
+            .build();
+    }
+}
@@ -0,0 +1,60 @@
+package com.example.samplebatch.controller;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import lombok.RequiredArgsConstructor;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.explore.JobExplorer;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+@RestController
+@RequiredArgsConstructor
+public class JobStatusController {
+
+    private final JobExplorer jobExplorer;
+
+    /**
+     * 메타 DB 에 기록된 잡 실행 상태와 스텝별 진행 건수 조회
+     */
+    @GetMapping("/jobs/{executionId}")
+    public JobStatus jobStatus(@PathVariable("executionId") Long executionId) {
+        JobExecution jobExecution = jobExplorer.getJobExecution(executionId);
+        if (jobExecution == null) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "잡 실행 이력이 없습니다: " + executionId);
+        }
+
+        List<StepProgress> steps = jobExecution.getStepExecutions().stream()
+            .map(StepProgress::from)
+            .toList();
+
+        return new JobStatus(
+            jobExecution.getId(),
+            jobExecution.getJobInstance().getJobName(),
+            jobExecution.getStatus().name(),
+            jobExecution.getExitStatus().getExitCode(),
+            jobExecution.getStartTime(),
+            jobExecution.getEndTime(),
+            steps);
+    }
+
+    public record JobStatus(Long executionId, String jobName, String status, String exitCode,
+                            LocalDateTime startTime, LocalDateTime endTime, List<StepProgress> steps) {
+    }
+
+    public record StepProgress(String stepName, String status, long readCount, long writeCount, long commitCount) {
+
+        static StepProgress from(StepExecution stepExecution) {
+            return new StepProgress(
+                stepExecution.getStepName(),
+                stepExecution.getStatus().name(),
+                stepExecution.getReadCount(),
+                stepExecution.getWriteCount(),
+                stepExecution.getCommitCount());
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.example.samplebatch.controller;
 
+import com.example.samplebatch.service.JobLaunchService;
 import lombok.RequiredArgsConstructor;
 import lombok.SneakyThrows;
 import org.springframework.batch.core.JobParameters;
@@ -16,6 +17,7 @@ public class SecondController {
 
     private final JobLauncher jobLauncher;
     private final JobRegistry jobRegistry;
+    private final JobLaunchService jobLaunchService;
 
     @SneakyThrows
     @GetMapping("/second")
@@ -28,4 +30,17 @@ public class SecondController {
 
         return "ok";
     }
+
+    /**
+     * 잡을 대기열에 넣고 실행 id 를 바로 반환 (진행 상황은 /jobs/{executionId})
+     */
+    @SneakyThrows
+    @GetMapping("/second/async")
+    public Long secondAsyncApi(@RequestParam("value") String value) {
+        JobParameters jobParameters = new JobParametersBuilder()
+            .addString("date", value)
+            .toJobParameters();
+
+        return jobLaunchService.launch("secondJob", jobParameters).getId();
+    }
 }
@@ -1,9 +1,11 @@
 package com.example.samplebatch.entity;
 
+import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.SequenceGenerator;
 import lombok.Getter;
 import lombok.Setter;
 
@@ -12,9 +14,20 @@ import lombok.Setter;
 @Setter
 public class AfterEntity {
 
+    /**
+     * 기본은 IDENTITY 채번
+     * batch.jpa.after-id-strategy=POOLED_SEQUENCE 이면 META-INF/after-entity-pooled-id.xml 이 after_entity_seq (pooled, 50 개씩) 로 바꾼다
+     */
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @SequenceGenerator(name = "after_entity_seq", sequenceName = "after_entity_seq", allocationSize = 50)
     private Long id;
 
+    /**
+     * 원본 BeforeEntity id (같은 원본은 한 행으로만 저장되도록 유니크)
+     */
+    @Column(unique = true)
+    private Long sourceId;
+
     private String username;
 }
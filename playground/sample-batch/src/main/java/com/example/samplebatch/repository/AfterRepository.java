@@ -1,8 +1,11 @@
 package com.example.samplebatch.repository;
 
 import com.example.samplebatch.entity.AfterEntity;
+import java.util.Collection;
+import java.util.List;
 import org.springframework.data.jpa.repository.JpaRepository;
 
 public interface AfterRepository extends JpaRepository<AfterEntity, Long> {
 
+    List<AfterEntity> findBySourceIdIn(Collection<Long> sourceIds);
 }
@@ -1,8 +1,31 @@
 package com.example.samplebatch.repository;
 
 import com.example.samplebatch.entity.BeforeEntity;
+import jakarta.persistence.QueryHint;
+import java.util.List;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
 public interface BeforeRepository extends JpaRepository<BeforeEntity, Long> {
 
+    /**
+     * 키셋 페이징: lastId 다음부터 maxId 까지 id 오름차순으로 limit 건 조회 (OFFSET 없음)
+     * 읽기 전용이라 영속성 컨텍스트에 스냅샷을 남기지 않고 dirty checking 대상에서도 빠진다.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    @Query("select b from BeforeEntity b where b.id > :lastId and b.id <= :maxId order by b.id asc")
+    List<BeforeEntity> findPageAfter(@Param("lastId") Long lastId, @Param("maxId") Long maxId, Limit limit);
+
+    @Query("select min(b.id) from BeforeEntity b")
+    Long findMinId();
+
+    @Query("select min(b.id) from BeforeEntity b where b.id > :lastId")
+    Long findMinIdAfter(@Param("lastId") Long lastId);
+
+    @Query("select max(b.id) from BeforeEntity b")
+    Long findMaxId();
 }
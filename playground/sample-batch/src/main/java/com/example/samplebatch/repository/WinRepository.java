@@ -1,11 +1,46 @@
 package com.example.samplebatch.repository;
 
 import com.example.samplebatch.entity.WinEntity;
+import jakarta.persistence.QueryHint;
+import java.util.List;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
 public interface WinRepository extends JpaRepository<WinEntity, Long> {
 
     Page<WinEntity> findByWinGreaterThanEqual(Long win, Pageable pageable);
+
+    /**
+     * 키셋 페이징: 아직 reward 가 없는 win 이상 대상을 lastId 다음부터 maxId 까지 limit 건 조회
+     * id 로만 위치를 잡으므로 앞에서 갱신된 행 때문에 페이지가 밀리거나 당겨지지 않는다.
+     */
+    @Query("""
+        select w from WinEntity w
+        where w.win >= :win and w.id > :lastId and w.id <= :maxId and (w.reward is null or w.reward = false)
+        order by w.id asc
+        """)
+    List<WinEntity> findRewardTargetsAfter(@Param("win") Long win, @Param("lastId") Long lastId,
+        @Param("maxId") Long maxId, Limit limit);
+
+    /**
+     * findRewardTargetsAfter 의 읽기 전용 버전 (STATELESS 모드)
+     * 영속성 컨텍스트가 변경을 추적하지 않으므로 StatelessSession.update 처럼 직접 갱신할 때만 쓴다.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    @Query("""
+        select w from WinEntity w
+        where w.win >= :win and w.id > :lastId and w.id <= :maxId and (w.reward is null or w.reward = false)
+        order by w.id asc
+        """)
+    List<WinEntity> findRewardTargetsAfterReadOnly(@Param("win") Long win, @Param("lastId") Long lastId,
+        @Param("maxId") Long maxId, Limit limit);
+
+    @Query("select max(w.id) from WinEntity w")
+    Long findMaxId();
 }
@@ -1,35 +1,107 @@
 package com.example.samplebatch.schedule;
 
-import java.text.SimpleDateFormat;
-import java.util.Date;
+import com.example.samplebatch.batch.listener.HighWaterMarkListener;
+import com.example.samplebatch.config.BatchJobProperties;
+import java.time.Duration;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.batch.core.JobExecution;
 import org.springframework.batch.core.JobParameters;
 import org.springframework.batch.core.JobParametersBuilder;
 import org.springframework.batch.core.configuration.JobRegistry;
+import org.springframework.batch.core.explore.JobExplorer;
 import org.springframework.batch.core.launch.JobLauncher;
+import org.springframework.batch.core.repository.JobExecutionAlreadyRunningException;
+import org.springframework.batch.core.repository.JobInstanceAlreadyCompleteException;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.support.CronExpression;
 
+/**
+ * firstJob 스케줄
+ * <p>
+ * 실행이 겹치지 않도록 트리거마다 다음 순서로 확인한다.
+ * (기본 스케줄러는 스레드 하나라 이 인스턴스 안에서는 트리거가 겹치지 않고, 실행 중 지난 트리거는 건너뛴다)
+ * 1. 메타 DB 에 실행 중인 firstJob 이 있으면 (다른 인스턴스, API 실행 포함) 건너뜀
+ * 2. 트리거 예정 시각으로 잡은 메타 DB 리스를 얻은 인스턴스 하나만 실행
+ * <p>
+ * 리스와 잡 파라미터(date)는 실제 실행 시각이 아닌 cron 예정 시각으로 만든다.
+ * 시계가 조금 어긋나거나 늦게 깨어난 인스턴스도 같은 키를 만들고, 리스는 실행이 끝나도 반납하지 않고 ttl 까지 유지하므로
+ * 트리거 하나에 실행은 한 번뿐이다.
+ * 스케줄 실행은 batch.schedule.incremental 이면 지난 high-water mark 이후 추가된 행만 처리한다.
+ */
 @Configuration
+@ConditionalOnProperty(prefix = "batch.schedule", name = "enabled", havingValue = "true", matchIfMissing = true)
 @RequiredArgsConstructor
 @Slf4j
 public class FirstSchedule {
 
+    private static final String JOB_NAME = "firstJob";
+    private static final String CRON = "10 * * * * *";
+    private static final String ZONE = "Asia/Seoul";
+    private static final CronExpression CRON_EXPRESSION = CronExpression.parse(CRON);
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd-HH-mm-ss");
+
     private final JobLauncher jobLauncher;
     private final JobRegistry jobRegistry;
+    private final JobExplorer jobExplorer;
+    private final JobRunLease jobRunLease;
+    private final BatchJobProperties batchJobProperties;
 
-    @Scheduled(cron = "10 * * * * *", zone = "Asia/Seoul")
+    @Scheduled(cron = CRON, zone = ZONE)
     public void runFirstJob() throws Exception {
-        log.info("first schedule start");
+        Duration leaseTtl = batchJobProperties.getSchedule().getLeaseTtl();
+        runTrigger(scheduledTime(ZonedDateTime.now(ZoneId.of(ZONE)), leaseTtl));
+    }
+
+    /**
+     * 예정 시각 fireTime 의 트리거를 실행하고, 건너뛰면 null
+     */
+    JobExecution runTrigger(ZonedDateTime fireTime) throws Exception {
+        String date = DATE_FORMAT.format(fireTime);
+        log.info("first schedule start: {}", date);
 
-        SimpleDateFormat dateFormat = new SimpleDateFormat("yyyy-MM-dd-hh-mm-ss");
-        String date = dateFormat.format(new Date());
+        if (!jobExplorer.findRunningJobExecutions(JOB_NAME).isEmpty()) {
+            log.info("실행 중인 firstJob 이 있어 건너뜀");
+            return null;
+        }
+
+        BatchJobProperties.Schedule schedule = batchJobProperties.getSchedule();
+        if (!jobRunLease.tryAcquire(JOB_NAME + ":" + date, schedule.getLeaseTtl())) {
+            log.info("다른 인스턴스가 이 트리거의 firstJob 리스를 가져가 건너뜀: {}", date);
+            return null;
+        }
+        jobRunLease.purgeExpired();
 
         JobParameters jobParameters = new JobParametersBuilder()
             .addString("date", date)
+            .addJobParameter(HighWaterMarkListener.INCREMENTAL_KEY, schedule.isIncremental(), Boolean.class, false)
             .toJobParameters();
+        try {
+            return jobLauncher.run(jobRegistry.getJob(JOB_NAME), jobParameters);
+        } catch (JobExecutionAlreadyRunningException | JobInstanceAlreadyCompleteException e) {
+            // 리스가 ttl 로 만료된 뒤 같은 트리거가 다시 들어와도 잡 인스턴스(date)가 같아 중복 실행되지 않는다
+            log.info("이 트리거의 firstJob 은 이미 실행됨: {}", date);
+            return null;
+        }
+    }
 
-        jobLauncher.run(jobRegistry.getJob("firstJob"), jobParameters);
+    /**
+     * now 이전(포함)의 가장 최근 cron 예정 시각
+     * lookback 안에 예정 시각이 없으면 now 를 초 단위로 자른 값
+     */
+    static ZonedDateTime scheduledTime(ZonedDateTime now, Duration lookback) {
+        ZonedDateTime scheduled = now.truncatedTo(ChronoUnit.SECONDS);
+        ZonedDateTime candidate = CRON_EXPRESSION.next(now.minus(lookback));
+        while (candidate != null && !candidate.isAfter(now)) {
+            scheduled = candidate;
+            candidate = CRON_EXPRESSION.next(candidate);
+        }
+        return scheduled;
     }
 }
@@ -0,0 +1,64 @@
+package com.example.samplebatch.schedule;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.UUID;
+import javax.sql.DataSource;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * 메타 DB 의 BATCH_JOB_RUN_LEASE 행으로 잡 실행 리스를 잡는다 (인스턴스 간 한 곳만 실행)
+ * <p>
+ * - 행이 있으면 만료된 경우에만 조건부 UPDATE 로 가져온다
+ * - 행이 없으면 INSERT 하고, 동시에 INSERT 한 쪽은 기본키 중복으로 실패한다
+ * 인스턴스가 죽어 release 를 못 해도 ttl 이 지나면 다른 인스턴스가 가져갈 수 있다.
+ */
+@Component
+public class JobRunLease {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final String owner = UUID.randomUUID().toString();
+
+    public JobRunLease(DataSource metaDbSource) {
+        this.jdbcTemplate = new JdbcTemplate(metaDbSource);
+    }
+
+    public boolean tryAcquire(String name, Duration ttl) {
+        Instant now = Instant.now();
+        Timestamp expiresAt = Timestamp.from(now.plus(ttl));
+
+        int updated = jdbcTemplate.update(
+            "UPDATE BATCH_JOB_RUN_LEASE SET OWNER = ?, EXPIRES_AT = ? WHERE NAME = ? AND EXPIRES_AT < ?",
+            owner, expiresAt, name, Timestamp.from(now));
+        if (updated == 1) {
+            return true;
+        }
+
+        try {
+            jdbcTemplate.update(
+                "INSERT INTO BATCH_JOB_RUN_LEASE (NAME, OWNER, EXPIRES_AT) VALUES (?, ?, ?)",
+                name, owner, expiresAt);
+            return true;
+        } catch (DuplicateKeyException e) {
+            // 다른 인스턴스가 리스를 보유 중 (만료 전)
+            return false;
+        }
+    }
+
+    /**
+     * 만료된 리스 행 삭제 (트리거마다 이름이 달라 행이 쌓이지 않도록)
+     */
+    public void purgeExpired() {
+        jdbcTemplate.update("DELETE FROM BATCH_JOB_RUN_LEASE WHERE EXPIRES_AT < ?", Timestamp.from(Instant.now()));
+    }
+
+    /**
+     * 이 인스턴스가 가진 리스만 반납
+     */
+    public void release(String name) {
+        jdbcTemplate.update("DELETE FROM BATCH_JOB_RUN_LEASE WHERE NAME = ? AND OWNER = ?", name, owner);
+    }
+}
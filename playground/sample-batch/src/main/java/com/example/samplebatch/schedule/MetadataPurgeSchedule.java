@@ -0,0 +1,65 @@
+package com.example.samplebatch.schedule;
+
+import com.example.samplebatch.config.BatchJobProperties;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import javax.sql.DataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * 보관 기간이 지난 BATCH_* 메타데이터 삭제
+ * 종료(END_TIME 있음)된 잡 실행만 대상이며, 외래 키 순서대로 자식 테이블부터 지운다.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "batch.metadata", name = "purge-enabled", havingValue = "true", matchIfMissing = true)
+@Slf4j
+public class MetadataPurgeSchedule {
+
+    private static final String OLD_JOB_EXECUTIONS =
+        "SELECT JOB_EXECUTION_ID FROM BATCH_JOB_EXECUTION WHERE END_TIME IS NOT NULL AND END_TIME < ?";
+
+    private static final String[] PURGE_SQLS = {
+        "DELETE FROM BATCH_STEP_EXECUTION_CONTEXT WHERE STEP_EXECUTION_ID IN "
+            + "(SELECT STEP_EXECUTION_ID FROM BATCH_STEP_EXECUTION WHERE JOB_EXECUTION_ID IN (" + OLD_JOB_EXECUTIONS + "))",
+        "DELETE FROM BATCH_STEP_EXECUTION WHERE JOB_EXECUTION_ID IN (" + OLD_JOB_EXECUTIONS + ")",
+        "DELETE FROM BATCH_JOB_EXECUTION_CONTEXT WHERE JOB_EXECUTION_ID IN (" + OLD_JOB_EXECUTIONS + ")",
+        "DELETE FROM BATCH_JOB_EXECUTION_PARAMS WHERE JOB_EXECUTION_ID IN (" + OLD_JOB_EXECUTIONS + ")",
+        "DELETE FROM BATCH_JOB_EXECUTION WHERE END_TIME IS NOT NULL AND END_TIME < ?",
+    };
+
+    private static final String PURGE_ORPHAN_INSTANCES = """
+        DELETE FROM BATCH_JOB_INSTANCE I
+         WHERE NOT EXISTS (SELECT 1 FROM BATCH_JOB_EXECUTION E WHERE E.JOB_INSTANCE_ID = I.JOB_INSTANCE_ID)
+        """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final BatchJobProperties batchJobProperties;
+
+    public MetadataPurgeSchedule(DataSource metaDbSource, PlatformTransactionManager metaTransactionManager,
+        BatchJobProperties batchJobProperties) {
+        this.jdbcTemplate = new JdbcTemplate(metaDbSource);
+        this.transactionTemplate = new TransactionTemplate(metaTransactionManager);
+        this.batchJobProperties = batchJobProperties;
+    }
+
+    @Scheduled(cron = "${batch.metadata.purge-cron:0 0 3 * * *}", zone = "Asia/Seoul")
+    public void purge() {
+        Timestamp cutoff = Timestamp.valueOf(LocalDateTime.now().minus(batchJobProperties.getMetadata().getRetention()));
+
+        transactionTemplate.executeWithoutResult(status -> {
+            int deleted = 0;
+            for (String sql : PURGE_SQLS) {
+                deleted += jdbcTemplate.update(sql, cutoff);
+            }
+            deleted += jdbcTemplate.update(PURGE_ORPHAN_INSTANCES);
+            log.info("배치 메타데이터 정리: {} 이전 종료 실행, {} 행 삭제", cutoff, deleted);
+        });
+    }
+}
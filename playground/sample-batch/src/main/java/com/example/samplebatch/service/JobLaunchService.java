@@ -0,0 +1,77 @@
+package com.example.samplebatch.service;
+
+import com.example.samplebatch.config.BatchJobProperties;
+import java.util.concurrent.Semaphore;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.JobParameters;
+import org.springframework.batch.core.configuration.JobRegistry;
+import org.springframework.batch.core.launch.support.TaskExecutorJobLauncher;
+import org.springframework.batch.core.repository.JobRepository;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+
+/**
+ * 요청 스레드를 막지 않고 잡을 실행하는 서비스
+ * <p>
+ * 잡은 전용 실행기(동시 실행 concurrency 개 + 대기 queueCapacity 개)에서 실행되고, 호출자는 JobExecution 을 바로 받는다.
+ * 실행 중 + 대기 중인 잡이 꽉 차 있으면 실행 이력을 만들기 전에 JobQueueFullException 으로 즉시 거절한다.
+ */
+@Service
+@Slf4j
+public class JobLaunchService implements DisposableBean {
+
+    private final JobRegistry jobRegistry;
+    private final Semaphore slots;
+    private final ThreadPoolTaskExecutor taskExecutor;
+    private final TaskExecutorJobLauncher jobLauncher;
+
+    public JobLaunchService(JobRegistry jobRegistry, JobRepository jobRepository,
+        BatchJobProperties batchJobProperties) throws Exception {
+        BatchJobProperties.Launch launch = batchJobProperties.getLaunch();
+        this.jobRegistry = jobRegistry;
+        this.slots = new Semaphore(launch.getConcurrency() + launch.getQueueCapacity());
+
+        this.taskExecutor = new ThreadPoolTaskExecutor();
+        taskExecutor.setCorePoolSize(launch.getConcurrency());
+        taskExecutor.setMaxPoolSize(launch.getConcurrency());
+        taskExecutor.setQueueCapacity(launch.getQueueCapacity());
+        taskExecutor.setVirtualThreads(launch.isVirtualThreads());
+        taskExecutor.setThreadNamePrefix("job-launch-");
+        // 잡이 끝나면(성공/실패 모두) 자리를 반납
+        taskExecutor.setTaskDecorator(task -> () -> {
+            try {
+                task.run();
+            } finally {
+                slots.release();
+            }
+        });
+        taskExecutor.initialize();
+
+        this.jobLauncher = new TaskExecutorJobLauncher();
+        jobLauncher.setJobRepository(jobRepository);
+        jobLauncher.setTaskExecutor(taskExecutor);
+        jobLauncher.afterPropertiesSet();
+    }
+
+    public JobExecution launch(String jobName, JobParameters jobParameters) throws Exception {
+        if (!slots.tryAcquire()) {
+            log.warn("잡 실행 대기열이 가득 참: {}", jobName);
+            throw new JobQueueFullException(jobName);
+        }
+
+        try {
+            return jobLauncher.run(jobRegistry.getJob(jobName), jobParameters);
+        } catch (Exception e) {
+            // 실행기에 제출되지 않았으므로 자리를 바로 반납
+            slots.release();
+            throw e;
+        }
+    }
+
+    @Override
+    public void destroy() {
+        taskExecutor.shutdown();
+    }
+}
@@ -0,0 +1,12 @@
+package com.example.samplebatch.service;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.TOO_MANY_REQUESTS)
+public class JobQueueFullException extends RuntimeException {
+
+    public JobQueueFullException(String jobName) {
+        super("잡 실행 대기열이 가득 찼습니다: " + jobName);
+    }
+}
@@ -0,0 +1,14 @@
+-- BATCH_* 메타 테이블과 함께 메타 DB 에 만드는 배치 보조 테이블
+
+-- 스케줄 실행 리스: 여러 인스턴스 중 리스를 가진 한 곳만 잡을 실행
+CREATE TABLE IF NOT EXISTS BATCH_JOB_RUN_LEASE (
+    NAME       VARCHAR(100) NOT NULL PRIMARY KEY,
+    OWNER      VARCHAR(100) NOT NULL,
+    EXPIRES_AT TIMESTAMP    NOT NULL
+);
+
+-- 잡별 high-water mark: 증분 실행이 마지막까지 처리한 원본 id
+CREATE TABLE IF NOT EXISTS BATCH_HIGH_WATER_MARK (
+    NAME    VARCHAR(100) NOT NULL PRIMARY KEY,
+    LAST_ID BIGINT       NOT NULL
+);
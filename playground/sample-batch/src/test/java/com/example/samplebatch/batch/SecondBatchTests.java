@@ -0,0 +1,79 @@
+package com.example.samplebatch.batch;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.example.samplebatch.entity.WinEntity;
+import com.example.samplebatch.repository.WinRepository;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.item.ItemStreamReader;
+import org.springframework.batch.test.MetaDataInstanceFactory;
+import org.springframework.batch.test.StepScopeTestUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+
+@SpringBootTest(properties = "batch.schedule.enabled=false")
+class SecondBatchTests {
+
+    @Autowired
+    @Qualifier("winReader")
+    private ItemStreamReader<WinEntity> winReader;
+
+    @Autowired
+    private WinRepository winRepository;
+
+    @AfterEach
+    void tearDown() {
+        winRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void concurrentStepExecutionsDoNotShareWinReaderPosition() throws Exception {
+        winRepository.saveAll(IntStream.range(0, 3)
+            .mapToObj(i -> {
+                WinEntity entity = new WinEntity();
+                entity.setUsername("user" + i);
+                entity.setWin(10L);
+                entity.setReward(false);
+                return entity;
+            })
+            .toList());
+        StepExecution first = MetaDataInstanceFactory.createStepExecution("secondStep", 1L);
+        StepExecution second = MetaDataInstanceFactory.createStepExecution("secondStep", 2L);
+
+        List<String> firstRead = StepScopeTestUtils.doInStepScope(first, () -> {
+            List<String> usernames = new ArrayList<>();
+            winReader.open(first.getExecutionContext());
+            usernames.add(winReader.read().getUsername());
+
+            // 첫 스텝이 읽는 도중 다른 secondJob 의 스텝이 같은 리더 빈으로 처음부터 끝까지 읽는다
+            List<String> secondRead = StepScopeTestUtils.doInStepScope(second, () -> readAll(second));
+            assertThat(secondRead).containsExactly("user0", "user1", "user2");
+
+            WinEntity item;
+            while ((item = winReader.read()) != null) {
+                usernames.add(item.getUsername());
+            }
+            winReader.close();
+            return usernames;
+        });
+
+        assertThat(firstRead).containsExactly("user0", "user1", "user2");
+    }
+
+    private List<String> readAll(StepExecution stepExecution) throws Exception {
+        List<String> usernames = new ArrayList<>();
+        winReader.open(stepExecution.getExecutionContext());
+        WinEntity item;
+        while ((item = winReader.read()) != null) {
+            usernames.add(item.getUsername());
+        }
+        winReader.close();
+        return usernames;
+    }
+}
@@ -0,0 +1,149 @@
+package com.example.samplebatch.batch.listener;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.example.samplebatch.entity.AfterEntity;
+import com.example.samplebatch.entity.BeforeEntity;
+import com.example.samplebatch.repository.AfterRepository;
+import com.example.samplebatch.repository.BeforeRepository;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.IntStream;
+import javax.sql.DataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.batch.core.BatchStatus;
+import org.springframework.batch.core.Job;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.JobParameters;
+import org.springframework.batch.core.JobParametersBuilder;
+import org.springframework.batch.core.launch.JobLauncher;
+import org.springframework.batch.core.repository.JobRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+@SpringBootTest(properties = {
+    "batch.schedule.enabled=false",
+    "batch.first.writer-type=JDBC",
+    "batch.first.incremental=true"
+})
+class HighWaterMarkListenerTests {
+
+    @Autowired
+    private AfterRepository afterRepository;
+
+    @Autowired
+    private BeforeRepository beforeRepository;
+
+    @Autowired
+    private JobLauncher jobLauncher;
+
+    @Autowired
+    private JobRepository jobRepository;
+
+    @Autowired
+    @Qualifier("firstJob")
+    private Job firstJob;
+
+    @Autowired
+    @Qualifier("metaDbSource")
+    private DataSource metaDbSource;
+
+    @BeforeEach
+    void setUp() {
+        new JdbcTemplate(metaDbSource).update("DELETE FROM BATCH_HIGH_WATER_MARK");
+    }
+
+    @AfterEach
+    void tearDown() {
+        afterRepository.deleteAllInBatch();
+        beforeRepository.deleteAllInBatch();
+        new JdbcTemplate(metaDbSource).update("DELETE FROM BATCH_HIGH_WATER_MARK");
+    }
+
+    @Test
+    void secondRunProcessesOnlyRowsAddedSinceFirstRun() throws Exception {
+        List<BeforeEntity> first = saveBeforeEntities("first", 30);
+        JobExecution firstRun = run(newParameters());
+
+        List<BeforeEntity> second = saveBeforeEntities("second", 20);
+        // 이미 처리한 원본을 바꿔도 다음 증분 실행 구간에는 들어가지 않는다
+        BeforeEntity changed = first.get(0);
+        changed.setUsername("changed");
+        beforeRepository.save(changed);
+        JobExecution secondRun = run(newParameters());
+
+        long firstMaxId = lastId(first);
+        assertThat(range(firstRun)).containsExactly(0L, firstMaxId);
+        assertThat(range(secondRun)).containsExactly(firstMaxId, lastId(second));
+        assertThat(afterRepository.count()).isEqualTo(50);
+        assertThat(afterRepository.findAll())
+            .extracting(AfterEntity::getUsername)
+            .doesNotContain("changed");
+    }
+
+    @Test
+    void restartKeepsTheRangeOfTheFailedRun() throws Exception {
+        List<BeforeEntity> first = saveBeforeEntities("first", 30);
+        JobParameters parameters = newParameters();
+        failedExecutionWithRange(parameters, 0L, lastId(first));
+
+        saveBeforeEntities("late", 20);
+        JobExecution restarted = run(parameters);
+
+        // 재시작은 실패한 실행이 정한 구간만 다시 처리하고, 그 뒤에 들어온 행은 다음 실행으로 넘긴다
+        assertThat(range(restarted)).containsExactly(0L, lastId(first));
+        assertThat(afterRepository.count()).isEqualTo(30);
+
+        JobExecution next = run(newParameters());
+        assertThat(range(next).get(0)).isEqualTo(lastId(first));
+        assertThat(afterRepository.count()).isEqualTo(50);
+    }
+
+    private List<BeforeEntity> saveBeforeEntities(String prefix, int count) {
+        return beforeRepository.saveAll(IntStream.range(0, count)
+            .mapToObj(i -> {
+                BeforeEntity entity = new BeforeEntity();
+                entity.setUsername(prefix + i);
+                return entity;
+            })
+            .toList());
+    }
+
+    private void failedExecutionWithRange(JobParameters parameters, long fromId, long toId) throws Exception {
+        JobExecution jobExecution = jobRepository.createJobExecution(firstJob.getName(), parameters);
+        jobExecution.getExecutionContext().putLong(HighWaterMarkListener.FROM_ID_KEY, fromId);
+        jobExecution.getExecutionContext().putLong(HighWaterMarkListener.TO_ID_KEY, toId);
+        jobRepository.updateExecutionContext(jobExecution);
+
+        jobExecution.setStartTime(LocalDateTime.now());
+        jobExecution.setEndTime(LocalDateTime.now());
+        jobExecution.setStatus(BatchStatus.FAILED);
+        jobRepository.update(jobExecution);
+    }
+
+    private JobExecution run(JobParameters parameters) throws Exception {
+        JobExecution jobExecution = jobLauncher.run(firstJob, parameters);
+        assertThat(jobExecution.getStatus()).isEqualTo(BatchStatus.COMPLETED);
+        return jobExecution;
+    }
+
+    private JobParameters newParameters() {
+        return new JobParametersBuilder()
+            .addLong("run", System.nanoTime())
+            .toJobParameters();
+    }
+
+    private List<Long> range(JobExecution jobExecution) {
+        return List.of(
+            jobExecution.getExecutionContext().getLong(HighWaterMarkListener.FROM_ID_KEY),
+            jobExecution.getExecutionContext().getLong(HighWaterMarkListener.TO_ID_KEY));
+    }
+
+    private long lastId(List<BeforeEntity> entities) {
+        return entities.get(entities.size() - 1).getId();
+    }
+}
@@ -0,0 +1,149 @@
+package com.example.samplebatch.batch.listener;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.example.samplebatch.entity.AfterEntity;
+import com.example.samplebatch.entity.BeforeEntity;
+import com.example.samplebatch.repository.AfterRepository;
+import com.example.samplebatch.repository.BeforeRepository;
+import jakarta.persistence.EntityManagerFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.batch.core.BatchStatus;
+import org.springframework.batch.core.Job;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.JobParametersBuilder;
+import org.springframework.batch.core.launch.JobLauncher;
+import org.springframework.batch.item.Chunk;
+import org.springframework.batch.item.ItemWriter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.orm.jpa.EntityManagerFactoryUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@SpringBootTest(properties = {
+    "batch.schedule.enabled=false",
+    "batch.first.writer-type=REPOSITORY",
+    "batch.first.incremental=false",
+    "batch.jpa.persistence-mode=CLEAR"
+})
+class PersistenceContextClearListenerTests {
+
+    private static final int CHUNK_SIZE = 100;
+    private static final int CHUNKS = 5;
+
+    @Autowired
+    private PersistenceContextClearListener persistenceContextClearListener;
+
+    @Autowired
+    @Qualifier("afterWriter")
+    private ItemWriter<AfterEntity> afterWriter;
+
+    @Autowired
+    @Qualifier("dataDbManagerFactory")
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    @Qualifier("dataDbTransactionManager")
+    private PlatformTransactionManager dataDbTransactionManager;
+
+    @Autowired
+    private AfterRepository afterRepository;
+
+    @Autowired
+    private BeforeRepository beforeRepository;
+
+    @Autowired
+    private JobLauncher jobLauncher;
+
+    @Autowired
+    @Qualifier("firstJob")
+    private Job firstJob;
+
+    @AfterEach
+    void tearDown() {
+        afterRepository.deleteAllInBatch();
+        beforeRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void managedEntityCountStaysFlatAfterEachChunk() {
+        // 한 트랜잭션에서 청크를 여러 번 써도 청크마다 비워지므로 관리 엔티티 수가 늘지 않는다
+        List<Integer> managedCounts = writeChunksInOneTransaction(true);
+
+        assertThat(managedCounts).hasSize(CHUNKS).containsOnly(0);
+        assertThat(afterRepository.count()).isEqualTo(CHUNK_SIZE * CHUNKS);
+    }
+
+    @Test
+    void managedEntityCountGrowsWithoutClear() {
+        List<Integer> managedCounts = writeChunksInOneTransaction(false);
+
+        assertThat(managedCounts).isSortedAccordingTo(Integer::compare);
+        assertThat(managedCounts.get(CHUNKS - 1)).isGreaterThanOrEqualTo(CHUNK_SIZE * CHUNKS);
+    }
+
+    @Test
+    void firstJobWritesEachSourceOnceAcrossRuns() throws Exception {
+        beforeRepository.saveAll(IntStream.range(0, 250)
+            .mapToObj(i -> {
+                BeforeEntity entity = new BeforeEntity();
+                entity.setUsername("user" + i);
+                return entity;
+            })
+            .toList());
+
+        for (int run = 0; run < 2; run++) {
+            JobExecution jobExecution = jobLauncher.run(firstJob, new JobParametersBuilder()
+                .addLong("run", System.nanoTime())
+                .toJobParameters());
+            assertThat(jobExecution.getStatus()).isEqualTo(BatchStatus.COMPLETED);
+        }
+
+        assertThat(afterRepository.count()).isEqualTo(250);
+    }
+
+    private List<Integer> writeChunksInOneTransaction(boolean clear) {
+        List<Integer> managedCounts = new ArrayList<>();
+
+        new TransactionTemplate(dataDbTransactionManager).executeWithoutResult(status -> {
+            for (int i = 0; i < CHUNKS; i++) {
+                Chunk<AfterEntity> chunk = chunkOf(i * CHUNK_SIZE);
+                try {
+                    afterWriter.write(chunk);
+                } catch (Exception e) {
+                    throw new IllegalStateException(e);
+                }
+                if (clear) {
+                    persistenceContextClearListener.afterWrite(chunk);
+                }
+                managedCounts.add(managedEntityCount());
+            }
+        });
+        return managedCounts;
+    }
+
+    private Chunk<AfterEntity> chunkOf(int firstSourceId) {
+        Chunk<AfterEntity> chunk = new Chunk<>();
+        for (int i = 0; i < CHUNK_SIZE; i++) {
+            AfterEntity entity = new AfterEntity();
+            entity.setSourceId((long) firstSourceId + i);
+            entity.setUsername("user" + (firstSourceId + i));
+            chunk.add(entity);
+        }
+        return chunk;
+    }
+
+    private int managedEntityCount() {
+        return EntityManagerFactoryUtils.getTransactionalEntityManager(entityManagerFactory)
+            .unwrap(SharedSessionContractImplementor.class)
+            .getPersistenceContextInternal()
+            .getNumberOfManagedEntities();
+    }
+}
@@ -0,0 +1,102 @@
+package com.example.samplebatch.batch.reader;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.sun.net.httpserver.HttpServer;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.web.client.RestTemplate;
+
+class PrefetchingItemStreamReaderImplTests {
+
+    private static final int LAST_PAGE_ID = 20;
+
+    private HttpServer server;
+    private String apiUrl;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger maxInFlight = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() throws Exception {
+        // id 가 LAST_PAGE_ID 이하면 "page-{id}" 를, 그 이후는 빈 응답을 주는 스텁 서버
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        server.createContext("/page", exchange -> {
+            maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            try {
+                Thread.sleep(20);
+                int id = Integer.parseInt(exchange.getRequestURI().getQuery().substring("id=".length()));
+                if (id > LAST_PAGE_ID) {
+                    exchange.sendResponseHeaders(200, -1);
+                    return;
+                }
+                byte[] body = ("page-" + id).getBytes(StandardCharsets.UTF_8);
+                exchange.getResponseHeaders().add("Content-Type", "text/plain");
+                exchange.sendResponseHeaders(200, body.length);
+                try (OutputStream out = exchange.getResponseBody()) {
+                    out.write(body);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                inFlight.decrementAndGet();
+                exchange.close();
+            }
+        });
+        server.start();
+        apiUrl = "http://localhost:" + server.getAddress().getPort() + "/page?id=";
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+    }
+
+    @Test
+    void readsInIdOrderWithConcurrentRequests() throws Exception {
+        PrefetchingItemStreamReaderImpl reader = new PrefetchingItemStreamReaderImpl(new RestTemplate(), apiUrl, 8);
+        reader.open(new ExecutionContext());
+
+        List<String> items = new ArrayList<>();
+        String item;
+        while ((item = reader.read()) != null) {
+            items.add(item);
+        }
+        reader.close();
+
+        assertThat(items).hasSize(LAST_PAGE_ID);
+        for (int i = 0; i < LAST_PAGE_ID; i++) {
+            assertThat(items.get(i)).isEqualTo("page-" + (i + 1));
+        }
+        assertThat(maxInFlight.get()).isGreaterThan(1);
+    }
+
+    @Test
+    void checkpointIsLastReturnedIdNotLastPrefetchedId() throws Exception {
+        ExecutionContext executionContext = new ExecutionContext();
+
+        PrefetchingItemStreamReaderImpl reader = new PrefetchingItemStreamReaderImpl(new RestTemplate(), apiUrl, 8);
+        reader.open(executionContext);
+        for (int i = 0; i < 5; i++) {
+            reader.read();
+        }
+        reader.update(executionContext);
+        reader.close();
+
+        assertThat(executionContext.getInt("current.call.id")).isEqualTo(5);
+
+        PrefetchingItemStreamReaderImpl restarted = new PrefetchingItemStreamReaderImpl(new RestTemplate(), apiUrl, 8);
+        restarted.open(executionContext);
+        assertThat(restarted.read()).isEqualTo("page-6");
+        restarted.close();
+    }
+}
@@ -0,0 +1,214 @@
+package com.example.samplebatch.batch.remote;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.batch.core.BatchStatus;
+import org.springframework.batch.core.Job;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.JobParameters;
+import org.springframework.batch.core.JobParametersBuilder;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.StepExecutionListener;
+import org.springframework.batch.core.job.builder.JobBuilder;
+import org.springframework.batch.core.launch.support.TaskExecutorJobLauncher;
+import org.springframework.batch.core.repository.JobRepository;
+import org.springframework.batch.core.repository.support.JobRepositoryFactoryBean;
+import org.springframework.batch.core.step.builder.StepBuilder;
+import org.springframework.batch.core.step.item.SimpleChunkProcessor;
+import org.springframework.batch.integration.chunk.ChunkProcessorChunkHandler;
+import org.springframework.batch.integration.chunk.ChunkRequest;
+import org.springframework.batch.item.Chunk;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.batch.item.ItemStreamReader;
+import org.springframework.integration.channel.DirectChannel;
+import org.springframework.integration.channel.ExecutorChannel;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+import org.springframework.messaging.support.MessageBuilder;
+
+/**
+ * 같은 JVM 안의 채널과 워커로 원격 청킹 매니저 writer 를 검증
+ */
+class RetryingChunkMessageChannelItemWriterTests {
+
+    private static final int ITEMS = 100;
+    private static final int CHUNK_SIZE = 10;
+    private static final int FLAKY_ITEM = 42;
+
+    private EmbeddedDatabase database;
+    private DataSourceTransactionManager transactionManager;
+    private JobRepository jobRepository;
+    private ExecutorService workers;
+
+    private final ExecutorChannel requests = new ExecutorChannel(command -> workers.execute(command));
+    private final DirectChannel replies = new DirectChannel();
+    private final ChunkReplyDispatcher dispatcher = new ChunkReplyDispatcher();
+
+    private final Collection<Integer> written = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger flakyFailuresLeft = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() throws Exception {
+        database = new EmbeddedDatabaseBuilder()
+            .setType(EmbeddedDatabaseType.H2)
+            .generateUniqueName(true)
+            .addScript("org/springframework/batch/core/schema-h2.sql")
+            .build();
+        transactionManager = new DataSourceTransactionManager(database);
+
+        JobRepositoryFactoryBean factoryBean = new JobRepositoryFactoryBean();
+        factoryBean.setDataSource(database);
+        factoryBean.setTransactionManager(transactionManager);
+        factoryBean.afterPropertiesSet();
+        jobRepository = factoryBean.getObject();
+
+        workers = Executors.newFixedThreadPool(4);
+        replies.subscribe(dispatcher);
+        startWorker();
+    }
+
+    @AfterEach
+    void tearDown() {
+        workers.shutdownNow();
+        database.shutdown();
+    }
+
+    @Test
+    void failedChunkIsResentAndCountsComeFromWorkers() throws Exception {
+        flakyFailuresLeft.set(2);
+
+        JobExecution jobExecution = launch(newParameters(), 3);
+
+        assertThat(jobExecution.getStatus()).isEqualTo(BatchStatus.COMPLETED);
+        assertThat(written).hasSize(90).doesNotHaveDuplicates();
+        // 매니저가 보낸 건수가 아니라 워커가 쓴 건수/거른 건수가 남는다
+        StepExecution stepExecution = jobExecution.getStepExecutions().iterator().next();
+        assertThat(stepExecution.getReadCount()).isEqualTo(ITEMS);
+        assertThat(stepExecution.getWriteCount()).isEqualTo(90);
+        assertThat(stepExecution.getFilterCount()).isEqualTo(10);
+    }
+
+    @Test
+    void chunkFailingPastRetryLimitIsReadAgainOnRestart() throws Exception {
+        flakyFailuresLeft.set(Integer.MAX_VALUE);
+        JobParameters parameters = newParameters();
+
+        assertThat(launch(parameters, 1).getStatus()).isEqualTo(BatchStatus.FAILED);
+
+        // 실패한 청크 뒤의 청크가 먼저 커밋됐더라도 재시작은 실패한 청크부터 다시 읽는다
+        flakyFailuresLeft.set(0);
+        assertThat(launch(parameters, 1).getStatus()).isEqualTo(BatchStatus.COMPLETED);
+        assertThat(written.stream().distinct()).hasSize(90).contains(FLAKY_ITEM - 1);
+    }
+
+    @Test
+    void concurrentJobsReceiveOnlyTheirOwnReplies() throws Exception {
+        List<CompletableFuture<JobExecution>> runs = List.of(
+            CompletableFuture.supplyAsync(() -> launchUnchecked(newParameters())),
+            CompletableFuture.supplyAsync(() -> launchUnchecked(newParameters())),
+            CompletableFuture.supplyAsync(() -> launchUnchecked(newParameters())));
+
+        for (CompletableFuture<JobExecution> run : runs) {
+            JobExecution jobExecution = run.get();
+            assertThat(jobExecution.getStatus()).isEqualTo(BatchStatus.COMPLETED);
+            assertThat(jobExecution.getStepExecutions().iterator().next().getWriteCount()).isEqualTo(90);
+        }
+        assertThat(written).hasSize(90 * runs.size());
+    }
+
+    /**
+     * RemoteChunkingWorkerBuilder 가 만드는 워커와 같은 구성: 요청을 ChunkProcessorChunkHandler 로 처리해 응답 채널로 보낸다
+     * 10의 배수는 거르고, FLAKY_ITEM 이 든 청크는 flakyFailuresLeft 만큼 실패한다.
+     */
+    private void startWorker() {
+        ChunkProcessorChunkHandler<Integer> handler = new ChunkProcessorChunkHandler<>();
+        handler.setChunkProcessor(new SimpleChunkProcessor<Integer, Integer>(
+            item -> item % 10 == 0 ? null : item,
+            (Chunk<? extends Integer> chunk) -> {
+                if (chunk.getItems().contains(FLAKY_ITEM) && flakyFailuresLeft.getAndDecrement() > 0) {
+                    throw new IllegalStateException("flaky " + FLAKY_ITEM);
+                }
+                Thread.sleep(5);
+                written.addAll(chunk.getItems());
+            }));
+
+        requests.subscribe(message -> {
+            try {
+                @SuppressWarnings("unchecked")
+                ChunkRequest<Integer> request = (ChunkRequest<Integer>) message.getPayload();
+                replies.send(MessageBuilder.withPayload(handler.handleChunk(request)).build());
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+    }
+
+    private JobExecution launchUnchecked(JobParameters parameters) {
+        try {
+            return launch(parameters, 3);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private JobExecution launch(JobParameters parameters, int retryLimit) throws Exception {
+        // 스텝 스코프 빈처럼 실행마다 새 writer
+        RetryingChunkMessageChannelItemWriter<Integer> writer = new RetryingChunkMessageChannelItemWriter<>(
+            requests, dispatcher, 4, retryLimit, Duration.ofSeconds(10));
+        Job job = new JobBuilder("remoteChunkingJob", jobRepository)
+            .start(new StepBuilder("remoteChunkingStep", jobRepository)
+                .<Integer, Integer>chunk(CHUNK_SIZE, transactionManager)
+                .reader(new IndexReader())
+                .writer(writer)
+                .listener((StepExecutionListener) writer)
+                .build())
+            .build();
+
+        TaskExecutorJobLauncher jobLauncher = new TaskExecutorJobLauncher();
+        jobLauncher.setJobRepository(jobRepository);
+        jobLauncher.afterPropertiesSet();
+        return jobLauncher.run(job, parameters);
+    }
+
+    private JobParameters newParameters() {
+        return new JobParametersBuilder().addLong("run", System.nanoTime()).toJobParameters();
+    }
+
+    /**
+     * 읽은 위치를 ExecutionContext 에 저장해 재시작 시 이어서 읽는 reader
+     */
+    private static class IndexReader implements ItemStreamReader<Integer> {
+
+        private static final String INDEX_KEY = "index";
+
+        private int index;
+
+        @Override
+        public void open(ExecutionContext executionContext) {
+            index = executionContext.getInt(INDEX_KEY, 0);
+        }
+
+        @Override
+        public void update(ExecutionContext executionContext) {
+            executionContext.putInt(INDEX_KEY, index);
+        }
+
+        @Override
+        public Integer read() {
+            return index < ITEMS ? index++ : null;
+        }
+    }
+}
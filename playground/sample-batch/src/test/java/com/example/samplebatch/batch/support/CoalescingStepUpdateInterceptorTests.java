@@ -0,0 +1,182 @@
+package com.example.samplebatch.batch.support;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.batch.core.BatchStatus;
+import org.springframework.batch.core.Job;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.JobParameters;
+import org.springframework.batch.core.JobParametersBuilder;
+import org.springframework.batch.core.job.builder.JobBuilder;
+import org.springframework.batch.core.launch.support.TaskExecutorJobLauncher;
+import org.springframework.batch.core.repository.JobRepository;
+import org.springframework.batch.core.repository.support.JobRepositoryFactoryBean;
+import org.springframework.batch.core.step.builder.StepBuilder;
+import org.springframework.batch.item.Chunk;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.batch.item.ItemStreamReader;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+
+class CoalescingStepUpdateInterceptorTests {
+
+    private static final int ITEMS = 100;
+    private static final int CHUNK_SIZE = 5;
+    private static final int FLUSH_EVERY = 10;
+    private static final int CRASH_AT = 63;
+
+    private EmbeddedDatabase database;
+    private DataSourceTransactionManager transactionManager;
+    private JobRepository jobRepository;
+
+    private final AtomicBoolean crashed = new AtomicBoolean();
+    private final List<Integer> written = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() throws Exception {
+        database = new EmbeddedDatabaseBuilder()
+            .setType(EmbeddedDatabaseType.H2)
+            .generateUniqueName(true)
+            .addScript("org/springframework/batch/core/schema-h2.sql")
+            .build();
+        transactionManager = new DataSourceTransactionManager(database);
+
+        JobRepositoryFactoryBean factoryBean = new JobRepositoryFactoryBean();
+        factoryBean.setDataSource(database);
+        factoryBean.setTransactionManager(transactionManager);
+        factoryBean.afterPropertiesSet();
+        jobRepository = factoryBean.getObject();
+    }
+
+    @AfterEach
+    void tearDown() {
+        database.shutdown();
+    }
+
+    @Test
+    void failedStepFlushesTheLastCommittedCheckpoint() throws Exception {
+        JobRepository coalescing = coalescing(jobRepository);
+        Job job = job(coalescing, true);
+        JobParameters parameters = new JobParametersBuilder().addLong("run", 1L).toJobParameters();
+
+        assertThat(launch(coalescing, job, parameters).getStatus()).isEqualTo(BatchStatus.FAILED);
+        assertThat(launch(coalescing, job, parameters).getStatus()).isEqualTo(BatchStatus.COMPLETED);
+
+        // 스텝이 실패로 끝날 때는 묶지 않고 저장하므로 재시작은 마지막 커밋 청크 바로 다음부터 읽는다
+        assertThat(written).hasSize(ITEMS).doesNotHaveDuplicates();
+    }
+
+    @Test
+    void restartAfterCrashReprocessesAtMostFlushEveryChunks() throws Exception {
+        // 프로세스가 죽은 것처럼 crash 이후의 저장은 모두 버리는 프록시를 한 겹 더 씌운다
+        JobRepository crashing = crashing(coalescing(jobRepository));
+        JobParameters parameters = new JobParametersBuilder().addLong("run", 1L).toJobParameters();
+        launch(crashing, job(crashing, true), parameters);
+
+        // 운영자가 남아 있는 STARTED 실행을 FAILED 로 정리한 뒤 재시작
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(database);
+        assertThat(jdbcTemplate.queryForObject(
+            "SELECT STATUS FROM BATCH_STEP_EXECUTION", String.class)).isEqualTo("STARTED");
+        jdbcTemplate.update("UPDATE BATCH_STEP_EXECUTION SET STATUS = 'FAILED', END_TIME = CURRENT_TIMESTAMP");
+        jdbcTemplate.update("UPDATE BATCH_JOB_EXECUTION SET STATUS = 'FAILED', END_TIME = CURRENT_TIMESTAMP");
+
+        JobRepository coalescing = coalescing(jobRepository);
+        assertThat(launch(coalescing, job(coalescing, false), parameters).getStatus())
+            .isEqualTo(BatchStatus.COMPLETED);
+
+        // 잃어버린 아이템은 없고, 마지막 저장 이후 커밋된 청크만 다시 처리된다
+        Set<Integer> seen = new HashSet<>();
+        List<Integer> reprocessed = written.stream().filter(item -> !seen.add(item)).toList();
+        int committedBeforeCrash = CRASH_AT / CHUNK_SIZE * CHUNK_SIZE;
+
+        assertThat(seen).hasSize(ITEMS);
+        assertThat(reprocessed)
+            .isNotEmpty()
+            .hasSizeLessThanOrEqualTo(FLUSH_EVERY * CHUNK_SIZE)
+            .allMatch(item -> item < committedBeforeCrash);
+    }
+
+    private JobExecution launch(JobRepository repository, Job job, JobParameters parameters) throws Exception {
+        TaskExecutorJobLauncher jobLauncher = new TaskExecutorJobLauncher();
+        jobLauncher.setJobRepository(repository);
+        jobLauncher.afterPropertiesSet();
+        return jobLauncher.run(job, parameters);
+    }
+
+    private Job job(JobRepository repository, boolean failAtCrashPoint) {
+        return new JobBuilder("coalescingJob", repository)
+            .start(new StepBuilder("coalescingStep", repository)
+                .<Integer, Integer>chunk(CHUNK_SIZE, transactionManager)
+                .reader(new IndexReader())
+                .writer((Chunk<? extends Integer> chunk) -> {
+                    boolean crash = failAtCrashPoint && chunk.getItems().contains(CRASH_AT);
+                    if (crash && crashed.compareAndSet(false, true)) {
+                        throw new IllegalStateException("crash at " + CRASH_AT);
+                    }
+                    written.addAll(chunk.getItems());
+                })
+                .build())
+            .build();
+    }
+
+    private JobRepository coalescing(JobRepository target) {
+        return proxy(target, new CoalescingStepUpdateInterceptor(FLUSH_EVERY, Duration.ofHours(1)));
+    }
+
+    private JobRepository crashing(JobRepository target) {
+        return proxy(target, invocation -> {
+            String method = invocation.getMethod().getName();
+            if (crashed.get() && (method.startsWith("update") || method.startsWith("add"))) {
+                return null;
+            }
+            return invocation.proceed();
+        });
+    }
+
+    private JobRepository proxy(JobRepository target, MethodInterceptor interceptor) {
+        ProxyFactory proxyFactory = new ProxyFactory();
+        proxyFactory.setTarget(target);
+        proxyFactory.addInterface(JobRepository.class);
+        proxyFactory.addAdvice(interceptor);
+        return (JobRepository) proxyFactory.getProxy();
+    }
+
+    /**
+     * 읽은 위치를 ExecutionContext 에 저장해 재시작 시 이어서 읽는 reader
+     */
+    private static class IndexReader implements ItemStreamReader<Integer> {
+
+        private static final String INDEX_KEY = "index";
+
+        private int index;
+
+        @Override
+        public void open(ExecutionContext executionContext) {
+            index = executionContext.getInt(INDEX_KEY, 0);
+        }
+
+        @Override
+        public void update(ExecutionContext executionContext) {
+            executionContext.putInt(INDEX_KEY, index);
+        }
+
+        @Override
+        public Integer read() {
+            return index < ITEMS ? index++ : null;
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package com.example.samplebatch.batch.tasklet;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Map;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.batch.core.StepContribution;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.scope.context.ChunkContext;
+import org.springframework.batch.core.scope.context.StepContext;
+import org.springframework.batch.repeat.RepeatStatus;
+import org.springframework.batch.test.MetaDataInstanceFactory;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+
+class IdRangeUpdateTaskletTests {
+
+    private static final String UPDATE_SQL =
+        "UPDATE ITEM SET DONE = TRUE WHERE FLAGGED = TRUE AND ID BETWEEN :fromId AND :toId";
+    private static final String MIN_ID_SQL = "SELECT MIN(ID) FROM ITEM WHERE FLAGGED = :flagged";
+    private static final String MAX_ID_SQL = "SELECT MAX(ID) FROM ITEM WHERE FLAGGED = :flagged";
+
+    private EmbeddedDatabase dataDb;
+    private NamedParameterJdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        dataDb = new EmbeddedDatabaseBuilder()
+            .setType(EmbeddedDatabaseType.H2)
+            .generateUniqueName(true)
+            .build();
+        jdbcTemplate = new NamedParameterJdbcTemplate(dataDb);
+        jdbcTemplate.getJdbcOperations().execute(
+            "CREATE TABLE ITEM (ID BIGINT PRIMARY KEY, FLAGGED BOOLEAN, DONE BOOLEAN DEFAULT FALSE)");
+    }
+
+    @AfterEach
+    void tearDown() {
+        dataDb.shutdown();
+    }
+
+    @Test
+    void firstRangeStartsAtSmallestMatchingId() throws Exception {
+        // 대상 행이 큰 id 에만 있으면 0 부터 걷지 않고 바로 그 구간부터 갱신한다
+        insert(1L, false);
+        for (long id = 1_000_000L; id < 1_000_010L; id++) {
+            insert(id, true);
+        }
+        IdRangeUpdateTasklet tasklet = tasklet(5L);
+        StepExecution stepExecution = MetaDataInstanceFactory.createStepExecution();
+
+        int executions = runToCompletion(tasklet, stepExecution);
+
+        assertThat(executions).isEqualTo(2);
+        assertThat(stepExecution.getWriteCount()).isEqualTo(10);
+        assertThat(doneCount()).isEqualTo(10);
+    }
+
+    @Test
+    void noMatchingRowsFinishesWithoutUpdating() throws Exception {
+        insert(1L, false);
+        StepExecution stepExecution = MetaDataInstanceFactory.createStepExecution();
+
+        int executions = runToCompletion(tasklet(5L), stepExecution);
+
+        assertThat(executions).isEqualTo(1);
+        assertThat(stepExecution.getWriteCount()).isZero();
+    }
+
+    private IdRangeUpdateTasklet tasklet(long rangeSize) {
+        return new IdRangeUpdateTasklet(jdbcTemplate, UPDATE_SQL, MIN_ID_SQL, MAX_ID_SQL,
+            Map.of("flagged", true), rangeSize);
+    }
+
+    private int runToCompletion(IdRangeUpdateTasklet tasklet, StepExecution stepExecution) throws Exception {
+        ChunkContext chunkContext = new ChunkContext(new StepContext(stepExecution));
+        int executions = 0;
+        RepeatStatus status;
+        do {
+            StepContribution contribution = stepExecution.createStepContribution();
+            status = tasklet.execute(contribution, chunkContext);
+            stepExecution.apply(contribution);
+            executions++;
+        } while (status.isContinuable());
+        return executions;
+    }
+
+    private void insert(long id, boolean flagged) {
+        jdbcTemplate.update("INSERT INTO ITEM (ID, FLAGGED) VALUES (:id, :flagged)",
+            Map.of("id", id, "flagged", flagged));
+    }
+
+    private Integer doneCount() {
+        return jdbcTemplate.getJdbcOperations().queryForObject("SELECT COUNT(*) FROM ITEM WHERE DONE", Integer.class);
+    }
+}
@@ -0,0 +1,109 @@
+package com.example.samplebatch.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.example.samplebatch.entity.AfterEntity;
+import com.example.samplebatch.repository.AfterRepository;
+import jakarta.persistence.EntityManagerFactory;
+import javax.sql.DataSource;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.batch.item.Chunk;
+import org.springframework.batch.item.ItemWriter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * POOLED_SEQUENCE 이면 REPOSITORY writer 의 INSERT 가 배치로 묶이고, id 없이 넣는 JDBC MERGE 도 그대로 동작하는지 검증
+ */
+@SpringBootTest(properties = {
+    "batch.schedule.enabled=false",
+    "batch.first.writer-type=REPOSITORY",
+    "batch.jpa.after-id-strategy=POOLED_SEQUENCE",
+    "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+class AfterIdStrategyTests {
+
+    private static final int ROWS = 120;
+
+    @Autowired
+    @Qualifier("afterWriter")
+    private ItemWriter<AfterEntity> afterWriter;
+
+    @Autowired
+    @Qualifier("dataDbManagerFactory")
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    @Qualifier("dataDbTransactionManager")
+    private PlatformTransactionManager dataDbTransactionManager;
+
+    @Autowired
+    @Qualifier("dataDbSource")
+    private DataSource dataDbSource;
+
+    @Autowired
+    private AfterRepository afterRepository;
+
+    @AfterEach
+    void tearDown() {
+        afterRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void repositoryWriterBatchesInsertsWithPooledIds() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        new TransactionTemplate(dataDbTransactionManager).executeWithoutResult(status -> {
+            try {
+                afterWriter.write(chunkOf(0, ROWS));
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+
+        assertThat(afterRepository.count()).isEqualTo(ROWS);
+        assertThat(statistics.getEntityInsertCount()).isEqualTo(ROWS);
+        // 행마다 INSERT 를 준비하지 않는다: 조회 1 + 시퀀스 몇 번 + 배치 INSERT 몇 번
+        assertThat(statistics.getPrepareStatementCount()).isLessThan(ROWS / 10);
+    }
+
+    @Test
+    void jdbcMergeStillGetsIdFromTheSequence() {
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataDbSource);
+        jdbcTemplate.update("MERGE INTO AFTER_ENTITY T USING (VALUES (?, ?)) S (SOURCE_ID, USERNAME) "
+            + "ON T.SOURCE_ID = S.SOURCE_ID "
+            + "WHEN NOT MATCHED THEN INSERT (SOURCE_ID, USERNAME) VALUES (S.SOURCE_ID, S.USERNAME)", 1L, "jdbc");
+        new TransactionTemplate(dataDbTransactionManager).executeWithoutResult(status -> {
+            try {
+                afterWriter.write(chunkOf(2, 10));
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+
+        assertThat(afterRepository.findAll())
+            .hasSize(11)
+            .extracting(AfterEntity::getId)
+            .doesNotContainNull()
+            .doesNotHaveDuplicates();
+    }
+
+    private Chunk<AfterEntity> chunkOf(int firstSourceId, int size) {
+        Chunk<AfterEntity> chunk = new Chunk<>();
+        for (int i = 0; i < size; i++) {
+            AfterEntity entity = new AfterEntity();
+            entity.setSourceId((long) firstSourceId + i);
+            entity.setUsername("user" + (firstSourceId + i));
+            chunk.add(entity);
+        }
+        return chunk;
+    }
+}
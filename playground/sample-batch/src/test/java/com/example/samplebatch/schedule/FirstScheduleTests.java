@@ -0,0 +1,138 @@
+package com.example.samplebatch.schedule;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.example.samplebatch.batch.listener.HighWaterMarkListener;
+import com.example.samplebatch.config.BatchJobProperties;
+import com.example.samplebatch.entity.BeforeEntity;
+import com.example.samplebatch.repository.AfterRepository;
+import com.example.samplebatch.repository.BeforeRepository;
+import java.time.Duration;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.stream.IntStream;
+import javax.sql.DataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.batch.core.BatchStatus;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.configuration.JobRegistry;
+import org.springframework.batch.core.explore.JobExplorer;
+import org.springframework.batch.core.launch.JobLauncher;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+@SpringBootTest(properties = {
+    "batch.schedule.enabled=false",
+    "batch.first.incremental=false"
+})
+class FirstScheduleTests {
+
+    private static final ZoneId ZONE = ZoneId.of("Asia/Seoul");
+
+    @Autowired
+    private JobLauncher jobLauncher;
+
+    @Autowired
+    private JobRegistry jobRegistry;
+
+    @Autowired
+    private JobExplorer jobExplorer;
+
+    @Autowired
+    private BatchJobProperties batchJobProperties;
+
+    @Autowired
+    @Qualifier("metaDbSource")
+    private DataSource metaDbSource;
+
+    @Autowired
+    private AfterRepository afterRepository;
+
+    @Autowired
+    private BeforeRepository beforeRepository;
+
+    @BeforeEach
+    void setUp() {
+        clearMetaTables();
+    }
+
+    @AfterEach
+    void tearDown() {
+        afterRepository.deleteAllInBatch();
+        beforeRepository.deleteAllInBatch();
+        clearMetaTables();
+    }
+
+    @Test
+    void scheduledTimeIsTheLatestCronFireTime() {
+        Duration lookback = Duration.ofMinutes(10);
+        ZonedDateTime fireTime = ZonedDateTime.of(2030, 1, 1, 13, 0, 10, 0, ZONE);
+
+        assertThat(FirstSchedule.scheduledTime(fireTime.plusNanos(350_000_000), lookback)).isEqualTo(fireTime);
+        // 늦게 깨어나도 같은 트리거로 본다
+        assertThat(FirstSchedule.scheduledTime(fireTime.plusSeconds(40), lookback)).isEqualTo(fireTime);
+        assertThat(FirstSchedule.scheduledTime(fireTime.minusSeconds(1), lookback)).isEqualTo(fireTime.minusMinutes(1));
+    }
+
+    @Test
+    void lateInstanceDoesNotRerunTheSameTrigger() throws Exception {
+        FirstSchedule instanceA = schedule();
+        FirstSchedule instanceB = schedule();
+        ZonedDateTime fireTime = ZonedDateTime.of(2030, 1, 1, 13, 0, 10, 0, ZONE);
+
+        JobExecution run = instanceA.runTrigger(fireTime);
+        assertThat(run.getStatus()).isEqualTo(BatchStatus.COMPLETED);
+        // 실행이 끝나도 트리거 리스는 ttl 까지 남는다
+        assertThat(new JdbcTemplate(metaDbSource).queryForObject(
+            "SELECT COUNT(*) FROM BATCH_JOB_RUN_LEASE WHERE NAME = ?", Integer.class, "firstJob:2030-01-01-13-00-10"))
+            .isEqualTo(1);
+
+        // A 의 실행이 끝난 뒤에 같은 트리거로 깨어난 B 는 실행하지 않는다
+        assertThat(instanceB.runTrigger(fireTime)).isNull();
+        assertThat(instanceA.runTrigger(fireTime)).isNull();
+        assertThat(instanceB.runTrigger(fireTime.plusMinutes(1)).getStatus()).isEqualTo(BatchStatus.COMPLETED);
+    }
+
+    @Test
+    void scheduledRunsProcessOnlyRowsAddedSinceTheLastRun() throws Exception {
+        FirstSchedule schedule = schedule();
+        ZonedDateTime fireTime = ZonedDateTime.of(2030, 1, 2, 1, 0, 10, 0, ZONE);
+        List<BeforeEntity> first = saveBeforeEntities("first", 30);
+        JobExecution firstRun = schedule.runTrigger(fireTime);
+
+        saveBeforeEntities("second", 20);
+        // 01:00 과 13:00 트리거는 다른 잡 인스턴스다
+        JobExecution secondRun = schedule.runTrigger(fireTime.plusHours(12));
+
+        assertThat(firstRun.getJobInstance().getId()).isNotEqualTo(secondRun.getJobInstance().getId());
+        assertThat(secondRun.getExecutionContext().getLong(HighWaterMarkListener.FROM_ID_KEY))
+            .isEqualTo(first.get(first.size() - 1).getId());
+        assertThat(afterRepository.count()).isEqualTo(50);
+    }
+
+    private FirstSchedule schedule() {
+        return new FirstSchedule(jobLauncher, jobRegistry, jobExplorer, new JobRunLease(metaDbSource),
+            batchJobProperties);
+    }
+
+    private List<BeforeEntity> saveBeforeEntities(String prefix, int count) {
+        return beforeRepository.saveAll(IntStream.range(0, count)
+            .mapToObj(i -> {
+                BeforeEntity entity = new BeforeEntity();
+                entity.setUsername(prefix + i);
+                return entity;
+            })
+            .toList());
+    }
+
+    private void clearMetaTables() {
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(metaDbSource);
+        jdbcTemplate.update("DELETE FROM BATCH_JOB_RUN_LEASE");
+        jdbcTemplate.update("DELETE FROM BATCH_HIGH_WATER_MARK");
+    }
+}
@@ -0,0 +1,83 @@
+package com.example.samplebatch.schedule;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+
+class JobRunLeaseTests {
+
+    private static final String JOB_NAME = "firstJob";
+
+    private EmbeddedDatabase metaDb;
+
+    @BeforeEach
+    void setUp() {
+        metaDb = new EmbeddedDatabaseBuilder()
+            .setType(EmbeddedDatabaseType.H2)
+            .generateUniqueName(true)
+            .addScript("schema/batch-support-h2.sql")
+            .build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        metaDb.shutdown();
+    }
+
+    @Test
+    void onlyOneOfConcurrentContendersAcquiresTheLease() throws Exception {
+        JobRunLease first = new JobRunLease(metaDb);
+        JobRunLease second = new JobRunLease(metaDb);
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Callable<Boolean> firstAttempt = () -> {
+                start.await();
+                return first.tryAcquire(JOB_NAME, Duration.ofMinutes(10));
+            };
+            Callable<Boolean> secondAttempt = () -> {
+                start.await();
+                return second.tryAcquire(JOB_NAME, Duration.ofMinutes(10));
+            };
+            List<Future<Boolean>> results = List.of(executor.submit(firstAttempt), executor.submit(secondAttempt));
+            start.countDown();
+
+            assertThat(List.of(results.get(0).get(), results.get(1).get())).containsExactlyInAnyOrder(true, false);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void releasedOrExpiredLeaseCanBeTakenByAnotherInstance() throws Exception {
+        JobRunLease first = new JobRunLease(metaDb);
+        JobRunLease second = new JobRunLease(metaDb);
+
+        assertThat(first.tryAcquire(JOB_NAME, Duration.ofMinutes(10))).isTrue();
+        assertThat(second.tryAcquire(JOB_NAME, Duration.ofMinutes(10))).isFalse();
+
+        // 다른 인스턴스의 release 는 리스를 풀지 않는다
+        second.release(JOB_NAME);
+        assertThat(second.tryAcquire(JOB_NAME, Duration.ofMinutes(10))).isFalse();
+
+        first.release(JOB_NAME);
+        assertThat(second.tryAcquire(JOB_NAME, Duration.ofMillis(1))).isTrue();
+
+        // 반납 없이 만료되면 다른 인스턴스가 가져간다
+        Thread.sleep(5);
+        assertThat(first.tryAcquire(JOB_NAME, Duration.ofMinutes(10))).isTrue();
+        assertThat(second.tryAcquire(JOB_NAME, Duration.ofMinutes(10))).isFalse();
+    }
+}
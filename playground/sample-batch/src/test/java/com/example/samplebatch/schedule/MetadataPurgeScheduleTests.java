@@ -0,0 +1,124 @@
+package com.example.samplebatch.schedule;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.example.samplebatch.config.BatchJobProperties;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.batch.core.BatchStatus;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.JobParametersBuilder;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.repository.JobRepository;
+import org.springframework.batch.core.repository.support.JobRepositoryFactoryBean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+
+class MetadataPurgeScheduleTests {
+
+    private EmbeddedDatabase database;
+    private JobRepository jobRepository;
+    private JdbcTemplate jdbcTemplate;
+    private MetadataPurgeSchedule metadataPurgeSchedule;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        // 외래 키가 걸린 Spring Batch H2 스키마 그대로 사용
+        database = new EmbeddedDatabaseBuilder()
+            .setType(EmbeddedDatabaseType.H2)
+            .generateUniqueName(true)
+            .addScript("org/springframework/batch/core/schema-h2.sql")
+            .build();
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(database);
+
+        JobRepositoryFactoryBean factoryBean = new JobRepositoryFactoryBean();
+        factoryBean.setDataSource(database);
+        factoryBean.setTransactionManager(transactionManager);
+        factoryBean.afterPropertiesSet();
+        jobRepository = factoryBean.getObject();
+        jdbcTemplate = new JdbcTemplate(database);
+
+        BatchJobProperties batchJobProperties = new BatchJobProperties();
+        batchJobProperties.getMetadata().setRetention(Duration.ofDays(30));
+        metadataPurgeSchedule = new MetadataPurgeSchedule(database, transactionManager, batchJobProperties);
+    }
+
+    @AfterEach
+    void tearDown() {
+        database.shutdown();
+    }
+
+    @Test
+    void purgeDeletesExpiredExecutionsChildTablesFirst() throws Exception {
+        JobExecution expired = completedExecution("old");
+        JobExecution recent = completedExecution("new");
+        JobExecution running = jobRepository.createJobExecution("purgeJob",
+            new JobParametersBuilder().addString("run", "running").toJobParameters());
+        endedAt(expired, LocalDateTime.now().minusDays(31));
+
+        metadataPurgeSchedule.purge();
+
+        assertThat(jobExecutionIds()).containsExactlyInAnyOrder(recent.getId(), running.getId());
+        assertThat(count("BATCH_JOB_INSTANCE")).isEqualTo(2);
+        assertThat(count("BATCH_STEP_EXECUTION")).isEqualTo(1);
+        assertThat(count("BATCH_STEP_EXECUTION_CONTEXT")).isEqualTo(1);
+        assertThat(count("BATCH_JOB_EXECUTION_CONTEXT")).isEqualTo(2);
+        assertThat(count("BATCH_JOB_EXECUTION_PARAMS")).isEqualTo(2);
+    }
+
+    @Test
+    void purgeKeepsInstanceThatStillHasRecentExecution() throws Exception {
+        JobParametersBuilder parameters = new JobParametersBuilder().addString("run", "restarted");
+        JobExecution failed = jobRepository.createJobExecution("purgeJob", parameters.toJobParameters());
+        failed.setStatus(BatchStatus.FAILED);
+        failed.setStartTime(LocalDateTime.now());
+        failed.setEndTime(LocalDateTime.now());
+        jobRepository.update(failed);
+        endedAt(failed, LocalDateTime.now().minusDays(31));
+
+        JobExecution restarted = jobRepository.createJobExecution("purgeJob", parameters.toJobParameters());
+
+        metadataPurgeSchedule.purge();
+
+        assertThat(jobExecutionIds()).containsExactly(restarted.getId());
+        assertThat(count("BATCH_JOB_INSTANCE")).isEqualTo(1);
+    }
+
+    private JobExecution completedExecution(String run) throws Exception {
+        JobExecution jobExecution = jobRepository.createJobExecution("purgeJob",
+            new JobParametersBuilder().addString("run", run).toJobParameters());
+        StepExecution stepExecution = jobExecution.createStepExecution("purgeStep");
+        jobRepository.add(stepExecution);
+
+        stepExecution.setStatus(BatchStatus.COMPLETED);
+        stepExecution.setEndTime(LocalDateTime.now());
+        jobRepository.update(stepExecution);
+
+        jobExecution.setStatus(BatchStatus.COMPLETED);
+        jobExecution.setStartTime(LocalDateTime.now());
+        jobExecution.setEndTime(LocalDateTime.now());
+        jobRepository.update(jobExecution);
+        return jobExecution;
+    }
+
+    private void endedAt(JobExecution jobExecution, LocalDateTime endTime) {
+        jdbcTemplate.update("UPDATE BATCH_JOB_EXECUTION SET END_TIME = ? WHERE JOB_EXECUTION_ID = ?",
+            Timestamp.valueOf(endTime), jobExecution.getId());
+    }
+
+    private List<Long> jobExecutionIds() {
+        return jdbcTemplate.queryForList("SELECT JOB_EXECUTION_ID FROM BATCH_JOB_EXECUTION", Long.class);
+    }
+
+    private int count(String table) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + table, Integer.class);
+    }
+}